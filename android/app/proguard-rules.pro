@@ -19,3 +19,19 @@
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
 #-renamesourcefileattribute SourceFile
+
+# Gson writes these by field name.
+-keepattributes Signature
+-keepclassmembers class org.tensorflow.lite.examples.detection.env.MemoryMonitor$Entry,
+    org.tensorflow.lite.examples.detection.env.MemoryMonitor$Snapshot,
+    org.tensorflow.lite.examples.detection.GalleryScanner$Record,
+    org.tensorflow.lite.examples.detection.GalleryScanner$Detection {
+    <fields>;
+}
+
+# Strip verbose and debug logging from minified builds. Their arguments are only used inside the
+# calls, so the optimizer can drop them too.
+-assumenosideeffects class org.tensorflow.lite.examples.detection.env.Logger {
+    public void v(...);
+    public void d(...);
+}
@@ -34,7 +34,7 @@ import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
-import android.os.Trace;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
@@ -54,16 +54,27 @@ import android.widget.TextView;
 import android.widget.Toast;
 import com.google.android.material.bottomsheet.BottomSheetBehavior;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.tensorflow.lite.examples.detection.env.CapturedFrame;
+import org.tensorflow.lite.examples.detection.env.FrameAdmissionController;
+import org.tensorflow.lite.examples.detection.env.FrameRateController;
+import org.tensorflow.lite.examples.detection.env.FrameRecorder;
+import org.tensorflow.lite.examples.detection.env.FrameReplaySource;
 import org.tensorflow.lite.examples.detection.env.ImageUtils;
 import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.env.MemoryMonitor;
+import org.tensorflow.lite.examples.detection.env.Tracer;
 
 public abstract class CameraActivity extends AppCompatActivity
     implements OnImageAvailableListener,
         Camera.PreviewCallback,
+        FrameReplaySource.Sink,
 //        CompoundButton.OnCheckedChangeListener,
         View.OnClickListener {
   private static final Logger LOGGER = new Logger();
@@ -72,21 +83,58 @@ public abstract class CameraActivity extends AppCompatActivity
 
   private static final String PERMISSION_CAMERA = Manifest.permission.CAMERA;
   private static final String ASSET_PATH = "";
+  private static final String EXTRA_ENABLE_TRACING = "enable_tracing";
+  private static final String EXTRA_RECORD_FRAMES = "record_frames";
+  private static final String EXTRA_REPLAY_FRAMES = "replay_frames";
+  private static final String EXTRA_MATCH_FRAME_RATE = "match_frame_rate";
+  private static final String EXTRA_ADMISSION_POLICY = "admission_policy";
+  private static final String EXTRA_ADMISSION_PARAMETER = "admission_parameter";
+  // Frames that may wait for the capture writer before new ones are dropped from the capture.
+  // Each holds a camera buffer until written, so this stays below the camera's buffer count.
+  private static final int RECORDER_QUEUE_DEPTH = 2;
+  private static final long MEMORY_SAMPLE_INTERVAL_MS = 5000;
   protected int previewWidth = 0;
   protected int previewHeight = 0;
   private boolean debug = false;
   protected Handler handler;
   private HandlerThread handlerThread;
   private boolean useCamera2API;
-  private boolean isProcessingFrame = false;
+  // Whether Camera2 sensor timestamps share the SystemClock.elapsedRealtimeNanos() time base.
+  private boolean realtimeSensorTimestamps;
+  private long frameCaptureNanos;
+  private long frameReceiveNanos;
   private byte[][] yuvBytes = new byte[3][];
   private int[] rgbBytes = null;
   private int yRowStride;
+  // Rotation reported with the preview size; Camera1 previews are always delivered at 90.
+  private int previewRotation = 90;
+  private boolean recordFrames;
+  // Capture file fed through the pipeline instead of the camera; null for the camera.
+  private File replayFile;
+  private final Object recorderLock = new Object();
+  private FrameRecorder frameRecorder;
+  // Matches the camera frame rate to the pipeline's throughput; null when disabled.
+  private FrameRateController frameRateController;
+  // When the frame in the pipeline was started.
+  private volatile long frameStartNanos;
   protected int defaultModelIndex = 0;
+  // Selected at start instead of defaultModelIndex when it is among the assets.
+  protected String defaultModelFile;
   protected int defaultDeviceIndex = 0;
   private Runnable postInferenceCallback;
   private Runnable imageConverter;
+  private final FrameAdmissionController<PendingFrame> frameAdmission =
+      new FrameAdmissionController<PendingFrame>(
+          new FrameAdmissionController.Releaser<PendingFrame>() {
+            @Override
+            public void release(final PendingFrame frame) {
+              frame.release();
+            }
+          });
   protected ArrayList<String> modelStrings = new ArrayList<String>();
+  // Buffers and bitmaps of the pipeline, sampled from the inference thread.
+  protected final MemoryMonitor memoryMonitor =
+      new MemoryMonitor(MEMORY_SAMPLE_INTERVAL_MS, FrameAdmissionController.SYSTEM_CLOCK);
 
   private LinearLayout bottomSheetLayout;
   private LinearLayout gestureLayout;
@@ -109,6 +157,49 @@ public abstract class CameraActivity extends AppCompatActivity
   protected void onCreate(final Bundle savedInstanceState) {
     LOGGER.d("onCreate " + this);
     super.onCreate(null);
+    // e.g. adb shell am start -n <activity> --ez enable_tracing true
+    Tracer.setEnabled(getIntent().getBooleanExtra(EXTRA_ENABLE_TRACING, false));
+    // Raw frames for off-device replay with FrameReplaySource; --ez record_frames true
+    recordFrames = getIntent().getBooleanExtra(EXTRA_RECORD_FRAMES, false);
+    // Replays a capture instead of opening the camera; --es replay_frames <path on the device>
+    final String replayPath = getIntent().getStringExtra(EXTRA_REPLAY_FRAMES);
+    if (replayPath != null) {
+      replayFile = new File(replayPath);
+      recordFrames = false;
+    }
+    // How frames arriving during detection are handled, e.g.
+    // --es admission_policy queue_depth --ei admission_parameter 2
+    final String admissionPolicy = getIntent().getStringExtra(EXTRA_ADMISSION_POLICY);
+    if (admissionPolicy != null) {
+      try {
+        setFrameAdmissionPolicy(
+            FrameAdmissionController.Policy.valueOf(admissionPolicy.toUpperCase(Locale.US)),
+            getIntent().getIntExtra(EXTRA_ADMISSION_PARAMETER, 1));
+      } catch (final IllegalArgumentException e) {
+        LOGGER.e(e, "Ignoring admission policy %s", admissionPolicy);
+      }
+    }
+    // Lets the sensor run at full rate however few frames are used; --ez match_frame_rate false
+    if (getIntent().getBooleanExtra(EXTRA_MATCH_FRAME_RATE, true)) {
+      frameRateController = new FrameRateController(FrameAdmissionController.SYSTEM_CLOCK);
+    }
+    memoryMonitor.register(
+        "rgbBytes",
+        MemoryMonitor.Kind.HEAP,
+        () -> {
+          final int[] rgb = rgbBytes;
+          return rgb != null ? 4L * rgb.length : 0;
+        });
+    memoryMonitor.register(
+        "yuvBytes",
+        MemoryMonitor.Kind.HEAP,
+        () -> {
+          long bytes = 0;
+          for (final byte[] plane : yuvBytes) {
+            bytes += plane != null ? plane.length : 0;
+          }
+          return bytes;
+        });
     getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
 
     setContentView(R.layout.tfe_od_activity_camera);
@@ -116,7 +207,7 @@ public abstract class CameraActivity extends AppCompatActivity
     setSupportActionBar(toolbar);
     getSupportActionBar().setDisplayShowTitleEnabled(false);
 
-    if (hasPermission()) {
+    if (replayFile != null || hasPermission()) {
       setFragment();
     } else {
       requestPermission();
@@ -152,6 +243,9 @@ public abstract class CameraActivity extends AppCompatActivity
     modelView = findViewById((R.id.model_list));
 
     modelStrings = getModelStrings(getAssets(), ASSET_PATH);
+    if (defaultModelFile != null && modelStrings.contains(defaultModelFile)) {
+      defaultModelIndex = modelStrings.indexOf(defaultModelFile);
+    }
     modelView.setChoiceMode(ListView.CHOICE_MODE_SINGLE);
     ArrayAdapter<String> modelAdapter =
             new ArrayAdapter<>(
@@ -247,6 +341,20 @@ public abstract class CameraActivity extends AppCompatActivity
     return rgbBytes;
   }
 
+  /**
+   * Sensor capture time of the frame being processed, in {@link
+   * SystemClock#elapsedRealtimeNanos()} units. Falls back to the receive time when the camera
+   * timestamps use another time base.
+   */
+  protected long getFrameCaptureNanos() {
+    return frameCaptureNanos;
+  }
+
+  /** Time the frame being processed was handed to the app by the camera. */
+  protected long getFrameReceiveNanos() {
+    return frameReceiveNanos;
+  }
+
   protected int getLuminanceStride() {
     return yRowStride;
   }
@@ -258,11 +366,6 @@ public abstract class CameraActivity extends AppCompatActivity
   /** Callback for android.hardware.Camera API */
   @Override
   public void onPreviewFrame(final byte[] bytes, final Camera camera) {
-    if (isProcessingFrame) {
-      LOGGER.w("Dropping frame!");
-      return;
-    }
-
     try {
       // Initialize the storage bitmaps once when the resolution is known.
       if (rgbBytes == null) {
@@ -277,27 +380,49 @@ public abstract class CameraActivity extends AppCompatActivity
       return;
     }
 
-    isProcessingFrame = true;
-    yuvBytes[0] = bytes;
-    yRowStride = previewWidth;
-
-    imageConverter =
-        new Runnable() {
+    // Camera1 exposes no capture timestamp, so the receive time has to stand in for it.
+    final long receiveNanos = SystemClock.elapsedRealtimeNanos();
+    final Runnable returnBuffer =
+        recordFrames
+            ? recordFrame(
+                () -> camera.addCallbackBuffer(bytes),
+                receiveNanos,
+                receiveNanos,
+                FrameRecorder.FORMAT_NV21,
+                previewWidth,
+                previewWidth,
+                2,
+                ByteBuffer.wrap(bytes))
+            : () -> camera.addCallbackBuffer(bytes);
+    final PendingFrame frame =
+        new PendingFrame() {
           @Override
-          public void run() {
-            ImageUtils.convertYUV420SPToARGB8888(bytes, previewWidth, previewHeight, rgbBytes);
+          void start() {
+            frameCaptureNanos = receiveNanos;
+            frameReceiveNanos = receiveNanos;
+            yuvBytes[0] = bytes;
+            yRowStride = previewWidth;
+
+            imageConverter =
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    ImageUtils.convertYUV420SPToARGB8888(bytes, previewWidth, previewHeight, rgbBytes);
+                  }
+                };
+
+            postInferenceCallback = returnBuffer;
+            processImage();
           }
-        };
 
-    postInferenceCallback =
-        new Runnable() {
           @Override
-          public void run() {
-            camera.addCallbackBuffer(bytes);
-            isProcessingFrame = false;
+          void release() {
+            returnBuffer.run();
           }
         };
-    processImage();
+    if (frameAdmission.offer(frame)) {
+      startFrame(frame);
+    }
   }
 
   /** Callback for Camera2 API */
@@ -310,58 +435,273 @@ public abstract class CameraActivity extends AppCompatActivity
     if (rgbBytes == null) {
       rgbBytes = new int[previewWidth * previewHeight];
     }
+    final Image image;
     try {
-      final Image image = reader.acquireLatestImage();
-
-      if (image == null) {
-        return;
-      }
+      image = reader.acquireLatestImage();
+    } catch (final Exception e) {
+      LOGGER.e(e, "Exception!");
+      return;
+    }
+    if (image == null) {
+      return;
+    }
 
-      if (isProcessingFrame) {
-        image.close();
-        return;
-      }
-      isProcessingFrame = true;
-      Trace.beginSection("imageAvailable");
+    final long receiveNanos = SystemClock.elapsedRealtimeNanos();
+    final long captureNanos = realtimeSensorTimestamps ? image.getTimestamp() : receiveNanos;
+    final Runnable closeImage;
+    if (recordFrames) {
+      // Recorded on arrival, so the capture also holds the frames admission drops.
       final Plane[] planes = image.getPlanes();
-      fillBytes(planes, yuvBytes);
-      yRowStride = planes[0].getRowStride();
-      final int uvRowStride = planes[1].getRowStride();
-      final int uvPixelStride = planes[1].getPixelStride();
+      closeImage =
+          recordFrame(
+              image::close,
+              captureNanos,
+              receiveNanos,
+              FrameRecorder.FORMAT_YUV_420_888,
+              planes[0].getRowStride(),
+              planes[1].getRowStride(),
+              planes[1].getPixelStride(),
+              planes[0].getBuffer(),
+              planes[1].getBuffer(),
+              planes[2].getBuffer());
+    } else {
+      closeImage = image::close;
+    }
+    final PendingFrame frame =
+        new PendingFrame() {
+          @Override
+          void start() {
+            frameCaptureNanos = captureNanos;
+            frameReceiveNanos = receiveNanos;
+            Tracer.beginSection("imageAvailable");
+            try {
+              final Plane[] planes = image.getPlanes();
+              fillBytes(planes, yuvBytes);
+              yRowStride = planes[0].getRowStride();
+              final int uvRowStride = planes[1].getRowStride();
+              final int uvPixelStride = planes[1].getPixelStride();
+
+              imageConverter =
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      ImageUtils.convertYUV420ToARGB8888(
+                          yuvBytes[0],
+                          yuvBytes[1],
+                          yuvBytes[2],
+                          previewWidth,
+                          previewHeight,
+                          yRowStride,
+                          uvRowStride,
+                          uvPixelStride,
+                          rgbBytes);
+                    }
+                  };
+
+              postInferenceCallback = closeImage;
+
+              processImage();
+            } finally {
+              Tracer.endSection();
+            }
+          }
 
-      imageConverter =
-          new Runnable() {
-            @Override
-            public void run() {
-              ImageUtils.convertYUV420ToARGB8888(
-                  yuvBytes[0],
-                  yuvBytes[1],
-                  yuvBytes[2],
+          @Override
+          void release() {
+            closeImage.run();
+          }
+        };
+    if (frameAdmission.offer(frame)) {
+      startFrame(frame);
+    }
+  }
+
+  /** Callback for frames replayed from a capture file by {@link FrameReplayFragment}. */
+  @Override
+  public void onFrame(final CapturedFrame captured) {
+    if (previewWidth == 0 || previewHeight == 0) {
+      return;
+    }
+    if (rgbBytes == null) {
+      rgbBytes = new int[previewWidth * previewHeight];
+    }
+    // Replayed on this device's clock, keeping the recorded delay between capture and receipt.
+    final long receiveNanos = SystemClock.elapsedRealtimeNanos();
+    final long captureNanos =
+        receiveNanos - (captured.getReceiveNanos() - captured.getCaptureNanos());
+    final PendingFrame frame =
+        new PendingFrame() {
+          @Override
+          void start() {
+            frameCaptureNanos = captureNanos;
+            frameReceiveNanos = receiveNanos;
+            for (int i = 0; i < captured.getPlaneCount(); ++i) {
+              yuvBytes[i] = captured.copyPlane(i, yuvBytes[i]);
+            }
+            yRowStride = captured.getYRowStride();
+            final int uvRowStride = captured.getUvRowStride();
+            final int uvPixelStride = captured.getUvPixelStride();
+
+            if (captured.getFormat() == FrameRecorder.FORMAT_NV21) {
+              imageConverter =
+                  () ->
+                      ImageUtils.convertYUV420SPToARGB8888(
+                          yuvBytes[0], previewWidth, previewHeight, rgbBytes);
+            } else {
+              imageConverter =
+                  () ->
+                      ImageUtils.convertYUV420ToARGB8888(
+                          yuvBytes[0],
+                          yuvBytes[1],
+                          yuvBytes[2],
+                          previewWidth,
+                          previewHeight,
+                          yRowStride,
+                          uvRowStride,
+                          uvPixelStride,
+                          rgbBytes);
+            }
+            // The planes stay mapped until the replay ends; there is no buffer to give back.
+            postInferenceCallback = null;
+            processImage();
+          }
+
+          @Override
+          void release() {}
+        };
+    if (frameAdmission.offer(frame)) {
+      startFrame(frame);
+    }
+  }
+
+  /**
+   * Hands a frame to the capture file, opening it on the first frame once the size is known. The
+   * recorder copies the planes on its own thread; {@code release} gives the buffer back to the
+   * camera, and the returned action runs it once both the pipeline and the recorder are done.
+   */
+  private Runnable recordFrame(
+      final Runnable release,
+      final long captureNanos,
+      final long receiveNanos,
+      final int format,
+      final int yStride,
+      final int uvRowStride,
+      final int uvPixelStride,
+      final ByteBuffer... planes) {
+    synchronized (recorderLock) {
+      if (frameRecorder == null) {
+        final File file =
+            new File(getExternalFilesDir(null), "capture-" + System.currentTimeMillis() + ".yuv");
+        final String metadata =
+            String.format(
+                Locale.US,
+                "device=%s sdk=%d api=%s",
+                Build.MODEL, Build.VERSION.SDK_INT, useCamera2API ? "camera2" : "camera1");
+        try {
+          frameRecorder =
+              new FrameRecorder(
+                  file,
                   previewWidth,
                   previewHeight,
-                  yRowStride,
-                  uvRowStride,
-                  uvPixelStride,
-                  rgbBytes);
+                  previewRotation,
+                  metadata,
+                  RECORDER_QUEUE_DEPTH);
+          LOGGER.i("Recording frames to %s", file);
+        } catch (final IOException e) {
+          LOGGER.e(e, "Cannot record frames to %s", file);
+          recordFrames = false;
+          return release;
+        }
+      }
+      final AtomicInteger holders = new AtomicInteger(2);
+      final Runnable releaseShared =
+          () -> {
+            if (holders.decrementAndGet() == 0) {
+              release.run();
             }
           };
+      frameRecorder.record(
+          captureNanos,
+          receiveNanos,
+          format,
+          yStride,
+          uvRowStride,
+          uvPixelStride,
+          releaseShared,
+          planes);
+      return releaseShared;
+    }
+  }
 
-      postInferenceCallback =
-          new Runnable() {
-            @Override
-            public void run() {
-              image.close();
-              isProcessingFrame = false;
-            }
-          };
+  private void closeFrameRecorder() {
+    synchronized (recorderLock) {
+      if (frameRecorder == null) {
+        return;
+      }
+      LOGGER.i("Frame recording: %s", frameRecorder.getStatString());
+      try {
+        frameRecorder.close();
+      } catch (final IOException e) {
+        LOGGER.e(e, "Frame recording failed");
+      }
+      // A resumed session starts a new capture file.
+      frameRecorder = null;
+    }
+  }
 
-      processImage();
+  private void startFrame(PendingFrame frame) {
+    frameStartNanos = SystemClock.elapsedRealtimeNanos();
+    try {
+      frame.start();
     } catch (final Exception e) {
       LOGGER.e(e, "Exception!");
-      Trace.endSection();
-      return;
+      frame.release();
+      onFrameProcessed();
     }
-    Trace.endSection();
+  }
+
+  /**
+   * Must be called once the pipeline is done with the current frame, whether it was detected or
+   * skipped. Starts the next pending frame, if the admission policy kept one.
+   */
+  protected void onFrameProcessed() {
+    if (frameRateController != null) {
+      frameRateController.onFrameProcessed(SystemClock.elapsedRealtimeNanos() - frameStartNanos);
+    }
+    final PendingFrame next = frameAdmission.finish();
+    if (next != null) {
+      startFrame(next);
+    }
+  }
+
+  /** Changes how frames arriving during detection are queued or dropped. */
+  protected void setFrameAdmissionPolicy(
+      final FrameAdmissionController.Policy policy, final int parameter) {
+    frameAdmission.setPolicy(policy, parameter);
+  }
+
+  /** Limits processing to one frame per {@code minIntervalMs}; 0 removes the limit. */
+  protected void setMinFrameIntervalMs(final int minIntervalMs) {
+    frameAdmission.setMinIntervalMs(minIntervalMs);
+    if (frameRateController != null) {
+      frameRateController.setMinFrameIntervalMs(minIntervalMs);
+    }
+  }
+
+  /** Re-measures the pipeline before the next frame-rate change, e.g. after a model change. */
+  protected void resetFrameRate() {
+    if (frameRateController != null) {
+      frameRateController.reset();
+    }
+  }
+
+  protected long getArrivedFrameCount() {
+    return frameAdmission.getArrivedFrames();
+  }
+
+  /** Frames that arrived while the pipeline was busy and were never processed. */
+  protected long getDroppedFrameCount() {
+    return frameAdmission.getDroppedFrames() + frameAdmission.getSupersededFrames();
   }
 
   @Override
@@ -378,11 +718,17 @@ public abstract class CameraActivity extends AppCompatActivity
     handlerThread = new HandlerThread("inference");
     handlerThread.start();
     handler = new Handler(handlerThread.getLooper());
+    frameAdmission.clear();
   }
 
   @Override
   public synchronized void onPause() {
     LOGGER.d("onPause " + this);
+    LOGGER.i("Frame admission: %s", frameAdmission.getStatString());
+    if (frameRateController != null) {
+      LOGGER.i("%s", frameRateController.getStatString());
+    }
+    closeFrameRecorder();
 
     handlerThread.quitSafely();
     try {
@@ -392,6 +738,9 @@ public abstract class CameraActivity extends AppCompatActivity
     } catch (final InterruptedException e) {
       LOGGER.e(e, "Exception!");
     }
+    // Only now that no inference runs: clearing earlier would let a new frame overwrite the
+    // bitmaps the last inference still reads, and its onFrameProcessed() finish the wrong frame.
+    frameAdmission.clear();
 
     super.onPause();
   }
@@ -494,6 +843,11 @@ public abstract class CameraActivity extends AppCompatActivity
             (facing == CameraCharacteristics.LENS_FACING_EXTERNAL)
                 || isHardwareLevelSupported(
                     characteristics, CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL_FULL);
+        final Integer timestampSource =
+            characteristics.get(CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE);
+        realtimeSensorTimestamps =
+            timestampSource != null
+                && timestampSource == CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE_REALTIME;
         LOGGER.i("Camera API lv2?: %s", useCamera2API);
         return cameraId;
       }
@@ -505,6 +859,21 @@ public abstract class CameraActivity extends AppCompatActivity
   }
 
   protected void setFragment() {
+    if (replayFile != null) {
+      final Fragment fragment =
+          new FrameReplayFragment(
+              replayFile,
+              (size, rotation) -> {
+                previewHeight = size.getHeight();
+                previewWidth = size.getWidth();
+                previewRotation = rotation;
+                onPreviewSizeChosen(size, rotation);
+              },
+              this,
+              getLayoutId());
+      getFragmentManager().beginTransaction().replace(R.id.container, fragment).commit();
+      return;
+    }
     String cameraId = chooseCamera();
 
     Fragment fragment;
@@ -516,6 +885,7 @@ public abstract class CameraActivity extends AppCompatActivity
                 public void onPreviewSizeChosen(final Size size, final int rotation) {
                   previewHeight = size.getHeight();
                   previewWidth = size.getWidth();
+                  previewRotation = rotation;
                   CameraActivity.this.onPreviewSizeChosen(size, rotation);
                 }
               },
@@ -530,6 +900,9 @@ public abstract class CameraActivity extends AppCompatActivity
           new LegacyCameraConnectionFragment(this, getLayoutId(), getDesiredPreviewFrameSize());
     }
 
+    if (frameRateController != null) {
+      frameRateController.setCamera((FrameRateController.Camera) fragment);
+    }
     getFragmentManager().beginTransaction().replace(R.id.container, fragment).commit();
   }
 
@@ -609,6 +982,15 @@ public abstract class CameraActivity extends AppCompatActivity
     inferenceTimeTextView.setText(inferenceTime);
   }
 
+  /** A camera frame that has arrived but whose buffers have not been read yet. */
+  abstract static class PendingFrame {
+    /** Reads the frame into the conversion buffers and hands it to {@link #processImage()}. */
+    abstract void start();
+
+    /** Returns the frame to the camera without processing it. */
+    abstract void release();
+  }
+
   protected abstract void updateActiveModel();
   protected abstract void processImage();
 
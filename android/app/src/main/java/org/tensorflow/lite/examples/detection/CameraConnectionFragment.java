@@ -44,6 +44,7 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.text.TextUtils;
+import android.util.Range;
 import android.util.Size;
 import android.util.SparseIntArray;
 import android.view.LayoutInflater;
@@ -60,10 +61,11 @@ import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import org.tensorflow.lite.examples.detection.customview.AutoFitTextureView;
+import org.tensorflow.lite.examples.detection.env.FrameRateController;
 import org.tensorflow.lite.examples.detection.env.Logger;
 
 @SuppressLint("ValidFragment")
-public class CameraConnectionFragment extends Fragment {
+public class CameraConnectionFragment extends Fragment implements FrameRateController.Camera {
   private static final Logger LOGGER = new Logger();
 
   /**
@@ -72,6 +74,12 @@ public class CameraConnectionFragment extends Fragment {
    */
   private static final int MINIMUM_PREVIEW_SIZE = 320;
 
+  /**
+   * Images the preview reader may hand out at once. Frames held by the admission queue count
+   * against this, so it bounds the useful queue depth.
+   */
+  private static final int MAX_PREVIEW_IMAGES = 4;
+
   /** Conversion from screen rotation to JPEG orientation. */
   private static final SparseIntArray ORIENTATIONS = new SparseIntArray();
 
@@ -130,6 +138,10 @@ public class CameraConnectionFragment extends Fragment {
   private CaptureRequest.Builder previewRequestBuilder;
   /** {@link CaptureRequest} generated by {@link #previewRequestBuilder} */
   private CaptureRequest previewRequest;
+  /** AE target frame-rate ranges of the current camera, as {min, max}. */
+  private volatile int[][] fpsRanges = new int[0][];
+  /** AE target frame-rate range to preview at, or null for the camera's default. */
+  private volatile Range<Integer> fpsRange;
   /** {@link CameraDevice.StateCallback} is called when {@link CameraDevice} changes its state. */
   private final CameraDevice.StateCallback stateCallback =
       new CameraDevice.StateCallback() {
@@ -328,6 +340,14 @@ public class CameraConnectionFragment extends Fragment {
 
       sensorOrientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
 
+      final Range<Integer>[] ranges =
+          characteristics.get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+      final int[][] supported = new int[ranges != null ? ranges.length : 0][];
+      for (int i = 0; i < supported.length; ++i) {
+        supported[i] = new int[] {ranges[i].getLower(), ranges[i].getUpper()};
+      }
+      fpsRanges = supported;
+
       // Danger, W.R.! Attempting to use too large a preview size could  exceed the camera
       // bus' bandwidth limitation, resulting in gorgeous previews but the storage of
       // garbage capture data.
@@ -438,7 +458,8 @@ public class CameraConnectionFragment extends Fragment {
       // Create the reader for the preview frames.
       previewReader =
           ImageReader.newInstance(
-              previewSize.getWidth(), previewSize.getHeight(), ImageFormat.YUV_420_888, 2);
+              previewSize.getWidth(), previewSize.getHeight(), ImageFormat.YUV_420_888,
+              MAX_PREVIEW_IMAGES);
 
       previewReader.setOnImageAvailableListener(imageListener, backgroundHandler);
       previewRequestBuilder.addTarget(previewReader.getSurface());
@@ -465,6 +486,10 @@ public class CameraConnectionFragment extends Fragment {
                 // Flash is automatically enabled when necessary.
                 previewRequestBuilder.set(
                     CaptureRequest.CONTROL_AE_MODE, CaptureRequest.CONTROL_AE_MODE_ON_AUTO_FLASH);
+                // The frame rate chosen before the camera was last closed, if any.
+                if (fpsRange != null) {
+                  previewRequestBuilder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+                }
 
                 // Finally, we start displaying the camera preview.
                 previewRequest = previewRequestBuilder.build();
@@ -486,6 +511,39 @@ public class CameraConnectionFragment extends Fragment {
     }
   }
 
+  @Override
+  public int[][] getSupportedFpsRanges() {
+    return fpsRanges;
+  }
+
+  /** Restarts the repeating preview request at the new range, on the camera thread. */
+  @Override
+  public void setFpsRange(final int minFps, final int maxFps) {
+    fpsRange = new Range<Integer>(minFps, maxFps);
+    final Handler handler = backgroundHandler;
+    if (handler == null) {
+      return;
+    }
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (captureSession == null || previewRequestBuilder == null) {
+              return;
+            }
+            LOGGER.i("Preview frame rate range %d-%d", minFps, maxFps);
+            try {
+              previewRequestBuilder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+              previewRequest = previewRequestBuilder.build();
+              captureSession.setRepeatingRequest(
+                  previewRequest, captureCallback, backgroundHandler);
+            } catch (final CameraAccessException | IllegalStateException e) {
+              LOGGER.e(e, "Could not change the preview frame rate");
+            }
+          }
+        });
+  }
+
   /**
    * Configures the necessary {@link Matrix} transformation to `mTextureView`. This method should be
    * called after the camera preview size is determined in setUpCameraOutputs and also the size of
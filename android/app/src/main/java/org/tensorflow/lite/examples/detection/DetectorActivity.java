@@ -16,8 +16,6 @@
 
 package org.tensorflow.lite.examples.detection;
 
-import static android.speech.tts.TextToSpeech.ERROR;
-
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
 import android.graphics.Canvas;
@@ -29,25 +27,44 @@ import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.media.ImageReader.OnImageAvailableListener;
 import android.os.Build;
+import android.os.Bundle;
 import android.os.SystemClock;
 import android.speech.tts.TextToSpeech;
-import android.util.Log;
 import android.util.Size;
 import android.util.TypedValue;
 import android.widget.Toast;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.tensorflow.lite.examples.detection.customview.OverlayView;
 import org.tensorflow.lite.examples.detection.customview.OverlayView.DrawCallback;
+import org.tensorflow.lite.examples.detection.env.BitmapPool;
 import org.tensorflow.lite.examples.detection.env.BorderedText;
+import org.tensorflow.lite.examples.detection.env.FrameAdmissionController;
 import org.tensorflow.lite.examples.detection.env.ImageUtils;
+import org.tensorflow.lite.examples.detection.env.LatencyGovernor;
+import org.tensorflow.lite.examples.detection.env.LatencyTracker;
 import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.env.MemoryMonitor;
+import org.tensorflow.lite.examples.detection.env.Tracer;
+import org.tensorflow.lite.examples.detection.tflite.CachingClassifier;
+import org.tensorflow.lite.examples.detection.tflite.CascadeClassifier;
 import org.tensorflow.lite.examples.detection.tflite.Classifier;
+import org.tensorflow.lite.examples.detection.tflite.DetectionBuffer;
 import org.tensorflow.lite.examples.detection.tflite.DetectorFactory;
+import org.tensorflow.lite.examples.detection.tflite.DirectBufferArena;
+import org.tensorflow.lite.examples.detection.tflite.OutputCapture;
+import org.tensorflow.lite.examples.detection.tflite.ResultCache;
+import org.tensorflow.lite.examples.detection.tflite.TilePlanner;
+import org.tensorflow.lite.examples.detection.tflite.TiledDetector;
 import org.tensorflow.lite.examples.detection.tflite.YoloV5Classifier;
 import org.tensorflow.lite.examples.detection.tracking.MultiBoxTracker;
 
@@ -64,17 +81,52 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
     private static final Size DESIRED_PREVIEW_SIZE = new Size(640, 640);
     private static final boolean SAVE_PREVIEW_BITMAP = false;
     private static final float TEXT_SIZE_DIP = 10;
+    private static final String FRAME_TRACE_NAME = "frame";
+    // Selected at start and preloaded by StartupOrchestrator.
+    private static final String DEFAULT_MODEL_FILE = "yolov5s.tflite";
+    private static final String EXTRA_ENABLE_GOVERNOR = "enable_governor";
+    private static final String EXTRA_ENABLE_CASCADE = "enable_cascade";
+    private static final String EXTRA_ENABLE_CACHE = "enable_cache";
+    private static final String EXTRA_ENABLE_TILING = "enable_tiling";
+    // Captures every Nth raw output for OutputReplay; 0 or absent disables capture.
+    private static final String EXTRA_CAPTURE_OUTPUTS = "capture_outputs";
+    private static final int OUTPUT_CAPTURE_SLOTS = 2;
+    // Reads PSS and writes a memory-*.json snapshot when the activity pauses.
+    private static final String EXTRA_MEMORY_SNAPSHOT = "memory_snapshot";
+    // Per-frame budget for the full frame plus tiles; tiling trades frame rate for reach.
+    private static final long TILING_BUDGET_MS = 400;
+    // Run when the selected model's result is ambiguous or names a new product.
+    private static final String CASCADE_CONFIRMER_MODEL = "yolov5s.tflite";
+    // Target p90 inference latency for the governor.
+    private static final long LATENCY_BUDGET_MS = 150;
+    private static final DetectionBuffer.Ranking DOMINANT_RANKING = DetectionBuffer.Ranking.AREA;
+    // Only used with Ranking.BLEND.
+    private static final float DOMINANT_AREA_WEIGHT = 0.5f;
     OverlayView trackingOverlay;
     private Integer sensorOrientation;
 
     private YoloV5Classifier detector;
+    // Wraps detector when the cascade is enabled, otherwise null.
+    private CascadeClassifier cascade;
+    // Answers repeated views from cache in front of the cascade or detector; null when disabled.
+    private CachingClassifier cachingClassifier;
+    // Runs the detector over the crop plus full-resolution tiles; null when disabled.
+    private TiledDetector tiledDetector;
+    // Raw outputs of the detector, opened on the first frame; null when disabled or closed.
+    private OutputCapture outputCapture;
+    private int outputCaptureInterval;
+    // Model file of the detector, named in output captures.
+    private volatile String activeModelName;
 
     private long lastProcessingTimeMs;
+    // All three come from the bitmap pool; the crop copy only exists while debugging.
     private Bitmap rgbFrameBitmap = null;
     private Bitmap croppedBitmap = null;
     private Bitmap cropCopyBitmap = null;
-
-    private boolean computingDetection = false;
+    // Retargeted instead of reallocated every frame.
+    private final Canvas cropCanvas = new Canvas();
+    private final Canvas cropCopyCanvas = new Canvas();
+    private final Paint cropCopyPaint = new Paint();
 
     private long timestamp = 0;
 
@@ -83,10 +135,43 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
 
     private MultiBoxTracker tracker;
 
+    // Input size requested by setDetectorInputSize(), or 0. The requested size also carries over
+    // to detectors created by updateActiveModel().
+    private final AtomicInteger pendingInputSize = new AtomicInteger();
+    private volatile int requestedInputSize;
+    // Model, device and thread count requested by switchModel(), or null. Applied by the next frame
+    // in its place, so the detector and the crop are never replaced under a running frame.
+    private final AtomicReference<ModelRequest> pendingModel = new AtomicReference<>();
+
+    // Null when disabled; only used on the inference thread.
+    private LatencyGovernor governor;
+
+    // Reused every frame; only touched by the single inference thread.
+    private final DetectionBuffer detections = new DetectionBuffer();
+    private final DetectionBuffer mappedDetections = new DetectionBuffer();
+    private final RectF location = new RectF();
+
     private BorderedText borderedText;
 
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+    // Timing of the latest tracked frame, completed by the next overlay draw.
+    private volatile LatencyTracker.FrameTiming drawTiming;
+    // Reused per frame. At most three are in use: the frame in the pipeline, the one waiting for
+    // the overlay and an older one the overlay may still be recording.
+    private final LatencyTracker.FrameTiming[] frameTimings = new LatencyTracker.FrameTiming[4];
+    private int nextFrameTiming;
+
+    @Override
+    protected void onCreate(final Bundle savedInstanceState) {
+        defaultModelFile = DEFAULT_MODEL_FILE;
+        // Start loading the model, labels, catalog and TTS before the camera is opened.
+        StartupOrchestrator.get().start(this, DEFAULT_MODEL_FILE);
+        super.onCreate(savedInstanceState);
+    }
+
     @Override
     public void onPreviewSizeChosen(final Size size, final int rotation) {
+        StartupOrchestrator.get().mark("preview size chosen");
         final float textSizePx =
                 TypedValue.applyDimension(
                         TypedValue.COMPLEX_UNIT_DIP, TEXT_SIZE_DIP, getResources().getDisplayMetrics());
@@ -97,9 +182,15 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
 
         final int modelIndex = modelView.getCheckedItemPosition();
         final String modelString = modelStrings.get(modelIndex);
+        activeModelName = modelString;
+        // e.g. adb shell am start -n <activity> --ei capture_outputs 10
+        outputCaptureInterval = getIntent().getIntExtra(EXTRA_CAPTURE_OUTPUTS, 0);
 
         try {
-            detector = DetectorFactory.getDetector(getAssets(), modelString);
+            detector = StartupOrchestrator.get().takeDetector(modelString);
+            if (detector == null) {
+                detector = DetectorFactory.getDetector(getAssets(), modelString);
+            }
         } catch (final IOException e) {
             e.printStackTrace();
             LOGGER.e(e, "Exception initializing classifier!");
@@ -110,7 +201,26 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
             finish();
         }
 
+        // Only the largest product is announced, so skip NMS for everything else.
+        detector.setDominantOnly(DOMINANT_RANKING, DOMINANT_AREA_WEIGHT);
         int cropSize = detector.getInputSize();
+        // e.g. adb shell am start -n <activity> --ez enable_cascade true
+        if (getIntent().getBooleanExtra(EXTRA_ENABLE_CASCADE, false)) {
+            cascade = createCascade(detector, modelString);
+        }
+        if (getIntent().getBooleanExtra(EXTRA_ENABLE_CACHE, false)) {
+            final ResultCache cache = new ResultCache(
+                    ResultCache.DEFAULT_CAPACITY, FrameAdmissionController.SYSTEM_CLOCK);
+            cache.setMinConfidence(MINIMUM_CONFIDENCE_TF_OD_API);
+            cachingClassifier = new CachingClassifier(detector, cache);
+        }
+        final boolean tiling = getIntent().getBooleanExtra(EXTRA_ENABLE_TILING, false);
+        // The governor would switch the cascade's screener away under it, and tiling runs on its
+        // own budget.
+        if (cascade == null && !tiling
+                && getIntent().getBooleanExtra(EXTRA_ENABLE_GOVERNOR, false)) {
+            governor = createGovernor(modelString, cropSize);
+        }
 
         previewWidth = size.getWidth();
         previewHeight = size.getHeight();
@@ -119,17 +229,14 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
         LOGGER.i("Camera orientation relative to screen canvas: %d", sensorOrientation);
 
         LOGGER.i("Initializing at size %dx%d", previewWidth, previewHeight);
-        rgbFrameBitmap = Bitmap.createBitmap(previewWidth, previewHeight, Config.ARGB_8888);
-        croppedBitmap = Bitmap.createBitmap(cropSize, cropSize, Config.ARGB_8888);
-
-        frameToCropTransform =
-                ImageUtils.getTransformationMatrix(
-                        previewWidth, previewHeight,
-                        cropSize, cropSize,
-                        sensorOrientation, MAINTAIN_ASPECT);
-
-        cropToFrameTransform = new Matrix();
-        frameToCropTransform.invert(cropToFrameTransform);
+        BitmapPool.shared().release(rgbFrameBitmap);
+        rgbFrameBitmap = BitmapPool.shared().acquire(previewWidth, previewHeight, Config.ARGB_8888);
+        planCrop(cropSize);
+        if (tiling) {
+            tiledDetector = new TiledDetector(detector, new TilePlanner(TILING_BUDGET_MS,
+                    TilePlanner.DEFAULT_MAX_TILES, TilePlanner.DEFAULT_OVERLAP), sensorOrientation);
+            tiledDetector.setDominantOnly(DOMINANT_RANKING, DOMINANT_AREA_WEIGHT);
+        }
 
         trackingOverlay = (OverlayView) findViewById(R.id.tracking_overlay);
         trackingOverlay.addCallback(
@@ -137,192 +244,653 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
                     @Override
                     public void drawCallback(final Canvas canvas) {
                         tracker.draw(canvas);
+                        final LatencyTracker.FrameTiming timing = drawTiming;
+                        if (timing != null) {
+                            drawTiming = null;
+                            timing.mark(LatencyTracker.Stage.DRAWN, SystemClock.elapsedRealtimeNanos());
+                            latencyTracker.record(timing);
+                            Tracer.endFrame(FRAME_TRACE_NAME, (int) timing.getFrameId());
+                        }
                         if (isDebug()) {
                             tracker.drawDebug(canvas);
+                            borderedText.drawLines(canvas, 10, canvas.getHeight() - 10,
+                                    latencyTracker.getStatLines());
                         }
                     }
                 });
 
         tracker.setFrameConfiguration(previewWidth, previewHeight, sensorOrientation);
+        tts = StartupOrchestrator.get().getTextToSpeech();
+        registerMemorySources();
+    }
+
+    // Sources are read on the inference thread, so each one tolerates a null or swapped field.
+    private void registerMemorySources() {
+        memoryMonitor.setLabel(activeModelName);
+        memoryMonitor.register("detector imgData+outData", MemoryMonitor.Kind.DIRECT, () -> {
+            final YoloV5Classifier d = detector;
+            return d != null ? d.getDirectBytes() : 0;
+        });
+        memoryMonitor.register("detector intValues", MemoryMonitor.Kind.HEAP, () -> {
+            final YoloV5Classifier d = detector;
+            return d != null ? d.getHeapBytes() : 0;
+        });
+        memoryMonitor.register("confirmer imgData+outData", MemoryMonitor.Kind.DIRECT, () -> {
+            final CascadeClassifier c = cascade;
+            return c != null ? c.getConfirmer().getDirectBytes() : 0;
+        });
+        memoryMonitor.register("arena pooled", MemoryMonitor.Kind.DIRECT,
+                () -> DirectBufferArena.shared().getPooledBytes());
+        memoryMonitor.register("rgbFrameBitmap", MemoryMonitor.Kind.BITMAP,
+                () -> bitmapBytes(rgbFrameBitmap));
+        memoryMonitor.register("croppedBitmap", MemoryMonitor.Kind.BITMAP,
+                () -> bitmapBytes(croppedBitmap));
+        memoryMonitor.register("cropCopyBitmap", MemoryMonitor.Kind.BITMAP,
+                () -> bitmapBytes(cropCopyBitmap));
+        memoryMonitor.register("bitmap pool", MemoryMonitor.Kind.BITMAP,
+                () -> BitmapPool.shared().getPooledBytes());
+        memoryMonitor.register("result cache", MemoryMonitor.Kind.CACHE, () -> {
+            final CachingClassifier c = cachingClassifier;
+            return c != null ? c.getCache().getMemoryBytes() : 0;
+        });
+    }
+
+    private static long bitmapBytes(final Bitmap bitmap) {
+        return bitmap != null && !bitmap.isRecycled() ? bitmap.getAllocationByteCount() : 0;
     }
 
+    @Override
     protected void updateActiveModel() {
+        switchModel(false);
+    }
+
+    /**
+     * Requests the model, device and thread count checked in the UI. A model chosen by hand drops
+     * the input size the governor requested for the previous one and re-bases the governor on it;
+     * {@code byGovernor} marks the governor's own switches.
+     */
+    private void switchModel(final boolean byGovernor) {
         // Get UI information before delegating to background
         final int modelIndex = modelView.getCheckedItemPosition();
         final int deviceIndex = deviceView.getCheckedItemPosition();
         String threads = threadsTextView.getText().toString().trim();
         final int numThreads = Integer.parseInt(threads);
 
-        handler.post(() -> {
-            if (modelIndex == currentModel && deviceIndex == currentDevice
-                    && numThreads == currentNumThreads) {
+        final ModelRequest replaced = pendingModel.getAndSet(
+                new ModelRequest(modelIndex, deviceIndex, numThreads, byGovernor));
+        if (replaced != null) {
+            LOGGER.i("Model request superseded before the next frame");
+        }
+    }
+
+    // What switchModel() read from the UI.
+    private static final class ModelRequest {
+        final int modelIndex;
+        final int deviceIndex;
+        final int numThreads;
+        final boolean byGovernor;
+
+        ModelRequest(final int modelIndex, final int deviceIndex, final int numThreads,
+                     final boolean byGovernor) {
+            this.modelIndex = modelIndex;
+            this.deviceIndex = deviceIndex;
+            this.numThreads = numThreads;
+            this.byGovernor = byGovernor;
+        }
+    }
+
+    /**
+     * Replaces the detector and re-plans the crop. Runs on the inference thread in place of a
+     * frame, so no frame reads the detector, the crop bitmap or the transforms meanwhile.
+     */
+    private void applyModelRequest(final ModelRequest request) {
+        final int modelIndex = request.modelIndex;
+        final int deviceIndex = request.deviceIndex;
+        final int numThreads = request.numThreads;
+        if (modelIndex == currentModel && deviceIndex == currentDevice
+                && numThreads == currentNumThreads) {
+            return;
+        }
+        if (!request.byGovernor && modelIndex != currentModel) {
+            requestedInputSize = 0;
+            pendingInputSize.set(0);
+        }
+        currentModel = modelIndex;
+        currentDevice = deviceIndex;
+        currentNumThreads = numThreads;
+
+        // A capture belongs to one model; the next frame opens one for the new model.
+        closeOutputCapture();
+        // Disable classifier while updating
+        if (cascade != null) {
+            LOGGER.i("%s", cascade.getStatString());
+            cascade.close();
+            cascade = null;
+            detector = null;
+        }
+        if (detector != null) {
+            detector.close();
+            detector = null;
+        }
+
+        // Lookup names of parameters.
+        String modelString = modelStrings.get(modelIndex);
+        String device = deviceStrings.get(deviceIndex);
+
+        LOGGER.i("Changing model to " + modelString + " device " + device);
+        activeModelName = modelString;
+        memoryMonitor.setLabel(modelString);
+
+        // Try to load model.
+
+        try {
+            detector = DetectorFactory.getDetector(getAssets(), modelString);
+            // Customize the interpreter to the type of device we want to use.
+            if (detector == null) {
                 return;
             }
-            currentModel = modelIndex;
-            currentDevice = deviceIndex;
-            currentNumThreads = numThreads;
-
-            // Disable classifier while updating
-            if (detector != null) {
-                detector.close();
-                detector = null;
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+            LOGGER.e(e, "Exception in updateActiveModel()");
+            Toast toast =
+                    Toast.makeText(
+                            getApplicationContext(), "Classifier could not be initialized", Toast.LENGTH_SHORT);
+            toast.show();
+            finish();
+            return;
+        }
+
+
+        if (device.equals("CPU")) {
+            detector.useCPU();
+        } else if (device.equals("GPU")) {
+            detector.useGpu();
+        } else if (device.equals("NNAPI")) {
+            detector.useNNAPI();
+        }
+        detector.setNumThreads(numThreads);
+        detector.setDominantOnly(DOMINANT_RANKING, DOMINANT_AREA_WEIGHT);
+        if (requestedInputSize > 0) {
+            try {
+                detector.setInputSize(requestedInputSize);
+            } catch (final RuntimeException e) {
+                LOGGER.e(e, "Could not resize detector input to %d", requestedInputSize);
             }
+        }
+        if (getIntent().getBooleanExtra(EXTRA_ENABLE_CASCADE, false)) {
+            cascade = createCascade(detector, modelString);
+        }
+        // Buffers of the old model that the new one did not reuse would stay pooled for good.
+        DirectBufferArena.shared().trim();
+        if (tiledDetector != null) {
+            tiledDetector.close();
+            tiledDetector = new TiledDetector(
+                    detector, tiledDetector.getPlanner(), sensorOrientation);
+            tiledDetector.setDominantOnly(DOMINANT_RANKING, DOMINANT_AREA_WEIGHT);
+        }
+        if (cachingClassifier != null) {
+            // Cached results are the old model's, in the old crop's coordinates.
+            cachingClassifier.getCache().clear();
+        }
+
+        if (governor != null && !request.byGovernor) {
+            rebaseGovernor(modelString, detector.getInputSize());
+        }
 
-            // Lookup names of parameters.
-            String modelString = modelStrings.get(modelIndex);
-            String device = deviceStrings.get(deviceIndex);
+        planCrop(detector.getInputSize());
+        // The camera frame rate follows the new model's throughput.
+        resetFrameRate();
+    }
 
-            LOGGER.i("Changing model to " + modelString + " device " + device);
+    /**
+     * Sizes the crop bitmap and the frame/crop transforms for a detector input size. The old crop
+     * goes back to the bitmap pool first, so its memory is reused when the new size fits in it;
+     * only call it between frames, when no frame draws into or reads the crop.
+     */
+    private void planCrop(final int cropSize) {
+        if (croppedBitmap == null || croppedBitmap.getWidth() != cropSize) {
+            BitmapPool.shared().release(croppedBitmap);
+            croppedBitmap = BitmapPool.shared().acquire(cropSize, cropSize, Config.ARGB_8888);
+        }
 
-            // Try to load model.
+        frameToCropTransform =
+                ImageUtils.getTransformationMatrix(
+                        previewWidth, previewHeight,
+                        cropSize, cropSize,
+                        sensorOrientation, MAINTAIN_ASPECT);
 
-            try {
-                detector = DetectorFactory.getDetector(getAssets(), modelString);
-                // Customize the interpreter to the type of device we want to use.
-                if (detector == null) {
-                    return;
-                }
-            }
-            catch(IOException e) {
-                e.printStackTrace();
-                LOGGER.e(e, "Exception in updateActiveModel()");
-                Toast toast =
-                        Toast.makeText(
-                                getApplicationContext(), "Classifier could not be initialized", Toast.LENGTH_SHORT);
-                toast.show();
-                finish();
+        cropToFrameTransform = new Matrix();
+        frameToCropTransform.invert(cropToFrameTransform);
+    }
+
+    // Copies the crop into the debug copy, sized from the pool, or hands the copy back to the pool
+    // when debugging is off. Runs on the inference thread.
+    private void updateCropCopy(final boolean debug) {
+        if (!debug) {
+            if (cropCopyBitmap != null) {
+                cropCopyCanvas.setBitmap(null);
+                BitmapPool.shared().release(cropCopyBitmap);
+                cropCopyBitmap = null;
             }
+            return;
+        }
+        if (cropCopyBitmap == null || cropCopyBitmap.getWidth() != croppedBitmap.getWidth()) {
+            BitmapPool.shared().release(cropCopyBitmap);
+            cropCopyBitmap = BitmapPool.shared().acquire(
+                    croppedBitmap.getWidth(), croppedBitmap.getHeight(), Config.ARGB_8888);
+            cropCopyCanvas.setBitmap(cropCopyBitmap);
+            cropCopyPaint.setColor(Color.RED);
+            cropCopyPaint.setStyle(Style.STROKE);
+            cropCopyPaint.setStrokeWidth(2.0f);
+        }
+        cropCopyCanvas.drawBitmap(croppedBitmap, 0, 0, null);
+    }
+
+    // Starts capturing the detector's outputs if requested and not already running. Runs on the
+    // inference thread.
+    private void ensureOutputCapture() {
+        if (outputCaptureInterval <= 0 || outputCapture != null || detector == null) {
+            return;
+        }
+        final File file = new File(getExternalFilesDir(null),
+                "outputs-" + System.currentTimeMillis() + ".bin");
+        try {
+            outputCapture = new OutputCapture(file, activeModelName, detector.getPostProcessor(),
+                    ByteOrder.nativeOrder(), OutputCapture.DEFAULT_MIN_OBJECTNESS,
+                    outputCaptureInterval, OUTPUT_CAPTURE_SLOTS);
+            detector.setOutputCapture(outputCapture);
+            LOGGER.i("Capturing every %d outputs to %s", outputCaptureInterval, file);
+        } catch (final IOException e) {
+            LOGGER.e(e, "Cannot capture outputs to %s", file);
+            outputCaptureInterval = 0;
+        }
+    }
+
+    private void closeOutputCapture() {
+        if (outputCapture == null) {
+            return;
+        }
+        if (detector != null) {
+            detector.setOutputCapture(null);
+        }
+        LOGGER.i("Output capture: %s", outputCapture.getStatString());
+        try {
+            outputCapture.close();
+        } catch (final IOException e) {
+            LOGGER.e(e, "Output capture failed");
+        }
+        outputCapture = null;
+    }
 
+    /**
+     * Requests a new detector input resolution, e.g. 320 under load and back to 640 when idle. It
+     * is applied before the next frame is converted, when no frame is using the detector or the
+     * crop bitmap.
+     */
+    public void setDetectorInputSize(final int inputSize) {
+        requestedInputSize = inputSize;
+        pendingInputSize.set(inputSize);
+    }
 
-            if (device.equals("CPU")) {
-                detector.useCPU();
-            } else if (device.equals("GPU")) {
-                detector.useGpu();
-            } else if (device.equals("NNAPI")) {
-                detector.useNNAPI();
+    /**
+     * Loads the confirmer and pairs it with {@code screener}, or returns null if the screener
+     * already is the confirmer model or the confirmer cannot be loaded.
+     */
+    private CascadeClassifier createCascade(final YoloV5Classifier screener,
+                                            final String screenerModel) {
+        if (screenerModel.equals(CASCADE_CONFIRMER_MODEL)) {
+            return null;
+        }
+        try {
+            final YoloV5Classifier confirmer =
+                    DetectorFactory.getDetector(getAssets(), CASCADE_CONFIRMER_MODEL);
+            if (currentNumThreads > 0) {
+                confirmer.setNumThreads(currentNumThreads);
+            }
+            confirmer.setDominantOnly(DOMINANT_RANKING, DOMINANT_AREA_WEIGHT);
+            if (confirmer.getInputSize() != screener.getInputSize()) {
+                confirmer.setInputSize(screener.getInputSize());
             }
-            detector.setNumThreads(numThreads);
+            return new CascadeClassifier(screener, confirmer);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.e(e, "Could not create the cascade, running %s alone", screenerModel);
+            return null;
+        }
+    }
 
-            int cropSize = detector.getInputSize();
-            croppedBitmap = Bitmap.createBitmap(cropSize, cropSize, Config.ARGB_8888);
+    /**
+     * The classifier frames are run through: the cascade if enabled, else the detector, behind the
+     * result cache if that is enabled.
+     */
+    private Classifier activeClassifier() {
+        final Classifier classifier = cascade != null ? cascade : detector;
+        if (cachingClassifier == null) {
+            return classifier;
+        }
+        cachingClassifier.setDelegate(classifier);
+        return cachingClassifier;
+    }
 
-            frameToCropTransform =
-                    ImageUtils.getTransformationMatrix(
-                            previewWidth, previewHeight,
-                            cropSize, cropSize,
-                            sensorOrientation, MAINTAIN_ASPECT);
+    /**
+     * Builds the governor's ladder from the bundled models, most expensive first, starting at the
+     * rung of the model currently running.
+     */
+    private LatencyGovernor createGovernor(final String modelString, final int inputSize) {
+        final List<LatencyGovernor.Level> ladder = new ArrayList<LatencyGovernor.Level>();
+        addLevel(ladder, "yolov5s.tflite", 640, 0);
+        addLevel(ladder, "yolov5s-int8.tflite", 416, 0);
+        addLevel(ladder, "best-int8.tflite", 416, 0);
+        addLevel(ladder, "best-int8.tflite", 320, 0);
+        addLevel(ladder, "best-int8.tflite", 320, 200);
+        if (ladder.isEmpty()) {
+            return null;
+        }
+        final LatencyGovernor created = new LatencyGovernor(ladder, 0, LATENCY_BUDGET_MS,
+                new LatencyGovernor.Listener() {
+                    @Override
+                    public void onLevelChanged(final LatencyGovernor.Level level) {
+                        LOGGER.i("Governor: %s", governor.getStatString());
+                        setMinFrameIntervalMs(governor.getFrameIntervalMs());
+                        final int modelIndex = modelStrings.indexOf(level.getModelFilename());
+                        if (modelIndex == currentModel) {
+                            setDetectorInputSize(level.getInputSize());
+                        } else {
+                            // The new detector starts at the requested size; resizing the old one
+                            // just before it is replaced would be wasted work.
+                            requestedInputSize = level.getInputSize();
+                            pendingInputSize.set(0);
+                            runOnUiThread(() -> {
+                                modelView.setItemChecked(modelIndex, true);
+                                switchModel(true);
+                            });
+                        }
+                    }
 
-            cropToFrameTransform = new Matrix();
-            frameToCropTransform.invert(cropToFrameTransform);
-        });
+                    @Override
+                    public void onLowPowerChanged(final boolean lowPower) {
+                        LOGGER.i("Governor: low power %s", lowPower ? "on" : "off");
+                        setMinFrameIntervalMs(governor.getFrameIntervalMs());
+                    }
+                },
+                FrameAdmissionController.SYSTEM_CLOCK);
+        created.setLevel(Math.max(0, created.findLevel(modelString, inputSize)));
+        return created;
+    }
+
+    // Starts the governor over from a model chosen by hand. Runs on the inference thread.
+    private void rebaseGovernor(final String modelString, final int inputSize) {
+        final int level = governor.findLevel(modelString, inputSize);
+        if (level < 0) {
+            LOGGER.i("Governor off: %s is not on its ladder", modelString);
+            governor = null;
+            setMinFrameIntervalMs(0);
+            return;
+        }
+        governor.setLevel(level);
+        setMinFrameIntervalMs(governor.getFrameIntervalMs());
+        LOGGER.i("Governor: re-based on %s", governor.getStatString());
+    }
+
+    private void addLevel(final List<LatencyGovernor.Level> ladder, final String modelFilename,
+                          final int inputSize, final int minFrameIntervalMs) {
+        if (modelStrings.contains(modelFilename)) {
+            ladder.add(new LatencyGovernor.Level(modelFilename, inputSize, minFrameIntervalMs));
+        }
+    }
+
+    private void applyPendingInputSize() {
+        final int inputSize = pendingInputSize.getAndSet(0);
+        if (inputSize == 0 || detector == null || inputSize == detector.getInputSize()) {
+            return;
+        }
+        final int previousSize = detector.getInputSize();
+        try {
+            detector.setInputSize(inputSize);
+            if (cascade != null) {
+                cascade.getConfirmer().setInputSize(inputSize);
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.e(e, "Could not resize detector input to %d", inputSize);
+            // A classifier that fails keeps its size; put back the detector if only the confirmer
+            // failed, so both still take the same crop.
+            try {
+                detector.setInputSize(previousSize);
+            } catch (final RuntimeException restoreFailure) {
+                LOGGER.e(restoreFailure, "Could not restore detector input to %d", previousSize);
+            }
+        }
+        if (detector.getInputSize() == previousSize) {
+            return;
+        }
+        if (cachingClassifier != null) {
+            // Cached boxes are in the old crop's coordinates.
+            cachingClassifier.getCache().clear();
+        }
+        planCrop(detector.getInputSize());
+        resetFrameRate();
     }
 
     protected TextToSpeech tts;
     @Override
     protected void processImage() {
+        final ModelRequest modelRequest = pendingModel.getAndSet(null);
+        if (modelRequest != null) {
+            // This frame's turn goes to the switch: admission starts no other frame until it ends.
+            readyForNextImage();
+            runInBackground(() -> {
+                try {
+                    applyModelRequest(modelRequest);
+                } catch (final RuntimeException e) {
+                    LOGGER.e(e, "Could not switch the model");
+                } finally {
+                    onFrameProcessed();
+                }
+            });
+            return;
+        }
         ++timestamp;
         final long currTimestamp = timestamp;
         trackingOverlay.postInvalidate();
 
-        // No mutex needed as this method is not reentrant.
-        if (computingDetection) {
-            readyForNextImage();
-            return;
-        }
-        computingDetection = true;
-        LOGGER.i("Preparing image " + currTimestamp + " for detection in bg thread.");
+        // No mutex needed as this method is not reentrant: the frame admission controller only
+        // hands out the next frame after onFrameProcessed().
+        LOGGER.d("Preparing image %d for detection in bg thread.", currTimestamp);
 
-        rgbFrameBitmap.setPixels(getRgbBytes(), 0, previewWidth, 0, 0, previewWidth, previewHeight);
+        final LatencyTracker.FrameTiming timing = nextFrameTiming();
+        timing.setFrameId(currTimestamp);
+        Tracer.beginFrame(FRAME_TRACE_NAME, (int) currTimestamp);
+        timing.mark(LatencyTracker.Stage.CAPTURE, getFrameCaptureNanos());
+        timing.mark(LatencyTracker.Stage.RECEIVE, getFrameReceiveNanos());
 
-        readyForNextImage();
+        applyPendingInputSize();
+        Tracer.beginSection("convertFrame");
+        try {
+            rgbFrameBitmap.setPixels(getRgbBytes(), 0, previewWidth, 0, 0,
+                    previewWidth, previewHeight);
 
-        final Canvas canvas = new Canvas(croppedBitmap);
-        canvas.drawBitmap(rgbFrameBitmap, frameToCropTransform, null);
-        // For examining the actual TF input.
-        if (SAVE_PREVIEW_BITMAP) {
-            ImageUtils.saveBitmap(croppedBitmap);
-        }
+            readyForNextImage();
 
-        tts = new TextToSpeech(this, new TextToSpeech.OnInitListener() {
-            @Override
-            public void onInit(int status) {
-                if(status != ERROR) {
-                    tts.setLanguage(Locale.KOREAN);
-                }
+            cropCanvas.setBitmap(croppedBitmap);
+            cropCanvas.drawBitmap(rgbFrameBitmap, frameToCropTransform, null);
+            // For examining the actual TF input.
+            if (SAVE_PREVIEW_BITMAP) {
+                ImageUtils.saveBitmap(croppedBitmap);
             }
-        });
+        } catch (final RuntimeException e) {
+            // startFrame() drops the frame, so its flow ends here.
+            Tracer.endFrame(FRAME_TRACE_NAME, (int) currTimestamp);
+            throw e;
+        } finally {
+            Tracer.endSection();
+        }
+        timing.mark(LatencyTracker.Stage.CONVERTED, SystemClock.elapsedRealtimeNanos());
 
         runInBackground(
                 new Runnable() {
                     @Override
                     public void run() {
-                        LOGGER.i("Running detection on image " + currTimestamp);
-                        final long startTime = SystemClock.uptimeMillis();
-                        final List<Classifier.Recognition> results = detector.recognizeImage(croppedBitmap);
-                        lastProcessingTimeMs = SystemClock.uptimeMillis() - startTime;
-
-                        Log.e("CHECK", "run: " + results.size());
-
-                        cropCopyBitmap = Bitmap.createBitmap(croppedBitmap);
-                        final Canvas canvas = new Canvas(cropCopyBitmap);
-                        final Paint paint = new Paint();
-                        paint.setColor(Color.RED);
-                        paint.setStyle(Style.STROKE);
-                        paint.setStrokeWidth(2.0f);
-
-                        float minimumConfidence = MINIMUM_CONFIDENCE_TF_OD_API;
-                        switch (MODE) {
-                            case TF_OD_API:
-                                minimumConfidence = MINIMUM_CONFIDENCE_TF_OD_API;
-                                break;
-                        }
-
-                        final List<Classifier.Recognition> mappedRecognitions =
-                                new LinkedList<Classifier.Recognition>();
-
-                        int[] maxSize = {0, 0};
-                        int size, r = 0;
-                        for (Classifier.Recognition result : results) {
-                            RectF location = result.getLocation();
-                            size = (int)(location.height() * location.width());
-                            if (size > maxSize[1]) {
-                                maxSize[0] = r;
-                                maxSize[1] = size;
-                            }
-                            r++;
-                        }
-                        if (results.size() > 0) {
-                            Classifier.Recognition result = results.get(maxSize[0]);
-                            RectF location = result.getLocation();
-                            if (location != null && result.getConfidence() >= minimumConfidence) {
-                                canvas.drawRect(location, paint);
-                                cropToFrameTransform.mapRect(location);
-                                result.setLocation(location);
-                                mappedRecognitions.add(result);
-                                tts.speak(result.getTitle(),TextToSpeech.QUEUE_FLUSH,null,null);
+                        try {
+                            detectFrame(currTimestamp, timing);
+                        } catch (final RuntimeException e) {
+                            LOGGER.e(e, "Detection failed on image %d", currTimestamp);
+                            if (drawTiming != timing) {
+                                // Never handed to the overlay, which would end its flow.
+                                Tracer.endFrame(FRAME_TRACE_NAME, (int) currTimestamp);
                             }
+                        } finally {
+                            // Even after a failure, or admission never hands out another frame.
+                            onFrameProcessed();
                         }
+                    }
+                });
+    }
+
+    private LatencyTracker.FrameTiming nextFrameTiming() {
+        LatencyTracker.FrameTiming timing = frameTimings[nextFrameTiming];
+        if (timing == null) {
+            timing = new LatencyTracker.FrameTiming();
+            frameTimings[nextFrameTiming] = timing;
+        } else {
+            timing.reset();
+        }
+        nextFrameTiming = (nextFrameTiming + 1) % frameTimings.length;
+        return timing;
+    }
+
+    // Runs on the inference thread for each admitted frame, after processImage() converted it.
+    private void detectFrame(final long currTimestamp, final LatencyTracker.FrameTiming timing) {
+        LOGGER.d("Running detection on image %d", currTimestamp);
+        Tracer.beginSection("detectFrame");
+        try {
+            timing.mark(LatencyTracker.Stage.INFERENCE_START, SystemClock.elapsedRealtimeNanos());
+            ensureOutputCapture();
+            memoryMonitor.maybeSample();
+            final long startTime = SystemClock.uptimeMillis();
+            // Tiled detections come back in frame coordinates already.
+            final boolean tiled = tiledDetector != null;
+            if (tiled) {
+                tiledDetector.detect(rgbFrameBitmap, croppedBitmap,
+                        cropToFrameTransform, detections);
+            } else {
+                activeClassifier().recognizeInto(croppedBitmap, detections);
+            }
+            lastProcessingTimeMs = SystemClock.uptimeMillis() - startTime;
+            StartupOrchestrator.get().markFirstDetection();
+            timing.mark(LatencyTracker.Stage.INFERENCE_END, SystemClock.elapsedRealtimeNanos());
+
+            LOGGER.d("run: %d", detections.size());
 
+            // The copy with the box drawn on is only for debugging.
+            final boolean debug = isDebug();
+            updateCropCopy(debug);
 
+            float minimumConfidence = MINIMUM_CONFIDENCE_TF_OD_API;
+            switch (MODE) {
+                case TF_OD_API:
+                    minimumConfidence = MINIMUM_CONFIDENCE_TF_OD_API;
+                    break;
+            }
+
+            // Only the largest product is tracked and announced; the detector already
+            // reduced the results to it.
+            mappedDetections.clear();
+            final int largest = detections.largestIndex();
+            if (largest >= 0 && detections.getScore(largest) >= minimumConfidence) {
+                location.set(detections.getLeft(largest), detections.getTop(largest),
+                        detections.getRight(largest), detections.getBottom(largest));
+                if (!tiled) {
+                    if (debug) {
+                        cropCopyCanvas.drawRect(location, cropCopyPaint);
+                    }
+                    cropToFrameTransform.mapRect(location);
+                }
+                mappedDetections.add(location.left, location.top, location.right, location.bottom,
+                        detections.getScore(largest), detections.getDetectedClass(largest),
+                        detections.getTitle(largest));
+                timing.mark(LatencyTracker.Stage.SPEAK, SystemClock.elapsedRealtimeNanos());
+                tts.speak(detections.getTitle(largest),TextToSpeech.QUEUE_FLUSH,null,null);
+            }
 
-                        tracker.trackResults(mappedRecognitions, currTimestamp);
-                        trackingOverlay.postInvalidate();
+            // Cache hits say nothing about the model's latency.
+            if (governor != null
+                    && (cachingClassifier == null || !cachingClassifier.wasLastHit())) {
+                governor.onFrameCounts(getArrivedFrameCount(), getDroppedFrameCount());
+                governor.onInference(
+                        timing.get(LatencyTracker.Stage.INFERENCE_END)
+                                - timing.get(LatencyTracker.Stage.INFERENCE_START),
+                        mappedDetections.size() > 0);
+            }
 
-                        computingDetection = false;
+            tracker.trackResults(mappedDetections, currTimestamp);
+            timing.mark(LatencyTracker.Stage.TRACKED, SystemClock.elapsedRealtimeNanos());
+            final LatencyTracker.FrameTiming undrawn = drawTiming;
+            if (undrawn != null) {
+                // Superseded before the overlay got to draw it.
+                Tracer.endFrame(FRAME_TRACE_NAME, (int) undrawn.getFrameId());
+            }
+            drawTiming = timing;
+            trackingOverlay.postInvalidate();
+        } finally {
+            Tracer.endSection();
+        }
 
-                        runOnUiThread(
-                                new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        showFrameInfo(previewWidth + "x" + previewHeight);
-                                        showCropInfo(cropCopyBitmap.getWidth() + "x" + cropCopyBitmap.getHeight());
-                                        showInference(lastProcessingTimeMs + "ms");
-                                    }
-                                });
+        final int cropWidth = croppedBitmap.getWidth();
+        final int cropHeight = croppedBitmap.getHeight();
+        runOnUiThread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        showFrameInfo(previewWidth + "x" + previewHeight);
+                        showCropInfo(cropWidth + "x" + cropHeight);
+                        showInference(lastProcessingTimeMs + "ms");
                     }
                 });
     }
 
+    @Override
+    public synchronized void onPause() {
+        LOGGER.i("Latency (p50/p90/p99):\n%s", latencyTracker.getStatString());
+        super.onPause();
+        // The inference thread has stopped, so the governor can be read safely.
+        if (governor != null) {
+            LOGGER.i("%s", governor.getStatString());
+        }
+        if (cascade != null) {
+            LOGGER.i("%s", cascade.getStatString());
+        }
+        if (cachingClassifier != null) {
+            LOGGER.i("%s", cachingClassifier.getStatString());
+        }
+        if (tiledDetector != null) {
+            LOGGER.i("%s", tiledDetector.getPlanner().getStatString());
+        }
+        closeOutputCapture();
+        LOGGER.i("%s", DirectBufferArena.shared().getStatString());
+        LOGGER.i("%s", BitmapPool.shared().getStatString());
+        // e.g. adb shell am start -n <activity> --ez memory_snapshot true
+        final boolean snapshot = getIntent().getBooleanExtra(EXTRA_MEMORY_SNAPSHOT, false);
+        if (snapshot) {
+            // Slow, so read once for both the log line and the file.
+            memoryMonitor.readPss();
+        }
+        LOGGER.i("%s", memoryMonitor.getStatString());
+        if (snapshot) {
+            writeMemorySnapshot();
+        }
+    }
+
+    // Leaves a JSON memory snapshot of a measured session, for sizing devices per model.
+    private void writeMemorySnapshot() {
+        final File file = new File(getExternalFilesDir(null),
+                "memory-" + System.currentTimeMillis() + ".json");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(memoryMonitor.toJson());
+        } catch (final IOException e) {
+            LOGGER.e(e, "Cannot write memory snapshot to %s", file);
+        }
+    }
+
     @Override
     protected int getLayoutId() {
         return R.layout.tfe_od_camera_connection_fragment_tracking;
@@ -341,11 +909,11 @@ public class DetectorActivity extends CameraActivity implements OnImageAvailable
 
     @Override
     protected void setUseNNAPI(final boolean isChecked) {
-        runInBackground(() -> detector.setUseNNAPI(isChecked));
+        runInBackground(() -> activeClassifier().setUseNNAPI(isChecked));
     }
 
     @Override
     protected void setNumThreads(final int numThreads) {
-        runInBackground(() -> detector.setNumThreads(numThreads));
+        runInBackground(() -> activeClassifier().setNumThreads(numThreads));
     }
 }
@@ -0,0 +1,98 @@
+package org.tensorflow.lite.examples.detection;
+
+import android.app.Fragment;
+import android.os.Bundle;
+import android.util.Size;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import java.io.File;
+import java.io.IOException;
+import org.tensorflow.lite.examples.detection.env.FrameReplaySource;
+import org.tensorflow.lite.examples.detection.env.Logger;
+
+/**
+ * Stands in for the camera fragments: feeds the frames of a capture written by {@link
+ * org.tensorflow.lite.examples.detection.env.FrameRecorder} to the activity with their recorded
+ * spacing, so a field session runs through the live pipeline again. The preview stays empty; the
+ * overlays of the layout are drawn as usual.
+ */
+public class FrameReplayFragment extends Fragment {
+  private static final Logger LOGGER = new Logger();
+
+  private final File capture;
+  private final CameraConnectionFragment.ConnectionCallback cameraConnectionCallback;
+  private final FrameReplaySource.Sink sink;
+  private final int layout;
+
+  private FrameReplaySource source;
+  private Thread replayThread;
+
+  public FrameReplayFragment(
+      final File capture,
+      final CameraConnectionFragment.ConnectionCallback connectionCallback,
+      final FrameReplaySource.Sink sink,
+      final int layout) {
+    this.capture = capture;
+    this.cameraConnectionCallback = connectionCallback;
+    this.sink = sink;
+    this.layout = layout;
+  }
+
+  @Override
+  public View onCreateView(
+      final LayoutInflater inflater, final ViewGroup container, final Bundle savedInstanceState) {
+    return inflater.inflate(layout, container, false);
+  }
+
+  @Override
+  public void onResume() {
+    super.onResume();
+    try {
+      source = new FrameReplaySource(capture);
+    } catch (final IOException e) {
+      LOGGER.e(e, "Cannot replay %s", capture);
+      return;
+    }
+    LOGGER.i(
+        "Replaying %s: %dx%d, %s",
+        capture, source.getWidth(), source.getHeight(), source.getMetadata());
+    cameraConnectionCallback.onPreviewSizeChosen(
+        new Size(source.getWidth(), source.getHeight()), source.getRotation());
+
+    final FrameReplaySource replaying = source;
+    replayThread =
+        new Thread(
+            () -> {
+              try {
+                final int frames = replaying.replay(FrameReplaySource.Pacing.RECORDED, sink);
+                LOGGER.i("Replayed %d frames", frames);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            "frame-replay");
+    replayThread.start();
+  }
+
+  @Override
+  public void onPause() {
+    if (source != null) {
+      source.stop();
+      replayThread.interrupt();
+      try {
+        replayThread.join();
+      } catch (final InterruptedException e) {
+        LOGGER.e(e, "Exception!");
+      }
+      try {
+        source.close();
+      } catch (final IOException e) {
+        LOGGER.e(e, "Exception!");
+      }
+      source = null;
+      replayThread = null;
+    }
+    super.onPause();
+  }
+}
@@ -0,0 +1,342 @@
+package org.tensorflow.lite.examples.detection;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.google.gson.Gson;
+
+import org.tensorflow.lite.examples.detection.env.BitmapPool;
+import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.tflite.Classifier;
+import org.tensorflow.lite.examples.detection.tflite.DetectionBuffer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a classifier over every image in a folder and streams one JSON line per image to a file.
+ *
+ * Decoder threads decode each file subsampled close to the model size and scale it into a pooled
+ * model-size bitmap; the calling thread runs inference on whatever decoded images are ready, as
+ * one batch, and writes the results. The pool bounds how far decoding runs ahead, so memory use
+ * is the pool plus one decode bitmap per thread, whatever the folder size. All of these come from
+ * and go back to the shared {@link BitmapPool}, so repeated scans reuse the same memory.
+ */
+public class GalleryScanner {
+    private static final Logger LOGGER = new Logger();
+
+    private static final String[] EXTENSIONS = {".jpg", ".jpeg", ".png", ".webp"};
+
+    /** One line of the output file. Boxes are in the original image's pixels. */
+    static class Record {
+        String file;
+        int width;
+        int height;
+        float decodeMs;
+        float queueMs;
+        float inferenceMs;
+        String error;
+        List<Detection> detections;
+    }
+
+    static class Detection {
+        String title;
+        int detectedClass;
+        float confidence;
+        float[] box;
+    }
+
+    /** Totals of a finished or cancelled scan. */
+    public static class Summary {
+        private int images;
+        private int failed;
+        private long wallNanos;
+        private long decodeNanos;
+        private long inferenceNanos;
+        private long maxDecodeNanos;
+        private long maxInferenceNanos;
+
+        public int getImages() {
+            return images;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public float getImagesPerSecond() {
+            return wallNanos == 0 ? 0 : images * 1e9f / wallNanos;
+        }
+
+        @Override
+        public String toString() {
+            final int decoded = Math.max(1, images - failed);
+            return String.format(Locale.US,
+                    "%d images (%d failed) in %.1fs, %.2f img/s; decode mean %.1fms max %.1fms, "
+                            + "inference mean %.1fms max %.1fms",
+                    images, failed, wallNanos / 1e9f, getImagesPerSecond(),
+                    decodeNanos / 1e6f / decoded, maxDecodeNanos / 1e6f,
+                    inferenceNanos / 1e6f / decoded, maxInferenceNanos / 1e6f);
+        }
+    }
+
+    // A decoded image waiting for inference, or a file that could not be decoded.
+    private static class Item {
+        String name;
+        Bitmap bitmap;
+        int width;
+        int height;
+        long decodeNanos;
+        long readyAt;
+        String error;
+    }
+
+    private final Classifier classifier;
+    private final int inputSize;
+    private final int decodeThreads;
+    private final int poolSize;
+    private final int maxBatch;
+    private final Gson gson = new Gson();
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param inputSize     Side of the square model input.
+     * @param decodeThreads Number of decoder threads.
+     * @param poolSize      Model-size bitmaps decoded ahead of inference; bounds memory.
+     * @param maxBatch      Most images passed to {@link Classifier#recognizeBatch} at once.
+     */
+    public GalleryScanner(final Classifier classifier, final int inputSize, final int decodeThreads,
+                          final int poolSize, final int maxBatch) {
+        this.classifier = classifier;
+        this.inputSize = inputSize;
+        this.decodeThreads = Math.max(1, decodeThreads);
+        this.poolSize = Math.max(1, poolSize);
+        this.maxBatch = Math.max(1, Math.min(maxBatch, this.poolSize));
+    }
+
+    /** Stops a running scan after the current batch; the output so far is kept. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Scans the images directly in {@code folder}, writing JSON lines to {@code output}. Runs
+     * inference on the calling thread, which must have the classifier to itself.
+     */
+    public Summary scan(final File folder, final File output) throws IOException {
+        cancelled = false;
+        final String[] names = folder.list((dir, name) -> isImage(name));
+        final String[] files = names != null ? names : new String[0];
+        Arrays.sort(files);
+
+        final BlockingQueue<Bitmap> free = new ArrayBlockingQueue<Bitmap>(poolSize);
+        for (int i = 0; i < poolSize; ++i) {
+            free.add(BitmapPool.shared().acquire(inputSize, inputSize, Bitmap.Config.ARGB_8888));
+        }
+        final BlockingQueue<Item> ready = new ArrayBlockingQueue<Item>(poolSize + decodeThreads);
+        final AtomicInteger next = new AtomicInteger();
+
+        final Summary summary = new Summary();
+        final long start = System.nanoTime();
+        final Thread[] decoders = new Thread[decodeThreads];
+        for (int t = 0; t < decodeThreads; ++t) {
+            decoders[t] = new Thread(() -> decodeLoop(folder, files, next, free, ready),
+                    "gallery-decode-" + t);
+            decoders[t].start();
+        }
+
+        final List<Item> batch = new ArrayList<Item>(maxBatch);
+        final List<Bitmap> bitmaps = new ArrayList<Bitmap>(maxBatch);
+        final List<DetectionBuffer> results = new ArrayList<DetectionBuffer>(maxBatch);
+        for (int i = 0; i < maxBatch; ++i) {
+            results.add(new DetectionBuffer());
+        }
+
+        try (Writer writer = new BufferedWriter(new FileWriter(output))) {
+            int done = 0;
+            while (done < files.length && !cancelled) {
+                batch.clear();
+                bitmaps.clear();
+                batch.add(ready.take());
+                ready.drainTo(batch, maxBatch - 1);
+                for (final Item item : batch) {
+                    if (item.bitmap != null) {
+                        bitmaps.add(item.bitmap);
+                    }
+                }
+
+                final long inferenceStart = System.nanoTime();
+                if (!bitmaps.isEmpty()) {
+                    classifier.recognizeBatch(bitmaps, results.subList(0, bitmaps.size()));
+                }
+                final long perImage = bitmaps.isEmpty()
+                        ? 0 : (System.nanoTime() - inferenceStart) / bitmaps.size();
+
+                int r = 0;
+                for (final Item item : batch) {
+                    final Record record = new Record();
+                    record.file = item.name;
+                    record.width = item.width;
+                    record.height = item.height;
+                    record.decodeMs = item.decodeNanos / 1e6f;
+                    record.error = item.error;
+                    if (item.bitmap != null) {
+                        record.queueMs = (inferenceStart - item.readyAt) / 1e6f;
+                        record.inferenceMs = perImage / 1e6f;
+                        record.detections = toDetections(results.get(r++), item);
+                        free.add(item.bitmap);
+                        summary.decodeNanos += item.decodeNanos;
+                        summary.maxDecodeNanos = Math.max(summary.maxDecodeNanos, item.decodeNanos);
+                        summary.inferenceNanos += perImage;
+                        summary.maxInferenceNanos = Math.max(summary.maxInferenceNanos, perImage);
+                    } else {
+                        summary.failed++;
+                    }
+                    writer.write(gson.toJson(record));
+                    writer.write('\n');
+                    summary.images++;
+                    done++;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cancelled = true;
+            for (final Thread decoder : decoders) {
+                decoder.interrupt();
+            }
+            summary.wallNanos = System.nanoTime() - start;
+            // Bitmaps still held by a decoder or waiting in ready are left to the GC.
+            final List<Bitmap> unused = new ArrayList<Bitmap>(poolSize);
+            free.drainTo(unused);
+            for (final Bitmap bitmap : unused) {
+                BitmapPool.shared().release(bitmap);
+            }
+        }
+        LOGGER.i("Gallery scan of %s: %s", folder, summary);
+        return summary;
+    }
+
+    private void decodeLoop(final File folder, final String[] files, final AtomicInteger next,
+                            final BlockingQueue<Bitmap> free, final BlockingQueue<Item> ready) {
+        final Canvas canvas = new Canvas();
+        final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        final Rect src = new Rect();
+        final Rect dst = new Rect(0, 0, inputSize, inputSize);
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+
+        try {
+            int index;
+            while (!cancelled && (index = next.getAndIncrement()) < files.length) {
+                final Item item = new Item();
+                item.name = files[index];
+                final String path = new File(folder, item.name).getPath();
+                final long start = System.nanoTime();
+                Bitmap target = null;
+                try {
+                    options.inJustDecodeBounds = true;
+                    options.inBitmap = null;
+                    options.inSampleSize = 1;
+                    BitmapFactory.decodeFile(path, options);
+                    item.width = options.outWidth;
+                    item.height = options.outHeight;
+                    if (item.width <= 0 || item.height <= 0) {
+                        item.error = "not a decodable image";
+                        ready.put(item);
+                        continue;
+                    }
+
+                    options.inSampleSize = sampleSize(item.width, item.height);
+                    options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+                    final Bitmap decoded = BitmapPool.shared().decodeFile(path, options);
+                    if (decoded == null) {
+                        item.error = "decoding failed";
+                        ready.put(item);
+                        continue;
+                    }
+
+                    // Blocks while the pool is used up: decoding never runs further ahead than
+                    // that.
+                    target = free.take();
+                    canvas.setBitmap(target);
+                    src.set(0, 0, decoded.getWidth(), decoded.getHeight());
+                    canvas.drawBitmap(decoded, src, dst, paint);
+                    BitmapPool.shared().release(decoded);
+                    item.bitmap = target;
+                    item.decodeNanos = System.nanoTime() - start;
+                    item.readyAt = System.nanoTime();
+                } catch (final RuntimeException | OutOfMemoryError e) {
+                    // Every file must reach ready, or scan() waits for it forever. A bitmap being
+                    // decoded is left to the GC.
+                    LOGGER.e(e, "Could not decode %s", item.name);
+                    if (target != null) {
+                        free.add(target);
+                    }
+                    item.bitmap = null;
+                    item.error = "decoding failed: " + e;
+                }
+                ready.put(item);
+            }
+        } catch (final InterruptedException e) {
+            // Scan finished or cancelled.
+        } finally {
+            canvas.setBitmap(null);
+        }
+    }
+
+    // Largest power of two that keeps both sides at least the model size and the decoded image
+    // within four model inputs, which bounds the decode bitmaps the pool has to keep.
+    private int sampleSize(final int width, final int height) {
+        int sample = 1;
+        while (width / (sample * 2) >= inputSize && height / (sample * 2) >= inputSize) {
+            sample *= 2;
+        }
+        final long capacity = 4L * inputSize * inputSize;
+        while ((long) (width / sample) * (height / sample) > capacity) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    // The model input stretches the image to a square, so boxes scale back per axis.
+    private List<Detection> toDetections(final DetectionBuffer results, final Item item) {
+        final float scaleX = (float) item.width / inputSize;
+        final float scaleY = (float) item.height / inputSize;
+        final List<Detection> detections = new ArrayList<Detection>(results.size());
+        for (int i = 0; i < results.size(); ++i) {
+            final Detection detection = new Detection();
+            detection.title = results.getTitle(i);
+            detection.detectedClass = results.getDetectedClass(i);
+            detection.confidence = results.getScore(i);
+            detection.box = new float[]{
+                    results.getLeft(i) * scaleX, results.getTop(i) * scaleY,
+                    results.getRight(i) * scaleX, results.getBottom(i) * scaleY};
+            detections.add(detection);
+        }
+        return detections;
+    }
+
+    private static boolean isImage(final String name) {
+        final String lower = name.toLowerCase(Locale.US);
+        for (final String extension : EXTENSIONS) {
+            if (lower.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -33,11 +33,15 @@ import android.view.ViewGroup;
 import java.io.IOException;
 import java.util.List;
 import org.tensorflow.lite.examples.detection.customview.AutoFitTextureView;
+import org.tensorflow.lite.examples.detection.env.FrameRateController;
 import org.tensorflow.lite.examples.detection.env.ImageUtils;
 import org.tensorflow.lite.examples.detection.env.Logger;
 
-public class LegacyCameraConnectionFragment extends Fragment {
+public class LegacyCameraConnectionFragment extends Fragment
+    implements FrameRateController.Camera {
   private static final Logger LOGGER = new Logger();
+  /** Preview buffers in rotation; frames held by the admission queue keep theirs. */
+  private static final int NUM_CALLBACK_BUFFERS = 3;
   /** Conversion from screen rotation to JPEG orientation. */
   private static final SparseIntArray ORIENTATIONS = new SparseIntArray();
 
@@ -55,6 +59,10 @@ public class LegacyCameraConnectionFragment extends Fragment {
   private int layout;
   /** An {@link AutoFitTextureView} for camera preview. */
   private AutoFitTextureView textureView;
+  /** Preview frame-rate ranges as reported by the camera, in frames per 1000 seconds. */
+  private volatile List<int[]> rawFpsRanges;
+  /** Preview frame-rate range to apply, in frames per second, or null for the default. */
+  private volatile int[] fpsRange;
   /**
    * {@link TextureView.SurfaceTextureListener} handles several lifecycle events on a {@link
    * TextureView}.
@@ -85,6 +93,9 @@ public class LegacyCameraConnectionFragment extends Fragment {
                 CameraConnectionFragment.chooseOptimalSize(
                     sizes, desiredSize.getWidth(), desiredSize.getHeight());
             parameters.setPreviewSize(previewSize.getWidth(), previewSize.getHeight());
+            rawFpsRanges = parameters.getSupportedPreviewFpsRange();
+            // The frame rate chosen before the camera was last closed, if any.
+            applyFpsRange(parameters);
             camera.setDisplayOrientation(90);
             camera.setParameters(parameters);
             camera.setPreviewTexture(texture);
@@ -94,7 +105,9 @@ public class LegacyCameraConnectionFragment extends Fragment {
 
           camera.setPreviewCallbackWithBuffer(imageListener);
           Camera.Size s = camera.getParameters().getPreviewSize();
-          camera.addCallbackBuffer(new byte[ImageUtils.getYUVByteSize(s.height, s.width)]);
+          for (int b = 0; b < NUM_CALLBACK_BUFFERS; ++b) {
+            camera.addCallbackBuffer(new byte[ImageUtils.getYUVByteSize(s.height, s.width)]);
+          }
 
           textureView.setAspectRatio(s.height, s.width);
 
@@ -188,6 +201,67 @@ public class LegacyCameraConnectionFragment extends Fragment {
     }
   }
 
+  @Override
+  public int[][] getSupportedFpsRanges() {
+    final List<int[]> raw = rawFpsRanges;
+    final int[][] ranges = new int[raw != null ? raw.size() : 0][];
+    for (int i = 0; i < ranges.length; ++i) {
+      ranges[i] =
+          new int[] {
+            raw.get(i)[Camera.Parameters.PREVIEW_FPS_MIN_INDEX] / 1000,
+            raw.get(i)[Camera.Parameters.PREVIEW_FPS_MAX_INDEX] / 1000
+          };
+    }
+    return ranges;
+  }
+
+  /** Changes the preview frame rate on the UI thread, which owns the camera. */
+  @Override
+  public void setFpsRange(final int minFps, final int maxFps) {
+    fpsRange = new int[] {minFps, maxFps};
+    final View view = textureView;
+    if (view == null) {
+      return;
+    }
+    view.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (camera == null) {
+              return;
+            }
+            LOGGER.i("Preview frame rate range %d-%d", minFps, maxFps);
+            try {
+              final Camera.Parameters parameters = camera.getParameters();
+              if (applyFpsRange(parameters)) {
+                camera.setParameters(parameters);
+              }
+            } catch (final RuntimeException e) {
+              LOGGER.e(e, "Could not change the preview frame rate");
+            }
+          }
+        });
+  }
+
+  // Sets the chosen range on parameters; false if none is chosen or the camera lacks it.
+  private boolean applyFpsRange(final Camera.Parameters parameters) {
+    final int[] range = fpsRange;
+    final List<int[]> raw = rawFpsRanges;
+    if (range == null || raw == null) {
+      return false;
+    }
+    for (final int[] candidate : raw) {
+      if (candidate[Camera.Parameters.PREVIEW_FPS_MIN_INDEX] / 1000 == range[0]
+          && candidate[Camera.Parameters.PREVIEW_FPS_MAX_INDEX] / 1000 == range[1]) {
+        parameters.setPreviewFpsRange(
+            candidate[Camera.Parameters.PREVIEW_FPS_MIN_INDEX],
+            candidate[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]);
+        return true;
+      }
+    }
+    return false;
+  }
+
   private int getCameraId() {
     CameraInfo ci = new CameraInfo();
     for (int i = 0; i < Camera.getNumberOfCameras(); i++) {
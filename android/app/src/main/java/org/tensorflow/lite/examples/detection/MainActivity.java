@@ -13,6 +13,7 @@ import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.os.Bundle;
+import android.os.Environment;
 import android.os.Handler;
 import android.widget.Button;
 import android.widget.ImageView;
@@ -22,10 +23,13 @@ import org.tensorflow.lite.examples.detection.customview.OverlayView;
 import org.tensorflow.lite.examples.detection.env.ImageUtils;
 import org.tensorflow.lite.examples.detection.env.Logger;
 import org.tensorflow.lite.examples.detection.env.Utils;
+import org.tensorflow.lite.examples.detection.tflite.AsyncDetector;
+import org.tensorflow.lite.examples.detection.tflite.BatchBenchmark;
 import org.tensorflow.lite.examples.detection.tflite.Classifier;
 import org.tensorflow.lite.examples.detection.tflite.YoloV5Classifier;
 import org.tensorflow.lite.examples.detection.tracking.MultiBoxTracker;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,17 +52,44 @@ public class MainActivity extends AppCompatActivity {
         detectButton.setOnClickListener(v -> {
             Handler handler = new Handler();
 
-            new Thread(() -> {
-                final List<Classifier.Recognition> results = detector.recognizeImage(cropBitmap);
-                handler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        handleResult(cropBitmap, results);
-                    }
-                });
-            }).start();
+            asyncDetector.submitWithin(cropBitmap, DETECT_DEADLINE_MS, new AsyncDetector.Callback() {
+                @Override
+                public void onResult(AsyncDetector.Result result) {
+                    LOGGER.i("Detection queued %dms, ran %dms",
+                            result.getQueueNanos() / 1000000, result.getComputeNanos() / 1000000);
+                    final List<Classifier.Recognition> results = result.getRecognitions();
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            handleResult(cropBitmap, results);
+                        }
+                    });
+                }
+
+                @Override
+                public void onExpired(AsyncDetector.Result result) {
+                    LOGGER.w("Detection request expired after %dms in queue",
+                            result.getQueueNanos() / 1000000);
+                }
+
+                @Override
+                public void onError(AsyncDetector.Result result, Throwable error) {
+                    LOGGER.e(error, "Detection failed");
+                    handler.post(() -> Toast.makeText(MainActivity.this, "Detection failed",
+                            Toast.LENGTH_SHORT).show());
+                }
+            });
 
         });
+        // Long press measures batched against one-by-one inference and logs the table.
+        detectButton.setOnLongClickListener(v -> {
+            Toast.makeText(MainActivity.this, "Running batch benchmark", Toast.LENGTH_SHORT).show();
+            asyncDetector.execute(() -> LOGGER.i("Batch benchmark:\n%s", BatchBenchmark.run(
+                    detector, cropBitmap, BENCHMARK_BATCH_SIZES, BENCHMARK_ROUNDS)));
+            return true;
+        });
+        scanButton = findViewById(R.id.scanButton);
+        scanButton.setOnClickListener(v -> scanFolder());
         this.sourceBitmap = Utils.getBitmapFromAsset(MainActivity.this, "kite.jpg");
 
         this.cropBitmap = Utils.processBitmap(sourceBitmap, TF_OD_API_INPUT_SIZE);
@@ -74,8 +105,28 @@ public class MainActivity extends AppCompatActivity {
         System.err.println(String.format("%X", configurationInfo.reqGlEsVersion));
     }
 
+    @Override
+    protected void onDestroy() {
+        if (asyncDetector != null) {
+            asyncDetector.shutdown();
+        }
+        super.onDestroy();
+    }
+
     private static final Logger LOGGER = new Logger();
 
+    // Clicks that wait longer than this behind earlier requests are dropped.
+    private static final long DETECT_DEADLINE_MS = 2000;
+
+    private static final int[] BENCHMARK_BATCH_SIZES = new int[]{1, 2, 4, 8};
+    private static final int BENCHMARK_ROUNDS = 5;
+
+    // adb shell am start -n <activity> --es scan_dir /sdcard/Pictures/shelf
+    private static final String EXTRA_SCAN_DIR = "scan_dir";
+    private static final int SCAN_DECODE_THREADS = 2;
+    private static final int SCAN_POOL_SIZE = 8;
+    private static final int SCAN_MAX_BATCH = 4;
+
     public static final int TF_OD_API_INPUT_SIZE = 640;
 
     private static final boolean TF_OD_API_IS_QUANTIZED = false;
@@ -89,6 +140,7 @@ public class MainActivity extends AppCompatActivity {
     private Integer sensorOrientation = 90;
 
     private Classifier detector;
+    private AsyncDetector asyncDetector;
 
     private Matrix frameToCropTransform;
     private Matrix cropToFrameTransform;
@@ -101,7 +153,7 @@ public class MainActivity extends AppCompatActivity {
     private Bitmap sourceBitmap;
     private Bitmap cropBitmap;
 
-    private Button cameraButton, detectButton;
+    private Button cameraButton, detectButton, scanButton;
     private ImageView imageView;
 
     private void initBox() {
@@ -131,6 +183,7 @@ public class MainActivity extends AppCompatActivity {
                             TF_OD_API_LABELS_FILE,
                             TF_OD_API_IS_QUANTIZED,
                             TF_OD_API_INPUT_SIZE);
+            asyncDetector = new AsyncDetector(detector);
         } catch (final IOException e) {
             e.printStackTrace();
             LOGGER.e(e, "Exception initializing classifier!");
@@ -142,6 +195,32 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Scans the folder given by the scan_dir extra, or the app's Pictures folder, on the detector
+     * thread, writing one JSON line per image to a new file in the app's files folder.
+     */
+    private void scanFolder() {
+        final String dir = getIntent().getStringExtra(EXTRA_SCAN_DIR);
+        final File folder = dir != null
+                ? new File(dir) : getExternalFilesDir(Environment.DIRECTORY_PICTURES);
+        final File output =
+                new File(getExternalFilesDir(null), "scan-" + System.currentTimeMillis() + ".jsonl");
+        Toast.makeText(this, "Scanning " + folder, Toast.LENGTH_SHORT).show();
+        final GalleryScanner scanner = new GalleryScanner(detector, TF_OD_API_INPUT_SIZE,
+                SCAN_DECODE_THREADS, SCAN_POOL_SIZE, SCAN_MAX_BATCH);
+        asyncDetector.execute(() -> {
+            String message;
+            try {
+                message = scanner.scan(folder, output) + " -> " + output;
+            } catch (final IOException e) {
+                LOGGER.e(e, "Gallery scan failed");
+                message = "Scan failed: " + e.getMessage();
+            }
+            final String text = message;
+            runOnUiThread(() -> Toast.makeText(MainActivity.this, text, Toast.LENGTH_LONG).show());
+        });
+    }
+
     private void handleResult(Bitmap bitmap, List<Classifier.Recognition> results) {
         final Canvas canvas = new Canvas(bitmap);
         final Paint paint = new Paint();
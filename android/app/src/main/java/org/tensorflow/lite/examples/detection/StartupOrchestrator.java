@@ -0,0 +1,182 @@
+package org.tensorflow.lite.examples.detection;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.speech.tts.TextToSpeech;
+
+import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.env.Utils;
+import org.tensorflow.lite.examples.detection.tflite.DetectorFactory;
+import org.tensorflow.lite.examples.detection.tflite.ProductCatalog;
+import org.tensorflow.lite.examples.detection.tflite.YoloV5Classifier;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static android.speech.tts.TextToSpeech.ERROR;
+
+/**
+ * Starts the expensive cold-start work in parallel as soon as {@link DetectorActivity} is created:
+ * the model memory map, label parsing, the product catalog, interpreter construction and TTS binding.
+ * The camera opens meanwhile, and {@link DetectorActivity} picks up the finished detector instead
+ * of building it inside onPreviewSizeChosen.
+ *
+ * Also records a launch timeline up to the first detection.
+ */
+public class StartupOrchestrator {
+    private static final Logger LOGGER = new Logger();
+
+    private static final StartupOrchestrator INSTANCE = new StartupOrchestrator();
+
+    private final List<String> timeline = new ArrayList<String>();
+    private long originMs;
+    private boolean started;
+    private boolean firstDetectionSeen;
+
+    private String modelFilename;
+    private Future<YoloV5Classifier> detectorFuture;
+    private TextToSpeech tts;
+
+    private StartupOrchestrator() {
+    }
+
+    public static StartupOrchestrator get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Kicks off initialization, preloading the detector for {@code modelFilename}, the model the
+     * detector activity starts with. Only the first call counts.
+     */
+    public synchronized void start(final Context context, final String modelFilename) {
+        if (started) {
+            return;
+        }
+        started = true;
+        originMs = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                ? Process.getStartElapsedRealtime() : SystemClock.elapsedRealtime();
+        mark("orchestrator start");
+
+        final Context appContext = context.getApplicationContext();
+        final AssetManager assets = appContext.getAssets();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        this.modelFilename = modelFilename;
+        if (modelFilename != null) {
+            final String labelFilename = DetectorFactory.getLabelFilename(modelFilename);
+            final Future<List<String>> labelsFuture = executor.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws IOException {
+                    final List<String> labels = Utils.loadLabels(assets, labelFilename);
+                    mark("labels parsed");
+                    return labels;
+                }
+            });
+            final Future<MappedByteBuffer> modelFuture = executor.submit(new Callable<MappedByteBuffer>() {
+                @Override
+                public MappedByteBuffer call() throws IOException {
+                    final MappedByteBuffer model = Utils.loadModelFile(assets, modelFilename);
+                    mark("model mapped");
+                    return model;
+                }
+            });
+            detectorFuture = executor.submit(new Callable<YoloV5Classifier>() {
+                @Override
+                public YoloV5Classifier call() throws Exception {
+                    final YoloV5Classifier detector =
+                            DetectorFactory.getDetector(modelFilename, modelFuture.get(), labelsFuture.get());
+                    mark("interpreter ready");
+                    return detector;
+                }
+            });
+        }
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                ProductCatalog.preload();
+                mark("catalog loaded");
+            }
+        });
+        executor.shutdown();
+
+        tts = new TextToSpeech(appContext, new TextToSpeech.OnInitListener() {
+            @Override
+            public void onInit(int status) {
+                if (status != ERROR) {
+                    tts.setLanguage(Locale.KOREAN);
+                }
+                mark("tts bound");
+            }
+        });
+    }
+
+    /**
+     * Hands over the preloaded detector if it was built for the given model, waiting for it if
+     * needed. Returns null if nothing was preloaded for that model or it was already taken; the
+     * caller then builds its own.
+     */
+    public YoloV5Classifier takeDetector(final String modelFilename) {
+        final Future<YoloV5Classifier> future;
+        synchronized (this) {
+            if (detectorFuture == null || !modelFilename.equals(this.modelFilename)) {
+                return null;
+            }
+            future = detectorFuture;
+            detectorFuture = null;
+        }
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException e) {
+            LOGGER.e(e.getCause(), "Preloading %s failed", modelFilename);
+            return null;
+        }
+    }
+
+    /** The shared TTS engine. Speaking before it is bound fails quietly. */
+    public synchronized TextToSpeech getTextToSpeech() {
+        return tts;
+    }
+
+    public void mark(final String event) {
+        final long elapsedMs = SystemClock.elapsedRealtime() - originMs;
+        synchronized (timeline) {
+            timeline.add(String.format(Locale.US, "%6dms %s", elapsedMs, event));
+        }
+    }
+
+    /** Records the first detection and logs the whole launch timeline; later calls are ignored. */
+    public void markFirstDetection() {
+        synchronized (this) {
+            if (firstDetectionSeen) {
+                return;
+            }
+            firstDetectionSeen = true;
+        }
+        mark("first detection");
+        LOGGER.i("Startup timeline:\n%s", getTimeline());
+    }
+
+    public String getTimeline() {
+        final StringBuilder builder = new StringBuilder();
+        synchronized (timeline) {
+            for (final String line : timeline) {
+                builder.append(line).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
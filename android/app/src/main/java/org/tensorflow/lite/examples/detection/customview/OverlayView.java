@@ -21,6 +21,7 @@ import android.util.AttributeSet;
 import android.view.View;
 import java.util.LinkedList;
 import java.util.List;
+import org.tensorflow.lite.examples.detection.env.Tracer;
 
 /** A simple View providing a render callback to other classes. */
 public class OverlayView extends View {
@@ -36,8 +37,13 @@ public class OverlayView extends View {
 
   @Override
   public synchronized void draw(final Canvas canvas) {
-    for (final DrawCallback callback : callbacks) {
-      callback.drawCallback(canvas);
+    Tracer.beginSection("overlayDraw");
+    try {
+      for (final DrawCallback callback : callbacks) {
+        callback.drawCallback(canvas);
+      }
+    } finally {
+      Tracer.endSection();
     }
   }
 
@@ -0,0 +1,218 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps mutable bitmaps that are no longer used and hands them out again, so frames, crops, tiles
+ * and decodes reuse pixel memory instead of allocating a bitmap each time.
+ *
+ * <p>A request is served by a pooled bitmap of the same size and config, failing that by the
+ * smallest pooled bitmap whose allocation fits, reconfigured, and only then by a new bitmap.
+ * {@link #decodeFile} decodes into a pooled bitmap through {@link BitmapFactory.Options#inBitmap}.
+ * Pooled bytes are capped; past the cap the longest-pooled bitmaps are recycled. The pool holds a
+ * handful of bitmaps, so lookups scan it rather than allocate a key per call. Thread-safe.
+ */
+public class BitmapPool {
+  public static final long DEFAULT_MAX_BYTES = 32L << 20;
+
+  private static final BitmapPool SHARED = new BitmapPool(DEFAULT_MAX_BYTES);
+
+  /** The pool shared by the activities, detectors and scanners. */
+  public static BitmapPool shared() {
+    return SHARED;
+  }
+
+  // Oldest first.
+  private final List<Bitmap> pooled = new ArrayList<Bitmap>();
+
+  private long maxBytes;
+  private long pooledBytes;
+  private long hits;
+  private long reconfigures;
+  private long misses;
+  private long decodeReuses;
+  private long decodeMisses;
+  private long evictedBytes;
+
+  public BitmapPool(final long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public synchronized void setMaxBytes(final long maxBytes) {
+    this.maxBytes = maxBytes;
+    evict();
+  }
+
+  /**
+   * Returns a mutable bitmap of the given size and config. Its pixels are left over from earlier
+   * use; callers that do not overwrite every pixel must erase it. Hand it back with {@link
+   * #release}.
+   */
+  public Bitmap acquire(final int width, final int height, final Bitmap.Config config) {
+    Bitmap bitmap = null;
+    synchronized (this) {
+      for (int i = 0; i < pooled.size(); ++i) {
+        final Bitmap candidate = pooled.get(i);
+        if (candidate.getWidth() == width
+            && candidate.getHeight() == height
+            && candidate.getConfig() == config) {
+          bitmap = take(i);
+          hits++;
+          break;
+        }
+      }
+      if (bitmap == null) {
+        final int index = smallestFitting((long) width * height * bytesPerPixel(config), config);
+        if (index >= 0) {
+          bitmap = take(index);
+          reconfigures++;
+        }
+      }
+      if (bitmap == null) {
+        misses++;
+      }
+    }
+    if (bitmap == null) {
+      return Bitmap.createBitmap(width, height, config);
+    }
+    if (bitmap.getWidth() != width
+        || bitmap.getHeight() != height
+        || bitmap.getConfig() != config) {
+      bitmap.reconfigure(width, height, config);
+    }
+    return bitmap;
+  }
+
+  /**
+   * Takes back a bitmap for reuse. It must no longer be used, drawn or displayed. Null, recycled
+   * and immutable bitmaps are ignored; a bitmap already in the pool is not added twice.
+   */
+  public synchronized void release(final Bitmap bitmap) {
+    if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+      return;
+    }
+    for (final Bitmap candidate : pooled) {
+      if (candidate == bitmap) {
+        return;
+      }
+    }
+    pooled.add(bitmap);
+    pooledBytes += bitmap.getAllocationByteCount();
+    evict();
+  }
+
+  /**
+   * Decodes {@code path} into a pooled bitmap when one is large enough, otherwise into new memory.
+   * {@code options} must hold the image bounds from an {@code inJustDecodeBounds} pass and the
+   * sample size to decode at; the result is mutable and in {@code inPreferredConfig}. Returns null
+   * if the file cannot be decoded. Release the result when done.
+   */
+  public Bitmap decodeFile(final String path, final BitmapFactory.Options options) {
+    final Bitmap.Config config =
+        options.inPreferredConfig != null ? options.inPreferredConfig : Bitmap.Config.ARGB_8888;
+    final int sample = Math.max(1, options.inSampleSize);
+    // Rounds up: decoders differ in how they round subsampled sides.
+    final long bytes = (long) ((options.outWidth + sample - 1) / sample)
+        * ((options.outHeight + sample - 1) / sample) * bytesPerPixel(config);
+    Bitmap reuse = null;
+    synchronized (this) {
+      final int index = smallestFitting(bytes, config);
+      if (index >= 0) {
+        reuse = take(index);
+      }
+    }
+
+    options.inJustDecodeBounds = false;
+    options.inMutable = true;
+    options.inPreferredConfig = config;
+    options.inBitmap = reuse;
+    Bitmap decoded = null;
+    try {
+      decoded = BitmapFactory.decodeFile(path, options);
+    } catch (final IllegalArgumentException e) {
+      // The decoder would not reuse this bitmap for the image; decode into new memory.
+      options.inBitmap = null;
+      decoded = BitmapFactory.decodeFile(path, options);
+    } finally {
+      options.inBitmap = null;
+      if (decoded != reuse) {
+        release(reuse);
+      }
+    }
+    synchronized (this) {
+      if (decoded != null && decoded == reuse) {
+        decodeReuses++;
+      } else if (decoded != null) {
+        decodeMisses++;
+      }
+    }
+    return decoded;
+  }
+
+  /** Recycles every pooled bitmap. */
+  public synchronized void trim() {
+    for (final Bitmap bitmap : pooled) {
+      bitmap.recycle();
+    }
+    pooled.clear();
+    evictedBytes += pooledBytes;
+    pooledBytes = 0;
+  }
+
+  // Index of the smallest pooled bitmap of at least {@code bytes} that can take {@code config}.
+  private int smallestFitting(final long bytes, final Bitmap.Config config) {
+    int best = -1;
+    for (int i = 0; i < pooled.size(); ++i) {
+      final Bitmap candidate = pooled.get(i);
+      if (candidate.getConfig() == config
+          && candidate.getAllocationByteCount() >= bytes
+          && (best < 0
+              || candidate.getAllocationByteCount()
+                  < pooled.get(best).getAllocationByteCount())) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  private Bitmap take(final int index) {
+    final Bitmap bitmap = pooled.remove(index);
+    pooledBytes -= bitmap.getAllocationByteCount();
+    return bitmap;
+  }
+
+  private void evict() {
+    while (pooledBytes > maxBytes && !pooled.isEmpty()) {
+      final Bitmap oldest = take(0);
+      evictedBytes += oldest.getAllocationByteCount();
+      oldest.recycle();
+    }
+  }
+
+  private static int bytesPerPixel(final Bitmap.Config config) {
+    if (config == Bitmap.Config.ALPHA_8) {
+      return 1;
+    }
+    if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+      return 2;
+    }
+    // ARGB_8888; wider configs are never requested here.
+    return 4;
+  }
+
+  public synchronized long getPooledBytes() {
+    return pooledBytes;
+  }
+
+  public synchronized String getStatString() {
+    return String.format(Locale.US,
+        "bitmap pool %d bitmaps %.1fMB (max %.1fMB) hits=%d reconfigured=%d new=%d"
+            + " decode reuses=%d misses=%d evicted=%.1fMB",
+        pooled.size(), pooledBytes / 1048576f, maxBytes / 1048576f, hits, reconfigures,
+        misses, decodeReuses, decodeMisses, evictedBytes / 1048576f);
+  }
+}
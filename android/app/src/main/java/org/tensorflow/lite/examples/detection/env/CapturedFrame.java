@@ -0,0 +1,86 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One camera frame read back from a capture file written by {@link FrameRecorder}. The planes are
+ * read-only views into the mapped file; copy them out to keep them past the replay.
+ */
+public class CapturedFrame {
+  private final int index;
+  private final long captureNanos;
+  private final long receiveNanos;
+  private final int format;
+  private final int yRowStride;
+  private final int uvRowStride;
+  private final int uvPixelStride;
+  private final ByteBuffer[] planes;
+
+  CapturedFrame(
+      final int index,
+      final long captureNanos,
+      final long receiveNanos,
+      final int format,
+      final int yRowStride,
+      final int uvRowStride,
+      final int uvPixelStride,
+      final ByteBuffer[] planes) {
+    this.index = index;
+    this.captureNanos = captureNanos;
+    this.receiveNanos = receiveNanos;
+    this.format = format;
+    this.yRowStride = yRowStride;
+    this.uvRowStride = uvRowStride;
+    this.uvPixelStride = uvPixelStride;
+    this.planes = planes;
+  }
+
+  /** Position of the frame in the capture, from 0. */
+  public int getIndex() {
+    return index;
+  }
+
+  public long getCaptureNanos() {
+    return captureNanos;
+  }
+
+  public long getReceiveNanos() {
+    return receiveNanos;
+  }
+
+  /** {@link FrameRecorder#FORMAT_NV21} or {@link FrameRecorder#FORMAT_YUV_420_888}. */
+  public int getFormat() {
+    return format;
+  }
+
+  public int getYRowStride() {
+    return yRowStride;
+  }
+
+  public int getUvRowStride() {
+    return uvRowStride;
+  }
+
+  public int getUvPixelStride() {
+    return uvPixelStride;
+  }
+
+  public int getPlaneCount() {
+    return planes.length;
+  }
+
+  /** A fresh read-only view of plane {@code i}, positioned at its start. */
+  public ByteBuffer getPlane(final int i) {
+    return planes[i].duplicate();
+  }
+
+  /** Copies plane {@code i} into {@code out}, reallocating it if too small; returns the array. */
+  public byte[] copyPlane(final int i, byte[] out) {
+    final ByteBuffer plane = getPlane(i);
+    if (out == null || out.length < plane.remaining()) {
+      out = new byte[plane.remaining()];
+    }
+    plane.get(out, 0, plane.remaining());
+    return out;
+  }
+}
@@ -0,0 +1,290 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+/**
+ * Single admission gate between a frame source (camera, replay) and the detection pipeline.
+ *
+ * <p>The pipeline processes one frame at a time. Frames that arrive while it is busy are either
+ * queued, superseded by newer frames or dropped, depending on the active {@link Policy}. Frames
+ * that leave the controller without being processed are handed back to the {@link Releaser} so
+ * the source can recycle their buffers.
+ *
+ * <p>All methods are synchronized; the controller may be fed from the camera thread and drained
+ * from the inference thread.
+ *
+ * @param <T> the frame handle type.
+ */
+public class FrameAdmissionController<T> {
+  /** How frames arriving while the pipeline is busy are handled. */
+  public enum Policy {
+    /** Keep at most one pending frame; a newer frame supersedes it. */
+    LATEST_WINS,
+    /** Only every Nth arriving frame is considered; the rest are dropped. No pending frames. */
+    EVERY_NTH,
+    /** Like {@link #LATEST_WINS}, but a pending frame older than the budget is dropped. */
+    TIME_BUDGETED,
+    /** Keep up to N pending frames in arrival order; frames arriving when full are dropped. */
+    QUEUE_DEPTH
+  }
+
+  /** Monotonic time source, replaceable by a simulated clock. */
+  public interface Clock {
+    long nanoTime();
+  }
+
+  /** Returns frames that will not be processed to their source. */
+  public interface Releaser<T> {
+    void release(T frame);
+  }
+
+  public static final Clock SYSTEM_CLOCK =
+      new Clock() {
+        @Override
+        public long nanoTime() {
+          return System.nanoTime();
+        }
+      };
+
+  private final Clock clock;
+  private final Releaser<T> releaser;
+  private final ArrayDeque<T> pending = new ArrayDeque<T>();
+  private final ArrayDeque<Long> pendingSince = new ArrayDeque<Long>();
+
+  private Policy policy = Policy.LATEST_WINS;
+  private int parameter = 1;
+  private long budgetNanos;
+  private long minIntervalNanos;
+  private long lastStartNanos;
+  private boolean started;
+  private boolean busy;
+
+  private long arrivedFrames;
+  private long admittedFrames;
+  private long droppedFrames;
+  private long supersededFrames;
+  private long throttledFrames;
+  private long totalWaitNanos;
+  private long maxWaitNanos;
+
+  public FrameAdmissionController(final Releaser<T> releaser) {
+    this(releaser, SYSTEM_CLOCK);
+  }
+
+  public FrameAdmissionController(final Releaser<T> releaser, final Clock clock) {
+    this.releaser = releaser;
+    this.clock = clock;
+  }
+
+  /**
+   * Changes the admission policy. Pending frames in excess of the new queue capacity are released.
+   *
+   * @param policy The new policy.
+   * @param parameter N for {@link Policy#EVERY_NTH} and {@link Policy#QUEUE_DEPTH}, the budget in
+   *     milliseconds for {@link Policy#TIME_BUDGETED}; ignored for {@link Policy#LATEST_WINS}.
+   */
+  public synchronized void setPolicy(final Policy policy, final int parameter) {
+    if (parameter < 1 && policy != Policy.LATEST_WINS) {
+      throw new IllegalArgumentException("Policy parameter must be positive: " + parameter);
+    }
+    this.policy = policy;
+    this.parameter = Math.max(1, parameter);
+    this.budgetNanos = this.parameter * 1000000L;
+    while (pending.size() > capacity()) {
+      pendingSince.pollFirst();
+      supersededFrames++;
+      releaser.release(pending.pollFirst());
+    }
+  }
+
+  /**
+   * Caps the processing rate independently of the policy: a frame is only started if at least
+   * {@code minIntervalMs} passed since the previous start; others are released as throttled.
+   * Zero disables throttling.
+   */
+  public synchronized void setMinIntervalMs(final int minIntervalMs) {
+    minIntervalNanos = Math.max(0, minIntervalMs) * 1000000L;
+  }
+
+  public synchronized int getMinIntervalMs() {
+    return (int) (minIntervalNanos / 1000000L);
+  }
+
+  private boolean isThrottled(final long now) {
+    return started && minIntervalNanos > 0 && now - lastStartNanos < minIntervalNanos;
+  }
+
+  private void markStarted(final long now) {
+    started = true;
+    lastStartNanos = now;
+  }
+
+  public synchronized Policy getPolicy() {
+    return policy;
+  }
+
+  public synchronized int getParameter() {
+    return parameter;
+  }
+
+  private int capacity() {
+    switch (policy) {
+      case EVERY_NTH:
+        return 0;
+      case QUEUE_DEPTH:
+        return parameter;
+      default:
+        return 1;
+    }
+  }
+
+  /**
+   * Offers a newly arrived frame.
+   *
+   * @return true if the pipeline was idle and the caller must start processing the frame now;
+   *     false if the frame was queued or released.
+   */
+  public synchronized boolean offer(final T frame) {
+    final long arrivalIndex = arrivedFrames++;
+    if (policy == Policy.EVERY_NTH && arrivalIndex % parameter != 0) {
+      droppedFrames++;
+      releaser.release(frame);
+      return false;
+    }
+    if (!busy) {
+      final long now = clock.nanoTime();
+      if (isThrottled(now)) {
+        throttledFrames++;
+        releaser.release(frame);
+        return false;
+      }
+      markStarted(now);
+      busy = true;
+      admittedFrames++;
+      return true;
+    }
+    final int capacity = capacity();
+    if (pending.size() < capacity) {
+      pending.addLast(frame);
+      pendingSince.addLast(clock.nanoTime());
+      return false;
+    }
+    if (policy == Policy.QUEUE_DEPTH || capacity == 0) {
+      droppedFrames++;
+      releaser.release(frame);
+      return false;
+    }
+    supersededFrames++;
+    pendingSince.pollFirst();
+    releaser.release(pending.pollFirst());
+    pending.addLast(frame);
+    pendingSince.addLast(clock.nanoTime());
+    return false;
+  }
+
+  /**
+   * Marks the frame currently in the pipeline as done.
+   *
+   * @return the next pending frame, which the caller must start processing now, or null if the
+   *     pipeline is idle.
+   */
+  public synchronized T finish() {
+    final long now = clock.nanoTime();
+    while (!pending.isEmpty()) {
+      final T frame = pending.pollFirst();
+      final long waitNanos = now - pendingSince.pollFirst();
+      if (isThrottled(now)) {
+        throttledFrames++;
+        releaser.release(frame);
+        continue;
+      }
+      if (policy == Policy.TIME_BUDGETED && waitNanos > budgetNanos) {
+        droppedFrames++;
+        releaser.release(frame);
+        continue;
+      }
+      markStarted(now);
+      admittedFrames++;
+      totalWaitNanos += waitNanos;
+      maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+      busy = true;
+      return frame;
+    }
+    busy = false;
+    return null;
+  }
+
+  /** Releases all pending frames and marks the pipeline idle, e.g. when the source stops. */
+  public synchronized void clear() {
+    while (!pending.isEmpty()) {
+      pendingSince.pollFirst();
+      droppedFrames++;
+      releaser.release(pending.pollFirst());
+    }
+    busy = false;
+  }
+
+  public synchronized boolean isBusy() {
+    return busy;
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  public synchronized long getArrivedFrames() {
+    return arrivedFrames;
+  }
+
+  public synchronized long getAdmittedFrames() {
+    return admittedFrames;
+  }
+
+  public synchronized long getDroppedFrames() {
+    return droppedFrames;
+  }
+
+  public synchronized long getSupersededFrames() {
+    return supersededFrames;
+  }
+
+  /** Frames released by {@link #setMinIntervalMs}; not counted as dropped. */
+  public synchronized long getThrottledFrames() {
+    return throttledFrames;
+  }
+
+  /** Mean time admitted frames spent pending, in nanoseconds. Immediate starts count as zero. */
+  public synchronized long getMeanWaitNanos() {
+    return admittedFrames == 0 ? 0 : totalWaitNanos / admittedFrames;
+  }
+
+  public synchronized long getMaxWaitNanos() {
+    return maxWaitNanos;
+  }
+
+  public synchronized void resetStats() {
+    arrivedFrames = 0;
+    admittedFrames = 0;
+    droppedFrames = 0;
+    supersededFrames = 0;
+    throttledFrames = 0;
+    totalWaitNanos = 0;
+    maxWaitNanos = 0;
+  }
+
+  public synchronized String getStatString() {
+    return String.format(
+        Locale.US,
+        "%s(%d) arrived=%d admitted=%d dropped=%d superseded=%d throttled=%d wait=%.1f/%.1fms",
+        policy,
+        parameter,
+        arrivedFrames,
+        admittedFrames,
+        droppedFrames,
+        supersededFrames,
+        throttledFrames,
+        getMeanWaitNanos() / 1e6f,
+        maxWaitNanos / 1e6f);
+  }
+}
@@ -0,0 +1,198 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Closed-loop controller that runs the camera only as fast as the pipeline can use its frames.
+ *
+ * <p>Left at its default range the sensor delivers frames at full rate and the pipeline drops most
+ * of them, which still costs ISP bandwidth, conversion and battery. This controller measures the
+ * sustained throughput of the pipeline from the time each processed frame takes, adds headroom so
+ * the pipeline never waits on the camera, and picks the supported frame-rate range whose maximum
+ * is the smallest one above that. A new range must be wanted for the hold time before it is
+ * applied, and stepping down needs extra margin, so the camera is not reconfigured back and forth
+ * around a boundary. Samples taken right after a change are ignored while the camera settles.
+ *
+ * <p>Call {@link #reset} when the model or accelerator changes; the current range stays until the
+ * new throughput has been measured. Pure Java and driven by an injectable clock, like {@link
+ * LatencyGovernor}. Thread-safe.
+ */
+public class FrameRateController {
+  /** The camera whose frame rate is controlled. */
+  public interface Camera {
+    /** Supported ranges as {min, max} frames per second; empty until the camera is open. */
+    int[][] getSupportedFpsRanges();
+
+    /** Applies one of the supported ranges, now if the camera is open and otherwise on open. */
+    void setFpsRange(int minFps, int maxFps);
+  }
+
+  private static final int WINDOW = 30;
+  private static final int MIN_SAMPLES = 10;
+
+  private final FrameAdmissionController.Clock clock;
+  private Camera camera;
+
+  private float headroom = 1.25f;
+  private float stepDownMargin = 1.15f;
+  private long holdNanos = 3000 * 1000000L;
+  private long settleNanos = 1000 * 1000000L;
+  private float maxUsefulFps = Float.MAX_VALUE;
+
+  private final long[] samples = new long[WINDOW];
+  private int sampleCount;
+  private int nextSample;
+
+  private int[] current;
+  private int[] proposed;
+  private long proposedAt;
+  private long changedAt;
+  private float throughputFps;
+  private int changes;
+
+  public FrameRateController(final FrameAdmissionController.Clock clock) {
+    this.clock = clock;
+    changedAt = clock.nanoTime();
+  }
+
+  /** Sets the camera to control, e.g. after the camera fragment is replaced. */
+  public synchronized void setCamera(final Camera camera) {
+    this.camera = camera;
+    current = null;
+    reset();
+  }
+
+  /**
+   * @param headroom Camera rate as a multiple of the measured throughput.
+   * @param stepDownMargin Extra multiple of the target a lower range must still cover.
+   */
+  public synchronized void setHeadroom(final float headroom, final float stepDownMargin) {
+    this.headroom = headroom;
+    this.stepDownMargin = stepDownMargin;
+  }
+
+  /** A range is applied once it has been wanted for {@code holdMs}; see the class comment. */
+  public synchronized void setTiming(final long holdMs, final long settleMs) {
+    this.holdNanos = holdMs * 1000000L;
+    this.settleNanos = settleMs * 1000000L;
+  }
+
+  /**
+   * Caps the rate the pipeline can take, e.g. when frames are admitted at most once per interval;
+   * 0 removes the cap.
+   */
+  public synchronized void setMinFrameIntervalMs(final int minIntervalMs) {
+    maxUsefulFps = minIntervalMs > 0 ? 1000f / minIntervalMs : Float.MAX_VALUE;
+  }
+
+  /** Forgets the throughput measured so far, e.g. because the model or accelerator changed. */
+  public synchronized void reset() {
+    sampleCount = 0;
+    nextSample = 0;
+    proposed = null;
+    changedAt = clock.nanoTime();
+  }
+
+  /** Records how long the pipeline took for one frame, from admission to done. */
+  public void onFrameProcessed(final long processingNanos) {
+    final Camera target;
+    final int[] range;
+    synchronized (this) {
+      range = update(processingNanos);
+      target = camera;
+    }
+    // Outside the lock: the camera may block while it reconfigures.
+    if (range != null && target != null) {
+      target.setFpsRange(range[0], range[1]);
+    }
+  }
+
+  // Returns the range to apply now, or null.
+  private int[] update(final long processingNanos) {
+    final long now = clock.nanoTime();
+    if (camera == null || now - changedAt < settleNanos || processingNanos <= 0) {
+      return null;
+    }
+    samples[nextSample] = processingNanos;
+    nextSample = (nextSample + 1) % WINDOW;
+    sampleCount = Math.min(sampleCount + 1, WINDOW);
+    if (sampleCount < MIN_SAMPLES) {
+      return null;
+    }
+
+    long total = 0;
+    for (int i = 0; i < sampleCount; ++i) {
+      total += samples[i];
+    }
+    throughputFps = Math.min(maxUsefulFps, 1e9f * sampleCount / total);
+    final float targetFps = throughputFps * headroom;
+    final int[][] ranges = camera.getSupportedFpsRanges();
+    int[] wanted = chooseRange(ranges, targetFps);
+    if (wanted != null && current != null && wanted[1] < current[1]) {
+      // Only step down if the lower range still covers the target with margin.
+      final int[] lower = chooseRange(ranges, targetFps * stepDownMargin);
+      wanted = lower != null && lower[1] < current[1] ? lower : current;
+    }
+    if (wanted == null || Arrays.equals(wanted, current)) {
+      proposed = null;
+      return null;
+    }
+    if (!Arrays.equals(wanted, proposed)) {
+      proposed = wanted;
+      proposedAt = now;
+      return null;
+    }
+    if (now - proposedAt < holdNanos) {
+      return null;
+    }
+    current = wanted;
+    proposed = null;
+    changedAt = now;
+    changes++;
+    return wanted;
+  }
+
+  /**
+   * The range with the smallest maximum at or above {@code targetFps}, preferring the lowest
+   * minimum so exposure can still stretch in low light; the fastest range if none is that fast.
+   * Null if there are no ranges.
+   */
+  static int[] chooseRange(final int[][] ranges, final float targetFps) {
+    int[] best = null;
+    int[] fastest = null;
+    for (final int[] range : ranges) {
+      if (fastest == null
+          || range[1] > fastest[1]
+          || (range[1] == fastest[1] && range[0] < fastest[0])) {
+        fastest = range;
+      }
+      if (range[1] >= targetFps
+          && (best == null
+              || range[1] < best[1]
+              || (range[1] == best[1] && range[0] < best[0]))) {
+        best = range;
+      }
+    }
+    return best != null ? best : fastest;
+  }
+
+  /** Mean throughput over the last frames, capped by the admission interval; 0 before that. */
+  public synchronized float getThroughputFps() {
+    return throughputFps;
+  }
+
+  /** The applied {min, max} range, or null while the camera runs at its default. */
+  public synchronized int[] getCurrentRange() {
+    return current != null ? current.clone() : null;
+  }
+
+  public synchronized String getStatString() {
+    return String.format(
+        Locale.US,
+        "frame rate throughput=%.1ffps range=%s changes=%d",
+        throughputFps,
+        current != null ? current[0] + "-" + current[1] : "default",
+        changes);
+  }
+}
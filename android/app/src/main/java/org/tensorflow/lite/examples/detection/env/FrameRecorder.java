@@ -0,0 +1,281 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Appends raw YUV camera frames with their timestamps to a memory-mapped capture file, for
+ * replaying field sessions off the device with {@link FrameReplaySource}.
+ *
+ * <p>{@link #record} only queues the caller's planes and returns; a background thread copies them
+ * straight into the file through a sliding memory mapping and then runs the frame's release
+ * action, so the camera thread never copies a frame. A recorded buffer therefore goes back to the
+ * camera only once it is written. When every slot of the small queue is still waiting to be
+ * written the frame is dropped, counted and released at once rather than blocking the camera
+ * thread.
+ *
+ * <p>File layout, all little-endian. Header: magic {@link #MAGIC}, version, width, height,
+ * rotation, metadata length, then the metadata as UTF-8. Each frame: {@link #FRAME_MAGIC}, the
+ * number of bytes that follow, capture and receive timestamps (longs), format, Y row stride, UV
+ * row stride, UV pixel stride, plane count, then per plane its length and bytes. The file is
+ * append-only; a reader stops at the first incomplete frame, so a capture cut short by a crash
+ * stays readable.
+ */
+public class FrameRecorder implements Closeable {
+  public static final int MAGIC = 0x43565559; // "YUVC"
+  public static final int VERSION = 1;
+  public static final int FRAME_MAGIC = 0x454d5246; // "FRME"
+  public static final int HEADER_INTS = 6;
+  public static final int FRAME_HEADER_BYTES = 4 + 4 + 8 + 8 + 4 * 5;
+
+  /** Camera1 preview callback data: a Y plane followed by interleaved VU. One plane. */
+  public static final int FORMAT_NV21 = 1;
+  /** Camera2 YUV_420_888: separate Y, U and V planes with the recorded strides. */
+  public static final int FORMAT_YUV_420_888 = 2;
+
+  private static final long MAP_CHUNK_BYTES = 32L << 20;
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+  private static final Entry END = new Entry();
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final BlockingQueue<Entry> free;
+  private final BlockingQueue<Entry> pending;
+  private final Thread writer;
+
+  // Writer thread only.
+  private MappedByteBuffer mapping;
+  private long mappingStart;
+
+  private volatile long writtenBytes;
+  private volatile long recordedFrames;
+  private volatile long droppedFrames;
+  private volatile IOException failure;
+  private volatile boolean closed;
+
+  /**
+   * Creates or truncates {@code path} and writes the header.
+   *
+   * @param rotation Degrees the frames must be rotated to be upright, as for the live pipeline.
+   * @param metadata Free-form description stored in the header, e.g. device and model.
+   * @param queueDepth Frames that may wait for the writer before new ones are dropped. Each holds
+   *     its camera buffer until written, so keep it below the number of buffers the camera has.
+   */
+  public FrameRecorder(
+      final File path,
+      final int width,
+      final int height,
+      final int rotation,
+      final String metadata,
+      final int queueDepth)
+      throws IOException {
+    file = new RandomAccessFile(path, "rw");
+    file.setLength(0);
+    channel = file.getChannel();
+    final byte[] meta = metadata.getBytes(UTF8);
+    final ByteBuffer header =
+        ByteBuffer.allocate(4 * HEADER_INTS + meta.length).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(rotation);
+    header.putInt(meta.length).put(meta);
+    header.flip();
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    writtenBytes = channel.position();
+
+    final int slots = Math.max(1, queueDepth);
+    free = new ArrayBlockingQueue<Entry>(slots);
+    pending = new ArrayBlockingQueue<Entry>(slots + 1);
+    for (int i = 0; i < slots; ++i) {
+      free.add(new Entry());
+    }
+    writer =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                writeLoop();
+              }
+            },
+            "frame-recorder");
+    writer.start();
+  }
+
+  /**
+   * Queues one frame. The planes are written from their position at the time of the call to their
+   * limit, without moving them, and must stay valid until {@code release} runs.
+   *
+   * @param release Runs exactly once: on the writer thread after the planes are written, or before
+   *     this returns if the frame is dropped.
+   * @return False if the frame was dropped because the writer is behind, or after an error.
+   */
+  public boolean record(
+      final long captureNanos,
+      final long receiveNanos,
+      final int format,
+      final int yRowStride,
+      final int uvRowStride,
+      final int uvPixelStride,
+      final Runnable release,
+      final ByteBuffer... planes) {
+    Entry entry = null;
+    synchronized (this) {
+      if (!closed && failure == null) {
+        entry = free.poll();
+        if (entry == null) {
+          droppedFrames++;
+        }
+      }
+      if (entry != null) {
+        entry.captureNanos = captureNanos;
+        entry.receiveNanos = receiveNanos;
+        entry.format = format;
+        entry.yRowStride = yRowStride;
+        entry.uvRowStride = uvRowStride;
+        entry.uvPixelStride = uvPixelStride;
+        entry.release = release;
+        // Views taken now, so the pipeline reading the same buffers cannot move what is written.
+        entry.planes = new ByteBuffer[planes.length];
+        for (int i = 0; i < planes.length; ++i) {
+          entry.planes[i] = planes[i].duplicate();
+        }
+        pending.add(entry);
+        recordedFrames++;
+      }
+    }
+    if (entry == null) {
+      release.run();
+      return false;
+    }
+    return true;
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        final Entry entry = pending.take();
+        if (entry == END) {
+          return;
+        }
+        if (failure == null) {
+          try {
+            append(entry);
+          } catch (final IOException e) {
+            failure = e;
+          }
+        }
+        final Runnable release = entry.release;
+        entry.release = null;
+        entry.planes = null;
+        free.add(entry);
+        release.run();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void append(final Entry entry) throws IOException {
+    int size = FRAME_HEADER_BYTES;
+    for (final ByteBuffer plane : entry.planes) {
+      size += 4 + plane.remaining();
+    }
+    final long position = writtenBytes;
+    if (mapping == null || position + size > mappingStart + mapping.capacity()) {
+      mappingStart = position;
+      mapping =
+          channel.map(
+              FileChannel.MapMode.READ_WRITE, position, Math.max(MAP_CHUNK_BYTES, size));
+      mapping.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    mapping.position((int) (position - mappingStart));
+    mapping.putInt(FRAME_MAGIC).putInt(size - 8);
+    mapping.putLong(entry.captureNanos).putLong(entry.receiveNanos);
+    mapping.putInt(entry.format).putInt(entry.yRowStride);
+    mapping.putInt(entry.uvRowStride).putInt(entry.uvPixelStride);
+    mapping.putInt(entry.planes.length);
+    for (final ByteBuffer plane : entry.planes) {
+      mapping.putInt(plane.remaining());
+      mapping.put(plane);
+    }
+    writtenBytes = position + size;
+  }
+
+  public long getRecordedFrames() {
+    return recordedFrames;
+  }
+
+  public long getDroppedFrames() {
+    return droppedFrames;
+  }
+
+  /** Bytes appended so far, header included. */
+  public long getWrittenBytes() {
+    return writtenBytes;
+  }
+
+  public String getStatString() {
+    return String.format(
+        Locale.US,
+        "recorder frames=%d dropped=%d written=%.1fMB%s",
+        recordedFrames,
+        droppedFrames,
+        writtenBytes / 1048576f,
+        failure != null ? " failed: " + failure.getMessage() : "");
+  }
+
+  /**
+   * Writes out the queued frames, cuts the mapping's unused tail off the file and closes it.
+   *
+   * @throws IOException if writing failed at any point.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // After every queued frame; record() queues nothing once closed is set.
+      pending.add(END);
+    }
+    try {
+      writer.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      if (mapping != null) {
+        mapping.force();
+      }
+      channel.truncate(writtenBytes);
+    } finally {
+      file.close();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  // A queued frame: its header fields and views of the caller's planes.
+  private static final class Entry {
+    long captureNanos;
+    long receiveNanos;
+    int format;
+    int yRowStride;
+    int uvRowStride;
+    int uvPixelStride;
+    ByteBuffer[] planes;
+    Runnable release;
+  }
+}
@@ -0,0 +1,198 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Plays back a capture file written by {@link FrameRecorder}, frame by frame, either with the
+ * recorded spacing between frames or as fast as the sink takes them.
+ *
+ * <p>Uses nothing from Android, so a benchmark can feed a field capture through the YUV conversion
+ * in {@link ImageUtils} and a detector on a desktop JVM, with the same frames and timestamps on
+ * every run.
+ */
+public class FrameReplaySource implements Closeable {
+  /** How fast frames are handed to the sink. */
+  public enum Pacing {
+    /** Keeps the gaps between the frames' receive timestamps, as the camera delivered them. */
+    RECORDED,
+    /** Hands over the next frame as soon as the sink returns. */
+    MAX_SPEED
+  }
+
+  /** Receives replayed frames on the thread that called {@link #replay}. */
+  public interface Sink {
+    /** The frame's planes are only valid until the source is closed. */
+    void onFrame(CapturedFrame frame);
+  }
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final RandomAccessFile file;
+  private final MappedByteBuffer data;
+  private final int width;
+  private final int height;
+  private final int rotation;
+  private final String metadata;
+  private final int firstFrame;
+
+  private volatile boolean stopped;
+
+  /** Maps {@code path} and reads its header. Captures of 2 GB and more are not supported. */
+  public FrameReplaySource(final File path) throws IOException {
+    file = new RandomAccessFile(path, "r");
+    try {
+      final FileChannel channel = file.getChannel();
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Capture too large to map: " + channel.size() + " bytes");
+      }
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      data.order(ByteOrder.LITTLE_ENDIAN);
+      if (data.remaining() < 4 * FrameRecorder.HEADER_INTS
+          || data.getInt() != FrameRecorder.MAGIC) {
+        throw new IOException("Not a frame capture: " + path);
+      }
+      final int version = data.getInt();
+      if (version != FrameRecorder.VERSION) {
+        throw new IOException("Unsupported capture version " + version + ": " + path);
+      }
+      width = data.getInt();
+      height = data.getInt();
+      rotation = data.getInt();
+      final int metadataLength = data.getInt();
+      if (metadataLength < 0 || metadataLength > data.remaining()) {
+        throw new IOException("Corrupt capture header: " + path);
+      }
+      final byte[] meta = new byte[metadataLength];
+      data.get(meta);
+      metadata = new String(meta, UTF8);
+      firstFrame = data.position();
+    } catch (final IOException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /** Degrees the frames must be rotated to be upright. */
+  public int getRotation() {
+    return rotation;
+  }
+
+  public String getMetadata() {
+    return metadata;
+  }
+
+  /** Makes a running {@link #replay} return after the current frame. */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Hands every complete frame of the capture to {@code sink}, in order. Stops at the end of the
+   * file, at the first incomplete or corrupt frame, or after {@link #stop}.
+   *
+   * @return The number of frames replayed.
+   */
+  public int replay(final Pacing pacing, final Sink sink) throws InterruptedException {
+    stopped = false;
+    final ByteBuffer in = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    in.position(firstFrame);
+
+    int count = 0;
+    long firstReceive = 0;
+    long startNanos = 0;
+    while (!stopped && in.remaining() >= FrameRecorder.FRAME_HEADER_BYTES) {
+      final int recordStart = in.position();
+      if (in.getInt() != FrameRecorder.FRAME_MAGIC) {
+        break;
+      }
+      final int length = in.getInt();
+      if (length < FrameRecorder.FRAME_HEADER_BYTES - 8 || length > in.remaining()) {
+        break;
+      }
+      final int recordEnd = in.position() + length;
+      final long captureNanos = in.getLong();
+      final long receiveNanos = in.getLong();
+      final int format = in.getInt();
+      final int yRowStride = in.getInt();
+      final int uvRowStride = in.getInt();
+      final int uvPixelStride = in.getInt();
+      final int planeCount = in.getInt();
+      final ByteBuffer[] planes = readPlanes(in, planeCount, recordEnd);
+      if (planes == null) {
+        in.position(recordStart);
+        break;
+      }
+      in.position(recordEnd);
+
+      if (pacing == Pacing.RECORDED) {
+        if (count == 0) {
+          firstReceive = receiveNanos;
+          startNanos = System.nanoTime();
+        } else {
+          final long due = startNanos + (receiveNanos - firstReceive);
+          final long waitNanos = due - System.nanoTime();
+          if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1000000L, (int) (waitNanos % 1000000L));
+          }
+        }
+      }
+      sink.onFrame(
+          new CapturedFrame(
+              count,
+              captureNanos,
+              receiveNanos,
+              format,
+              yRowStride,
+              uvRowStride,
+              uvPixelStride,
+              planes));
+      ++count;
+    }
+    return count;
+  }
+
+  // Slices the planes out of the record, or returns null if they overrun it.
+  private static ByteBuffer[] readPlanes(
+      final ByteBuffer in, final int planeCount, final int recordEnd) {
+    if (planeCount < 0 || planeCount > 3) {
+      return null;
+    }
+    final ByteBuffer[] planes = new ByteBuffer[planeCount];
+    for (int p = 0; p < planeCount; ++p) {
+      if (recordEnd - in.position() < 4) {
+        return null;
+      }
+      final int planeLength = in.getInt();
+      if (planeLength < 0 || planeLength > recordEnd - in.position()) {
+        return null;
+      }
+      final ByteBuffer plane = in.slice();
+      plane.limit(planeLength);
+      planes[p] = plane.asReadOnlyBuffer();
+      in.position(in.position() + planeLength);
+    }
+    return planes;
+  }
+
+  @Override
+  public void close() throws IOException {
+    stopped = true;
+    file.close();
+  }
+}
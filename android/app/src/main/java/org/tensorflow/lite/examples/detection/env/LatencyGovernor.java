@@ -0,0 +1,297 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Closed-loop controller that keeps detection within a latency budget as the device heats up or
+ * cools down.
+ *
+ * <p>It watches the rolling p90 inference latency and the frame-drop rate and walks a ladder of
+ * {@link Level}s, ordered from most to least expensive. A level is left for a cheaper one once the
+ * budget has been exceeded continuously for the down-hold time, and for a more expensive one once
+ * latency has stayed well below the budget for the (longer) up-hold time. Samples taken right after
+ * a change are ignored while the new configuration settles.
+ *
+ * <p>Independently of the ladder, it enters a low-power duty cycle when nothing has been detected
+ * for a while, and leaves it on the next detection.
+ *
+ * <p>Pure Java and driven by an injectable clock, so it can be replayed against a recorded or
+ * simulated latency trace. Not thread-safe; feed it from the inference thread.
+ */
+public class LatencyGovernor {
+  /** One rung of the ladder. */
+  public static class Level {
+    private final String modelFilename;
+    private final int inputSize;
+    private final int minFrameIntervalMs;
+
+    /**
+     * @param modelFilename Model asset to run.
+     * @param inputSize Detector input resolution.
+     * @param minFrameIntervalMs Minimum time between processed frames, 0 for no limit.
+     */
+    public Level(final String modelFilename, final int inputSize, final int minFrameIntervalMs) {
+      this.modelFilename = modelFilename;
+      this.inputSize = inputSize;
+      this.minFrameIntervalMs = minFrameIntervalMs;
+    }
+
+    public String getModelFilename() {
+      return modelFilename;
+    }
+
+    public int getInputSize() {
+      return inputSize;
+    }
+
+    public int getMinFrameIntervalMs() {
+      return minFrameIntervalMs;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.US, "%s@%d/%dms", modelFilename, inputSize, minFrameIntervalMs);
+    }
+  }
+
+  /** Receives decisions; called synchronously from {@link #onInference}. */
+  public interface Listener {
+    void onLevelChanged(Level level);
+
+    void onLowPowerChanged(boolean lowPower);
+  }
+
+  private static final int WINDOW = 32;
+  private static final int MIN_SAMPLES = 8;
+  // Arriving frames per drop-rate measurement, about three seconds of camera frames.
+  private static final int DROP_WINDOW = 90;
+
+  private final List<Level> ladder;
+  private final Listener listener;
+  private final FrameAdmissionController.Clock clock;
+  private final long targetNanos;
+
+  private float stepUpFraction = 0.6f;
+  private float maxDropRate = 0.9f;
+  private long downHoldNanos = 2000 * 1000000L;
+  private long upHoldNanos = 15000 * 1000000L;
+  private long settleNanos = 1500 * 1000000L;
+  private long idleTimeoutNanos = 20000 * 1000000L;
+  private int lowPowerFrameIntervalMs = 1000;
+
+  private final long[] samples = new long[WINDOW];
+  private final long[] scratch = new long[WINDOW];
+  private int sampleCount;
+  private int nextSample;
+
+  private int level;
+  private boolean lowPower;
+  private long changedAt;
+  private long overSince = -1;
+  private long underSince = -1;
+  private long lastDetectionAt;
+  private long arrivedBase = -1;
+  private long droppedBase;
+  private float dropRate;
+
+  public LatencyGovernor(
+      final List<Level> ladder,
+      final int startLevel,
+      final long targetP90Ms,
+      final Listener listener,
+      final FrameAdmissionController.Clock clock) {
+    if (ladder.isEmpty()) {
+      throw new IllegalArgumentException("Empty ladder");
+    }
+    this.ladder = new ArrayList<Level>(ladder);
+    this.level = Math.max(0, Math.min(ladder.size() - 1, startLevel));
+    this.targetNanos = targetP90Ms * 1000000L;
+    this.listener = listener;
+    this.clock = clock;
+    final long now = clock.nanoTime();
+    changedAt = now;
+    lastDetectionAt = now;
+  }
+
+  /**
+   * Sets the hysteresis: step up only when p90 is below {@code stepUpFraction} of the budget for
+   * {@code upHoldMs}; step down when over budget for {@code downHoldMs}. Samples in the first
+   * {@code settleMs} after a change are ignored.
+   */
+  public void setHysteresis(
+      final float stepUpFraction, final long downHoldMs, final long upHoldMs, final long settleMs) {
+    this.stepUpFraction = stepUpFraction;
+    this.downHoldNanos = downHoldMs * 1000000L;
+    this.upHoldNanos = upHoldMs * 1000000L;
+    this.settleNanos = settleMs * 1000000L;
+  }
+
+  /** Fraction of arriving frames that may be dropped before the budget counts as exceeded. */
+  public void setMaxDropRate(final float maxDropRate) {
+    this.maxDropRate = maxDropRate;
+  }
+
+  /**
+   * Enters a duty cycle of one frame per {@code frameIntervalMs} after {@code idleMs} without
+   * detections.
+   */
+  public void setLowPower(final long idleMs, final int frameIntervalMs) {
+    this.idleTimeoutNanos = idleMs * 1000000L;
+    this.lowPowerFrameIntervalMs = frameIntervalMs;
+  }
+
+  public Level getLevel() {
+    return ladder.get(level);
+  }
+
+  public int getLevelIndex() {
+    return level;
+  }
+
+  /**
+   * Index of the rung running {@code modelFilename} at {@code inputSize}, else its first rung at
+   * any size, or -1 if the model is not on the ladder.
+   */
+  public int findLevel(final String modelFilename, final int inputSize) {
+    int found = -1;
+    for (int i = 0; i < ladder.size(); ++i) {
+      final Level candidate = ladder.get(i);
+      if (candidate.getModelFilename().equals(modelFilename)) {
+        if (candidate.getInputSize() == inputSize) {
+          return i;
+        }
+        if (found < 0) {
+          found = i;
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Re-bases the governor on a level chosen elsewhere, e.g. a model the user picked by hand,
+   * without notifying the listener. Measurements start over after the settle time, as after a
+   * change of its own.
+   */
+  public void setLevel(final int newLevel) {
+    if (newLevel < 0 || newLevel >= ladder.size()) {
+      throw new IllegalArgumentException("No level " + newLevel);
+    }
+    rebase(newLevel, clock.nanoTime());
+  }
+
+  public boolean isLowPower() {
+    return lowPower;
+  }
+
+  /** The frame interval to apply now: the level's, or the duty cycle's while in low power. */
+  public int getFrameIntervalMs() {
+    return lowPower
+        ? Math.max(lowPowerFrameIntervalMs, getLevel().getMinFrameIntervalMs())
+        : getLevel().getMinFrameIntervalMs();
+  }
+
+  /**
+   * Reports cumulative frame counters from the frame source, e.g. the admission controller's
+   * arrived and dropped plus superseded counts. Throttled frames must not be counted as dropped.
+   */
+  public void onFrameCounts(final long arrived, final long dropped) {
+    if (arrivedBase < 0 || arrived < arrivedBase) {
+      arrivedBase = arrived;
+      droppedBase = dropped;
+      return;
+    }
+    final long arrivedDelta = arrived - arrivedBase;
+    if (arrivedDelta >= DROP_WINDOW) {
+      dropRate = (float) (dropped - droppedBase) / arrivedDelta;
+      arrivedBase = arrived;
+      droppedBase = dropped;
+    }
+  }
+
+  /** Reports one finished inference and whether it found anything, then re-evaluates. */
+  public void onInference(final long latencyNanos, final boolean detected) {
+    final long now = clock.nanoTime();
+    if (detected) {
+      lastDetectionAt = now;
+      if (lowPower) {
+        lowPower = false;
+        listener.onLowPowerChanged(false);
+      }
+    } else if (!lowPower && now - lastDetectionAt > idleTimeoutNanos) {
+      lowPower = true;
+      listener.onLowPowerChanged(true);
+    }
+
+    if (now - changedAt < settleNanos) {
+      return;
+    }
+    samples[nextSample] = latencyNanos;
+    nextSample = (nextSample + 1) % WINDOW;
+    if (sampleCount < WINDOW) {
+      sampleCount++;
+    }
+    if (sampleCount < MIN_SAMPLES || lowPower) {
+      // The duty cycle skews the drop rate, and there is nothing to keep fast while idle.
+      overSince = -1;
+      underSince = -1;
+      return;
+    }
+
+    final long p90 = getP90Nanos();
+    final boolean over = p90 > targetNanos || dropRate > maxDropRate;
+    final boolean under = p90 < targetNanos * stepUpFraction && dropRate <= maxDropRate / 2;
+    overSince = over ? (overSince < 0 ? now : overSince) : -1;
+    underSince = under ? (underSince < 0 ? now : underSince) : -1;
+
+    if (over && now - overSince >= downHoldNanos && level < ladder.size() - 1) {
+      changeLevel(level + 1, now);
+    } else if (under && now - underSince >= upHoldNanos && level > 0) {
+      changeLevel(level - 1, now);
+    }
+  }
+
+  private void changeLevel(final int newLevel, final long now) {
+    rebase(newLevel, now);
+    listener.onLevelChanged(ladder.get(level));
+  }
+
+  private void rebase(final int newLevel, final long now) {
+    level = newLevel;
+    changedAt = now;
+    sampleCount = 0;
+    nextSample = 0;
+    overSince = -1;
+    underSince = -1;
+    arrivedBase = -1;
+    dropRate = 0;
+  }
+
+  /** p90 of the current window in nanoseconds, or 0 without samples. */
+  public long getP90Nanos() {
+    if (sampleCount == 0) {
+      return 0;
+    }
+    System.arraycopy(samples, 0, scratch, 0, sampleCount);
+    Arrays.sort(scratch, 0, sampleCount);
+    return scratch[Math.min(sampleCount - 1, (sampleCount * 90) / 100)];
+  }
+
+  public float getDropRate() {
+    return dropRate;
+  }
+
+  public String getStatString() {
+    return String.format(
+        Locale.US,
+        "governor %s p90=%.1fms drop=%.2f%s",
+        getLevel(),
+        getP90Nanos() / 1e6f,
+        dropRate,
+        lowPower ? " low-power" : "");
+  }
+}
@@ -0,0 +1,162 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Vector;
+
+/**
+ * Collects per-frame pipeline timestamps and keeps rolling latency distributions per stage and
+ * end to end (sensor capture to overlay draw, and sensor capture to the TTS call).
+ *
+ * <p>All timestamps must come from the same monotonic clock; on Android that is {@code
+ * SystemClock.elapsedRealtimeNanos()}, which Camera2 also uses for realtime sensor timestamps.
+ */
+public class LatencyTracker {
+  /** Pipeline stages in the order a frame passes through them. */
+  public enum Stage {
+    CAPTURE,
+    RECEIVE,
+    CONVERTED,
+    INFERENCE_START,
+    INFERENCE_END,
+    SPEAK,
+    TRACKED,
+    DRAWN
+  }
+
+  private static final Stage[] STAGES = Stage.values();
+  private static final int WINDOW = 256;
+
+  /** Timestamps of one frame. Stages that were skipped stay at zero. */
+  public static class FrameTiming {
+    private final long[] stamps = new long[STAGES.length];
+    private long frameId;
+
+    public void setFrameId(final long frameId) {
+      this.frameId = frameId;
+    }
+
+    public long getFrameId() {
+      return frameId;
+    }
+
+    public void mark(final Stage stage, final long nanos) {
+      stamps[stage.ordinal()] = nanos;
+    }
+
+    public long get(final Stage stage) {
+      return stamps[stage.ordinal()];
+    }
+
+    public void reset() {
+      Arrays.fill(stamps, 0);
+    }
+  }
+
+  /** Fixed-size ring of the most recent samples. */
+  private static class Series {
+    final long[] values = new long[WINDOW];
+    int count;
+    int next;
+
+    void add(final long value) {
+      values[next] = value;
+      next = (next + 1) % WINDOW;
+      if (count < WINDOW) {
+        count++;
+      }
+    }
+  }
+
+  // Stage samples are the time since the previous stamped stage.
+  private final Series[] stageSeries = new Series[STAGES.length];
+  private final Series overlaySeries = new Series();
+  private final Series speakSeries = new Series();
+  private final long[] scratch = new long[WINDOW];
+
+  public LatencyTracker() {
+    for (int i = 0; i < stageSeries.length; ++i) {
+      stageSeries[i] = new Series();
+    }
+  }
+
+  /** Adds a completed frame. The frame must have at least its CAPTURE stamp. */
+  public synchronized void record(final FrameTiming timing) {
+    final long capture = timing.stamps[Stage.CAPTURE.ordinal()];
+    if (capture == 0) {
+      return;
+    }
+    long previous = capture;
+    for (int i = Stage.CAPTURE.ordinal() + 1; i < STAGES.length; ++i) {
+      final long stamp = timing.stamps[i];
+      if (stamp == 0) {
+        continue;
+      }
+      stageSeries[i].add(stamp - previous);
+      previous = stamp;
+    }
+    final long drawn = timing.stamps[Stage.DRAWN.ordinal()];
+    if (drawn != 0) {
+      overlaySeries.add(drawn - capture);
+    }
+    final long speak = timing.stamps[Stage.SPEAK.ordinal()];
+    if (speak != 0) {
+      speakSeries.add(speak - capture);
+    }
+  }
+
+  /** Returns the given percentile (0-100) of the time spent reaching a stage, in nanoseconds. */
+  public synchronized long getStagePercentile(final Stage stage, final int percentile) {
+    return percentile(stageSeries[stage.ordinal()], percentile);
+  }
+
+  /** Returns the given percentile (0-100) of capture-to-overlay latency, in nanoseconds. */
+  public synchronized long getOverlayPercentile(final int percentile) {
+    return percentile(overlaySeries, percentile);
+  }
+
+  /** Returns the given percentile (0-100) of capture-to-TTS latency, in nanoseconds. */
+  public synchronized long getSpeakPercentile(final int percentile) {
+    return percentile(speakSeries, percentile);
+  }
+
+  private long percentile(final Series series, final int percentile) {
+    if (series.count == 0) {
+      return 0;
+    }
+    System.arraycopy(series.values, 0, scratch, 0, series.count);
+    Arrays.sort(scratch, 0, series.count);
+    final int index = Math.min(series.count - 1, (series.count * percentile) / 100);
+    return scratch[index];
+  }
+
+  /** One line per distribution with p50/p90/p99 in milliseconds, for the debug overlay. */
+  public synchronized Vector<String> getStatLines() {
+    final Vector<String> lines = new Vector<String>();
+    lines.add(format("glass-to-overlay", overlaySeries));
+    lines.add(format("glass-to-speech", speakSeries));
+    for (int i = Stage.CAPTURE.ordinal() + 1; i < STAGES.length; ++i) {
+      lines.add(format(STAGES[i].name().toLowerCase(Locale.US), stageSeries[i]));
+    }
+    return lines;
+  }
+
+  public String getStatString() {
+    final StringBuilder builder = new StringBuilder();
+    for (final String line : getStatLines()) {
+      builder.append(line).append('\n');
+    }
+    return builder.toString();
+  }
+
+  private String format(final String name, final Series series) {
+    return String.format(
+        Locale.US,
+        "%s: %.1f/%.1f/%.1fms (n=%d)",
+        name,
+        percentile(series, 50) / 1e6f,
+        percentile(series, 90) / 1e6f,
+        percentile(series, 99) / 1e6f,
+        series.count);
+  }
+}
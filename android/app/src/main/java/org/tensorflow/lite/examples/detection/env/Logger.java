@@ -16,13 +16,15 @@ limitations under the License.
 package org.tensorflow.lite.examples.detection.env;
 
 import android.util.Log;
+import org.tensorflow.lite.examples.detection.BuildConfig;
 import java.util.HashSet;
 import java.util.Set;
 
 /** Wrapper for the platform log function, allows convenient message prefixing and log disabling. */
 public final class Logger {
   private static final String DEFAULT_TAG = "tensorflow";
-  private static final int DEFAULT_MIN_LOG_LEVEL = Log.DEBUG;
+  // Release builds drop debug and verbose output unless enabled with setprop log.tag.<tag>.
+  private static final int DEFAULT_MIN_LOG_LEVEL = BuildConfig.DEBUG ? Log.DEBUG : Log.INFO;
 
   // Classes to be ignored when examining the stack trace
   private static final Set<String> IGNORED_CLASS_NAMES;
@@ -124,6 +126,34 @@ public final class Logger {
     return messagePrefix + (args.length > 0 ? String.format(format, args) : format);
   }
 
+  // The overloads below take the message or primitive arguments directly, so a call whose level is
+  // filtered out allocates neither a varargs array nor boxed values. Formatting only happens once
+  // the level check has passed.
+
+  public void v(final String message) {
+    if (isLoggable(Log.VERBOSE)) {
+      Log.println(Log.VERBOSE, tag, messagePrefix + message);
+    }
+  }
+
+  public void v(final String format, final long arg) {
+    if (isLoggable(Log.VERBOSE)) {
+      Log.println(Log.VERBOSE, tag, toMessage(format, arg));
+    }
+  }
+
+  public void v(final String format, final long arg1, final long arg2) {
+    if (isLoggable(Log.VERBOSE)) {
+      Log.println(Log.VERBOSE, tag, toMessage(format, arg1, arg2));
+    }
+  }
+
+  public void v(final String format, final double arg) {
+    if (isLoggable(Log.VERBOSE)) {
+      Log.println(Log.VERBOSE, tag, toMessage(format, arg));
+    }
+  }
+
   public void v(final String format, final Object... args) {
     if (isLoggable(Log.VERBOSE)) {
       Log.v(tag, toMessage(format, args));
@@ -136,6 +166,30 @@ public final class Logger {
     }
   }
 
+  public void d(final String message) {
+    if (isLoggable(Log.DEBUG)) {
+      Log.println(Log.DEBUG, tag, messagePrefix + message);
+    }
+  }
+
+  public void d(final String format, final long arg) {
+    if (isLoggable(Log.DEBUG)) {
+      Log.println(Log.DEBUG, tag, toMessage(format, arg));
+    }
+  }
+
+  public void d(final String format, final long arg1, final long arg2) {
+    if (isLoggable(Log.DEBUG)) {
+      Log.println(Log.DEBUG, tag, toMessage(format, arg1, arg2));
+    }
+  }
+
+  public void d(final String format, final double arg) {
+    if (isLoggable(Log.DEBUG)) {
+      Log.println(Log.DEBUG, tag, toMessage(format, arg));
+    }
+  }
+
   public void d(final String format, final Object... args) {
     if (isLoggable(Log.DEBUG)) {
       Log.d(tag, toMessage(format, args));
@@ -148,6 +202,30 @@ public final class Logger {
     }
   }
 
+  public void i(final String message) {
+    if (isLoggable(Log.INFO)) {
+      Log.println(Log.INFO, tag, messagePrefix + message);
+    }
+  }
+
+  public void i(final String format, final long arg) {
+    if (isLoggable(Log.INFO)) {
+      Log.println(Log.INFO, tag, toMessage(format, arg));
+    }
+  }
+
+  public void i(final String format, final long arg1, final long arg2) {
+    if (isLoggable(Log.INFO)) {
+      Log.println(Log.INFO, tag, toMessage(format, arg1, arg2));
+    }
+  }
+
+  public void i(final String format, final double arg) {
+    if (isLoggable(Log.INFO)) {
+      Log.println(Log.INFO, tag, toMessage(format, arg));
+    }
+  }
+
   public void i(final String format, final Object... args) {
     if (isLoggable(Log.INFO)) {
       Log.i(tag, toMessage(format, args));
@@ -160,6 +238,30 @@ public final class Logger {
     }
   }
 
+  public void w(final String message) {
+    if (isLoggable(Log.WARN)) {
+      Log.println(Log.WARN, tag, messagePrefix + message);
+    }
+  }
+
+  public void w(final String format, final long arg) {
+    if (isLoggable(Log.WARN)) {
+      Log.println(Log.WARN, tag, toMessage(format, arg));
+    }
+  }
+
+  public void w(final String format, final long arg1, final long arg2) {
+    if (isLoggable(Log.WARN)) {
+      Log.println(Log.WARN, tag, toMessage(format, arg1, arg2));
+    }
+  }
+
+  public void w(final String format, final double arg) {
+    if (isLoggable(Log.WARN)) {
+      Log.println(Log.WARN, tag, toMessage(format, arg));
+    }
+  }
+
   public void w(final String format, final Object... args) {
     if (isLoggable(Log.WARN)) {
       Log.w(tag, toMessage(format, args));
@@ -172,6 +274,30 @@ public final class Logger {
     }
   }
 
+  public void e(final String message) {
+    if (isLoggable(Log.ERROR)) {
+      Log.println(Log.ERROR, tag, messagePrefix + message);
+    }
+  }
+
+  public void e(final String format, final long arg) {
+    if (isLoggable(Log.ERROR)) {
+      Log.println(Log.ERROR, tag, toMessage(format, arg));
+    }
+  }
+
+  public void e(final String format, final long arg1, final long arg2) {
+    if (isLoggable(Log.ERROR)) {
+      Log.println(Log.ERROR, tag, toMessage(format, arg1, arg2));
+    }
+  }
+
+  public void e(final String format, final double arg) {
+    if (isLoggable(Log.ERROR)) {
+      Log.println(Log.ERROR, tag, toMessage(format, arg));
+    }
+  }
+
   public void e(final String format, final Object... args) {
     if (isLoggable(Log.ERROR)) {
       Log.e(tag, toMessage(format, args));
@@ -0,0 +1,198 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import android.os.Debug;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Accounts for the memory a detector configuration costs: the buffers, bitmaps and caches
+ * registered with it, read live through a {@link Source}, and the process-wide Java heap, native
+ * heap and proportional set size from {@link Debug}.
+ *
+ * <p>{@link #maybeSample} is cheap enough to call every frame: it only reads the sources and the
+ * heap counters once per interval, keeping the peak of each. PSS is much slower to read, so it is
+ * only taken by {@link #readPss}; {@link #getStatString} and {@link #toJson} report the last value
+ * read. Read it when a measured session ends, never per frame or from a draw callback.
+ */
+public class MemoryMonitor {
+  /** Where a registered allocation lives. */
+  public enum Kind {
+    /** Java arrays and objects. */
+    HEAP,
+    /** Direct byte buffers. */
+    DIRECT,
+    /** Bitmap pixel memory. */
+    BITMAP,
+    /** Caches of results, whatever their backing. */
+    CACHE
+  }
+
+  /** Reports the current size of one allocation; 0 when it does not exist right now. */
+  public interface Source {
+    long getBytes();
+  }
+
+  private static class Entry {
+    final String name;
+    final Kind kind;
+    final transient Source source;
+    long bytes;
+    long peakBytes;
+
+    Entry(final String name, final Kind kind, final Source source) {
+      this.name = name;
+      this.kind = kind;
+      this.source = source;
+    }
+  }
+
+  /** Serialized by {@link #toJson}. */
+  private static class Snapshot {
+    String label;
+    int samples;
+    long javaHeapBytes;
+    long peakJavaHeapBytes;
+    long javaHeapMaxBytes;
+    long nativeHeapBytes;
+    long peakNativeHeapBytes;
+    long totalPssBytes;
+    Map<Kind, Long> registeredBytes;
+    List<Entry> entries;
+  }
+
+  private final long intervalNanos;
+  private final FrameAdmissionController.Clock clock;
+  private final List<Entry> entries = new ArrayList<Entry>();
+  private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+  private String label = "";
+  private long lastSampleNanos;
+  private int samples;
+  private long javaHeapBytes;
+  private long peakJavaHeapBytes;
+  private long nativeHeapBytes;
+  private long peakNativeHeapBytes;
+  private long pssBytes = -1;
+
+  public MemoryMonitor(final long intervalMs, final FrameAdmissionController.Clock clock) {
+    this.intervalNanos = intervalMs * 1000000L;
+    this.clock = clock;
+  }
+
+  /** Adds an allocation to account for. A name registered again replaces the earlier source. */
+  public synchronized void register(final String name, final Kind kind, final Source source) {
+    unregister(name);
+    entries.add(new Entry(name, kind, source));
+  }
+
+  public synchronized void unregister(final String name) {
+    for (int i = 0; i < entries.size(); ++i) {
+      if (entries.get(i).name.equals(name)) {
+        entries.remove(i);
+        return;
+      }
+    }
+  }
+
+  /** Names the configuration being measured, e.g. the model file, in stats and snapshots. */
+  public synchronized void setLabel(final String label) {
+    this.label = label;
+  }
+
+  /** Samples if the interval has passed since the last sample; returns whether it did. */
+  public synchronized boolean maybeSample() {
+    final long now = clock.nanoTime();
+    if (samples > 0 && now - lastSampleNanos < intervalNanos) {
+      return false;
+    }
+    lastSampleNanos = now;
+    sample();
+    return true;
+  }
+
+  /** Reads every source and the heap counters now. */
+  public synchronized void sample() {
+    for (final Entry entry : entries) {
+      entry.bytes = entry.source.getBytes();
+      entry.peakBytes = Math.max(entry.peakBytes, entry.bytes);
+    }
+    final Runtime runtime = Runtime.getRuntime();
+    javaHeapBytes = runtime.totalMemory() - runtime.freeMemory();
+    peakJavaHeapBytes = Math.max(peakJavaHeapBytes, javaHeapBytes);
+    nativeHeapBytes = Debug.getNativeHeapAllocatedSize();
+    peakNativeHeapBytes = Math.max(peakNativeHeapBytes, nativeHeapBytes);
+    samples++;
+  }
+
+  private Map<Kind, Long> totals() {
+    final Map<Kind, Long> totals = new LinkedHashMap<Kind, Long>();
+    for (final Kind kind : Kind.values()) {
+      totals.put(kind, 0L);
+    }
+    for (final Entry entry : entries) {
+      totals.put(entry.kind, totals.get(entry.kind) + entry.bytes);
+    }
+    return totals;
+  }
+
+  private static float mb(final long bytes) {
+    return bytes / 1048576f;
+  }
+
+  /**
+   * Reads the proportional set size for the next {@link #getStatString} and {@link #toJson}. Walks
+   * the process's memory maps and can take tens of milliseconds.
+   *
+   * @return PSS in bytes.
+   */
+  public synchronized long readPss() {
+    pssBytes = Debug.getPss() * 1024L;
+    return pssBytes;
+  }
+
+  /** One line per measurement, sampling first. PSS is the last {@link #readPss} value, if any. */
+  public synchronized String getStatString() {
+    sample();
+    final StringBuilder builder = new StringBuilder();
+    builder.append(String.format(Locale.US,
+        "memory [%s] java=%.1fMB (peak %.1fMB of %.1fMB) native=%.1fMB (peak %.1fMB) pss=%s",
+        label, mb(javaHeapBytes), mb(peakJavaHeapBytes), mb(Runtime.getRuntime().maxMemory()),
+        mb(nativeHeapBytes), mb(peakNativeHeapBytes),
+        pssBytes < 0 ? "n/a" : String.format(Locale.US, "%.1fMB", mb(pssBytes))));
+    for (final Map.Entry<Kind, Long> total : totals().entrySet()) {
+      builder.append(String.format(Locale.US, "\n  %s total=%.2fMB",
+          total.getKey().name().toLowerCase(Locale.US), mb(total.getValue())));
+    }
+    for (final Entry entry : entries) {
+      builder.append(String.format(Locale.US, "\n  %s %s=%.2fMB (peak %.2fMB)",
+          entry.kind.name().toLowerCase(Locale.US), entry.name, mb(entry.bytes),
+          mb(entry.peakBytes)));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Everything in {@link #getStatString}, in bytes, as a JSON object; samples first. PSS is -1
+   * unless {@link #readPss} was called.
+   */
+  public synchronized String toJson() {
+    sample();
+    final Snapshot snapshot = new Snapshot();
+    snapshot.label = label;
+    snapshot.samples = samples;
+    snapshot.javaHeapBytes = javaHeapBytes;
+    snapshot.peakJavaHeapBytes = peakJavaHeapBytes;
+    snapshot.javaHeapMaxBytes = Runtime.getRuntime().maxMemory();
+    snapshot.nativeHeapBytes = nativeHeapBytes;
+    snapshot.peakNativeHeapBytes = peakNativeHeapBytes;
+    snapshot.totalPssBytes = pssBytes;
+    snapshot.registeredBytes = totals();
+    snapshot.entries = entries;
+    return gson.toJson(snapshot);
+  }
+}
@@ -0,0 +1,99 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import java.util.Arrays;
+
+/**
+ * DCT-based perceptual hash of an image, robust to small shifts, noise and exposure changes.
+ *
+ * <p>The image is box-averaged to a {@value #SIZE}x{@value #SIZE} luma grid, the lowest 8x8 DCT
+ * frequencies are computed, and each of the 63 AC coefficients contributes one bit: set if it is
+ * above their median. Similar images have hashes a small Hamming distance apart.
+ *
+ * <p>Holds scratch buffers, so an instance must not be shared between threads.
+ */
+public class PerceptualHash {
+  /** Side of the luma grid; images must be at least this large. */
+  public static final int SIZE = 32;
+
+  private static final int LOW = 8;
+  // COS[u * SIZE + x] = cos((2x + 1) u pi / 2 SIZE)
+  private static final float[] COS = new float[LOW * SIZE];
+
+  static {
+    for (int u = 0; u < LOW; ++u) {
+      for (int x = 0; x < SIZE; ++x) {
+        COS[u * SIZE + x] = (float) Math.cos((2 * x + 1) * u * Math.PI / (2 * SIZE));
+      }
+    }
+  }
+
+  private final float[] luma = new float[SIZE * SIZE];
+  private final float[] rowDct = new float[SIZE * LOW];
+  private final float[] coefficients = new float[LOW * LOW];
+  private final float[] sorted = new float[LOW * LOW - 1];
+
+  /**
+   * Hashes an ARGB image stored row by row in {@code argb}.
+   *
+   * @throws IllegalArgumentException if the image is smaller than {@value #SIZE} on either side.
+   */
+  public long hash(final int[] argb, final int width, final int height) {
+    if (width < SIZE || height < SIZE || argb.length < width * height) {
+      throw new IllegalArgumentException("Image too small to hash: " + width + "x" + height);
+    }
+    for (int gy = 0; gy < SIZE; ++gy) {
+      final int y0 = gy * height / SIZE;
+      final int y1 = (gy + 1) * height / SIZE;
+      for (int gx = 0; gx < SIZE; ++gx) {
+        final int x0 = gx * width / SIZE;
+        final int x1 = (gx + 1) * width / SIZE;
+        int sum = 0;
+        for (int y = y0; y < y1; ++y) {
+          for (int x = x0; x < x1; ++x) {
+            final int pixel = argb[y * width + x];
+            // Integer BT.601 luma, scaled by 256.
+            sum += 77 * ((pixel >> 16) & 0xff) + 150 * ((pixel >> 8) & 0xff) + 29 * (pixel & 0xff);
+          }
+        }
+        luma[gy * SIZE + gx] = (float) sum / ((y1 - y0) * (x1 - x0));
+      }
+    }
+
+    // Separable DCT-II, keeping only the low frequencies.
+    for (int y = 0; y < SIZE; ++y) {
+      for (int u = 0; u < LOW; ++u) {
+        float sum = 0;
+        for (int x = 0; x < SIZE; ++x) {
+          sum += luma[y * SIZE + x] * COS[u * SIZE + x];
+        }
+        rowDct[y * LOW + u] = sum;
+      }
+    }
+    for (int v = 0; v < LOW; ++v) {
+      for (int u = 0; u < LOW; ++u) {
+        float sum = 0;
+        for (int y = 0; y < SIZE; ++y) {
+          sum += rowDct[y * LOW + u] * COS[v * SIZE + y];
+        }
+        coefficients[v * LOW + u] = sum;
+      }
+    }
+
+    // The DC term only carries overall brightness and is left out.
+    System.arraycopy(coefficients, 1, sorted, 0, sorted.length);
+    Arrays.sort(sorted);
+    final float median = sorted[sorted.length / 2];
+    long hash = 0;
+    for (int i = 1; i < LOW * LOW; ++i) {
+      if (coefficients[i] > median) {
+        hash |= 1L << i;
+      }
+    }
+    return hash;
+  }
+
+  /** Number of differing bits. */
+  public static int distance(final long a, final long b) {
+    return Long.bitCount(a ^ b);
+  }
+}
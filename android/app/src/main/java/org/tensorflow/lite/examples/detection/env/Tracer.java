@@ -0,0 +1,65 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import android.os.Build;
+import android.os.Trace;
+
+import org.tensorflow.lite.examples.detection.BuildConfig;
+
+/**
+ * Systrace/Perfetto sections for the detection pipeline.
+ *
+ * <p>Every call is guarded by {@code BuildConfig.DEBUG}, a compile-time constant, so release builds
+ * reduce each call site to nothing. In debug builds tracing is off until {@link #setEnabled} is
+ * called, and a disabled call costs one static field read.
+ *
+ * <p>Sections must begin and end on the same thread. Frame sections are asynchronous and can end on
+ * a different thread than they began; they link one frame across the camera, inference and UI
+ * threads (API 29+, no-op below).
+ */
+public final class Tracer {
+  private static boolean enabled = false;
+
+  private Tracer() {}
+
+  /** Turns tracing on or off. Sections open while toggling may end unbalanced. */
+  public static void setEnabled(final boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return BuildConfig.DEBUG && enabled;
+  }
+
+  public static void beginSection(final String name) {
+    if (BuildConfig.DEBUG && enabled) {
+      Trace.beginSection(name);
+    }
+  }
+
+  public static void endSection() {
+    if (BuildConfig.DEBUG && enabled) {
+      Trace.endSection();
+    }
+  }
+
+  /** Starts the asynchronous flow for one frame. */
+  public static void beginFrame(final String name, final int frameId) {
+    if (BuildConfig.DEBUG && enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      Trace.beginAsyncSection(name, frameId);
+    }
+  }
+
+  /** Ends the asynchronous flow started by {@link #beginFrame} with the same name and id. */
+  public static void endFrame(final String name, final int frameId) {
+    if (BuildConfig.DEBUG && enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      Trace.endAsyncSection(name, frameId);
+    }
+  }
+
+  /** Emits a counter track value, e.g. a queue depth. */
+  public static void setCounter(final String name, final long value) {
+    if (BuildConfig.DEBUG && enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      Trace.setCounter(name, value);
+    }
+  }
+}
@@ -6,20 +6,25 @@ import android.content.res.AssetManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.os.Environment;
 import android.util.Log;
 
 import org.tensorflow.lite.examples.detection.MainActivity;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Utils {
 
@@ -36,6 +41,25 @@ public class Utils {
         return fileChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, declaredLength);
     }
 
+    /**
+     * Reads a label file given as a file:///android_asset/ URI, one label per line.
+     */
+    public static List<String> loadLabels(AssetManager assets, String labelFilename)
+            throws IOException {
+        String actualFilename = labelFilename.split("file:///android_asset/")[1];
+        List<String> labels = new ArrayList<String>();
+        BufferedReader br = new BufferedReader(new InputStreamReader(assets.open(actualFilename)));
+        try {
+            String line;
+            while ((line = br.readLine()) != null) {
+                labels.add(line);
+            }
+        } finally {
+            br.close();
+        }
+        return labels;
+    }
+
     public static void softmax(final float[] vals) {
         float max = Float.NEGATIVE_INFINITY;
         for (final float val : vals) {
@@ -151,12 +175,18 @@ public class Utils {
         return matrix;
     }
 
+    /**
+     * Scales {@code source} to a square of {@code size} in a bitmap from the shared
+     * {@link BitmapPool}; release it there when done.
+     */
     public static Bitmap processBitmap(Bitmap source, int size){
 
         int image_height = source.getHeight();
         int image_width = source.getWidth();
 
-        Bitmap croppedBitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Bitmap croppedBitmap = BitmapPool.shared().acquire(size, size, Bitmap.Config.ARGB_8888);
+        // Pooled pixels would show through a translucent source.
+        croppedBitmap.eraseColor(Color.TRANSPARENT);
 
         Matrix frameToCropTransformations = getTransformationMatrix(image_width,image_height,size,size,0,false);
         Matrix cropToFrameTransformations = new Matrix();
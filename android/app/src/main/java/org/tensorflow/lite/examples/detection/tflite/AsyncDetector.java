@@ -0,0 +1,142 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.graphics.Bitmap;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs {@link Classifier#recognizeImage(Bitmap)} on a dedicated worker thread.
+ *
+ * Each request carries a deadline. A request whose deadline has already passed when the worker
+ * picks it up is reported through {@link Callback#onExpired(Result)} without touching the
+ * interpreter, so a backlog of stale frames never delays a fresh one. Requests run one at a time
+ * in submission order because the interpreter is not thread-safe. A classifier failure is reported
+ * through {@link Callback#onError(Result, Throwable)}.
+ */
+public class AsyncDetector {
+
+    /** Receives the outcome of a submitted request on the worker thread. */
+    public interface Callback {
+        void onResult(Result result);
+
+        void onExpired(Result result);
+
+        /** The classifier threw; the worker stays usable for the next request. */
+        void onError(Result result, Throwable error);
+    }
+
+    /** Timestamps of one request, in {@link System#nanoTime()} units, plus its recognitions. */
+    public static class Result {
+        private final long submitNanos;
+        private final long deadlineNanos;
+        private long startNanos;
+        private long endNanos;
+        private List<Classifier.Recognition> recognitions;
+
+        private Result(final long submitNanos, final long deadlineNanos) {
+            this.submitNanos = submitNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public long getSubmitNanos() {
+            return submitNanos;
+        }
+
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        /** Time spent waiting for the worker. */
+        public long getQueueNanos() {
+            return startNanos - submitNanos;
+        }
+
+        /** Time spent inside the classifier; zero for expired requests. */
+        public long getComputeNanos() {
+            return endNanos - startNanos;
+        }
+
+        /** The recognitions, or null if the request expired or failed. */
+        public List<Classifier.Recognition> getRecognitions() {
+            return recognitions;
+        }
+    }
+
+    private final Classifier classifier;
+    private final ExecutorService executor;
+
+    public AsyncDetector(final Classifier classifier) {
+        this.classifier = classifier;
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                return new Thread(r, "async-detector");
+            }
+        });
+    }
+
+    /**
+     * Queues a frame for detection. The bitmap must not be modified until the callback fires.
+     *
+     * @param bitmap        The frame, already at the classifier input size.
+     * @param deadlineNanos Latest {@link System#nanoTime()} at which detection may still start.
+     * @param callback      Receives the result, the expiry notice or the failure.
+     * @return A future that can be used to cancel the request before it starts.
+     */
+    public Future<?> submit(final Bitmap bitmap, final long deadlineNanos, final Callback callback) {
+        final Result result = new Result(System.nanoTime(), deadlineNanos);
+        return executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                result.startNanos = System.nanoTime();
+                if (result.startNanos - deadlineNanos > 0) {
+                    result.endNanos = result.startNanos;
+                    callback.onExpired(result);
+                    return;
+                }
+                final List<Classifier.Recognition> recognitions;
+                try {
+                    recognitions = classifier.recognizeImage(bitmap);
+                } catch (final Throwable t) {
+                    // Left to the future, the failure would go unseen and the callback never fire.
+                    result.endNanos = System.nanoTime();
+                    callback.onError(result, t);
+                    return;
+                }
+                result.recognitions = recognitions;
+                result.endNanos = System.nanoTime();
+                callback.onResult(result);
+            }
+        });
+    }
+
+    /** Convenience for {@link #submit(Bitmap, long, Callback)} with a deadline relative to now. */
+    public Future<?> submitWithin(final Bitmap bitmap, final long timeoutMs, final Callback callback) {
+        return submit(bitmap, System.nanoTime() + timeoutMs * 1000000L, callback);
+    }
+
+    /**
+     * Runs a task on the worker thread, in order with the detection requests, e.g. a benchmark
+     * that needs the classifier to itself.
+     */
+    public Future<?> execute(final Runnable task) {
+        return executor.submit(task);
+    }
+
+    /** Stops accepting requests. Queued requests still run; the classifier is not closed. */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares {@link Classifier#recognizeBatch} against the same images passed to
+ * {@link Classifier#recognizeInto} one at a time, for a range of batch sizes. Runs on the calling
+ * thread, which must have the classifier to itself.
+ */
+public class BatchBenchmark {
+    private BatchBenchmark() {
+    }
+
+    /**
+     * @param image      An image at the classifier's input size, repeated to fill each batch.
+     * @param batchSizes Batch sizes to measure.
+     * @param rounds     Timed repetitions per batch size, after one untimed warm-up.
+     * @return One line per batch size with images per second for both paths and the speedup.
+     */
+    public static String run(final Classifier classifier, final Bitmap image, final int[] batchSizes,
+                             final int rounds) {
+        final StringBuilder report = new StringBuilder();
+        for (final int batchSize : batchSizes) {
+            final List<Bitmap> bitmaps = new ArrayList<Bitmap>(batchSize);
+            final List<DetectionBuffer> results = new ArrayList<DetectionBuffer>(batchSize);
+            for (int i = 0; i < batchSize; ++i) {
+                bitmaps.add(image);
+                results.add(new DetectionBuffer());
+            }
+
+            runSequential(classifier, bitmaps, results);
+            long sequentialNanos = 0;
+            for (int r = 0; r < rounds; ++r) {
+                final long start = System.nanoTime();
+                runSequential(classifier, bitmaps, results);
+                sequentialNanos += System.nanoTime() - start;
+            }
+
+            classifier.recognizeBatch(bitmaps, results);
+            long batchedNanos = 0;
+            for (int r = 0; r < rounds; ++r) {
+                final long start = System.nanoTime();
+                classifier.recognizeBatch(bitmaps, results);
+                batchedNanos += System.nanoTime() - start;
+            }
+
+            final double images = (double) batchSize * rounds;
+            report.append(String.format(Locale.US,
+                    "batch=%d sequential=%.2f img/s batched=%.2f img/s speedup=%.2fx%n",
+                    batchSize, images * 1e9 / sequentialNanos, images * 1e9 / batchedNanos,
+                    (double) sequentialNanos / batchedNanos));
+        }
+        return report.toString();
+    }
+
+    private static void runSequential(final Classifier classifier, final List<Bitmap> bitmaps,
+                                      final List<DetectionBuffer> results) {
+        for (int i = 0; i < bitmaps.size(); ++i) {
+            classifier.recognizeInto(bitmaps.get(i), results.get(i));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.tensorflow.lite.examples.detection.env.PerceptualHash;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Classifier that skips inference for views it has seen recently: each frame is perceptually
+ * hashed, and a {@link ResultCache} hit returns the cached results instead of running the
+ * delegate. Not thread-safe, like the classifiers it wraps.
+ */
+public class CachingClassifier implements Classifier {
+    // Drawn at twice the hash grid so every grid cell averages several filtered samples.
+    private static final int HASH_BITMAP_SIZE = PerceptualHash.SIZE * 2;
+
+    private final ResultCache cache;
+    private final PerceptualHash hasher = new PerceptualHash();
+    private final Bitmap hashBitmap =
+            Bitmap.createBitmap(HASH_BITMAP_SIZE, HASH_BITMAP_SIZE, Bitmap.Config.ARGB_8888);
+    private final Canvas hashCanvas = new Canvas(hashBitmap);
+    private final Paint hashPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect srcRect = new Rect();
+    private final Rect dstRect = new Rect(0, 0, HASH_BITMAP_SIZE, HASH_BITMAP_SIZE);
+    private final int[] hashPixels = new int[HASH_BITMAP_SIZE * HASH_BITMAP_SIZE];
+    private final DetectionBuffer results = new DetectionBuffer();
+
+    private Classifier delegate;
+    private boolean lastHit;
+    private long frames;
+    private long hashNanos;
+
+    public CachingClassifier(final Classifier delegate, final ResultCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /** Switches to another classifier, dropping results cached from the previous one. */
+    public void setDelegate(final Classifier delegate) {
+        if (delegate != this.delegate) {
+            this.delegate = delegate;
+            cache.clear();
+        }
+    }
+
+    public Classifier getDelegate() {
+        return delegate;
+    }
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    /** Whether the latest frame was answered from the cache rather than by the delegate. */
+    public boolean wasLastHit() {
+        return lastHit;
+    }
+
+    @Override
+    public ArrayList<Recognition> recognizeImage(final Bitmap bitmap) {
+        recognizeInto(bitmap, results);
+        return Recognition.fromBuffer(results);
+    }
+
+    @Override
+    public void recognizeInto(final Bitmap bitmap, final DetectionBuffer detections) {
+        frames++;
+        final long start = System.nanoTime();
+        srcRect.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        hashCanvas.drawBitmap(bitmap, srcRect, dstRect, hashPaint);
+        hashBitmap.getPixels(hashPixels, 0, HASH_BITMAP_SIZE, 0, 0, HASH_BITMAP_SIZE, HASH_BITMAP_SIZE);
+        final long hash = hasher.hash(hashPixels, HASH_BITMAP_SIZE, HASH_BITMAP_SIZE);
+        lastHit = cache.lookup(hash, detections);
+        final long hashed = System.nanoTime();
+        hashNanos += hashed - start;
+        if (lastHit) {
+            return;
+        }
+        delegate.recognizeInto(bitmap, detections);
+        cache.store(hash, detections, System.nanoTime() - hashed);
+    }
+
+    /** Inference time saved by cache hits, minus the cost of hashing and looking up every frame. */
+    public long getSavedNanos() {
+        return cache.getSavedNanos() - hashNanos;
+    }
+
+    @Override
+    public void setDominantOnly(final DetectionBuffer.Ranking ranking, final float areaWeight) {
+        delegate.setDominantOnly(ranking, areaWeight);
+        cache.clear();
+    }
+
+    @Override
+    public void enableStatLogging(final boolean debug) {
+        delegate.enableStatLogging(debug);
+    }
+
+    @Override
+    public String getStatString() {
+        return String.format(Locale.US, "%s hash=%.2fms/frame net-saved=%.1fms",
+                cache.getStatString(), frames == 0 ? 0 : hashNanos / 1e6f / frames,
+                getSavedNanos() / 1e6f);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public void setNumThreads(final int numThreads) {
+        delegate.setNumThreads(numThreads);
+    }
+
+    @Override
+    public void setUseNNAPI(final boolean isChecked) {
+        delegate.setUseNNAPI(isChecked);
+    }
+
+    @Override
+    public float getObjThresh() {
+        return delegate.getObjThresh();
+    }
+}
@@ -0,0 +1,169 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Two-stage detector: a cheap screener (e.g. an int8 model) runs on every frame, and the more
+ * accurate confirmer (e.g. the float model) only runs when the screener's top result is ambiguous
+ * or names a different product than on the previous frame. Otherwise the screener's result is
+ * returned as is.
+ *
+ * Both classifiers must take the same input size. Not thread-safe, like the classifiers it wraps.
+ */
+public class CascadeClassifier implements Classifier {
+    public static final float DEFAULT_BAND_LOW = 0.3f;
+    public static final float DEFAULT_BAND_HIGH = 0.6f;
+
+    private final YoloV5Classifier screener;
+    private final YoloV5Classifier confirmer;
+    private final DetectionBuffer screened = new DetectionBuffer();
+    private final DetectionBuffer results = new DetectionBuffer();
+
+    // Screener confidences in [bandLow, bandHigh) are confirmed.
+    private float bandLow = DEFAULT_BAND_LOW;
+    private float bandHigh = DEFAULT_BAND_HIGH;
+    private int lastScreenedClass = -1;
+
+    private long frames;
+    private long bandEscalations;
+    private long identityEscalations;
+    private long screenerNanos;
+    private long confirmerNanos;
+
+    public CascadeClassifier(final YoloV5Classifier screener, final YoloV5Classifier confirmer) {
+        if (screener.getInputSize() != confirmer.getInputSize()) {
+            throw new IllegalArgumentException("Input sizes differ: " + screener.getInputSize()
+                    + " and " + confirmer.getInputSize());
+        }
+        this.screener = screener;
+        this.confirmer = confirmer;
+    }
+
+    public void setAmbiguousBand(final float low, final float high) {
+        bandLow = low;
+        bandHigh = high;
+    }
+
+    public YoloV5Classifier getScreener() {
+        return screener;
+    }
+
+    public YoloV5Classifier getConfirmer() {
+        return confirmer;
+    }
+
+    @Override
+    public ArrayList<Recognition> recognizeImage(final Bitmap bitmap) {
+        recognizeInto(bitmap, results);
+        return Recognition.fromBuffer(results);
+    }
+
+    @Override
+    public void recognizeInto(final Bitmap bitmap, final DetectionBuffer detections) {
+        frames++;
+        final long start = System.nanoTime();
+        screener.recognizeInto(bitmap, screened);
+        final long screenedAt = System.nanoTime();
+        screenerNanos += screenedAt - start;
+
+        final int top = topIndex(screened);
+        if (top < 0) {
+            lastScreenedClass = -1;
+            detections.clear();
+            return;
+        }
+        final float score = screened.getScore(top);
+        final int detectedClass = screened.getDetectedClass(top);
+        final boolean ambiguous = score >= bandLow && score < bandHigh;
+        final boolean identityChanged = detectedClass != lastScreenedClass;
+        lastScreenedClass = detectedClass;
+
+        if (!ambiguous && !identityChanged) {
+            detections.copyFrom(screened);
+            return;
+        }
+        if (ambiguous) {
+            bandEscalations++;
+        } else {
+            identityEscalations++;
+        }
+        confirmer.recognizeInto(bitmap, detections);
+        confirmerNanos += System.nanoTime() - screenedAt;
+    }
+
+    private static int topIndex(final DetectionBuffer buffer) {
+        int best = -1;
+        for (int i = 0; i < buffer.size(); ++i) {
+            if (best < 0 || buffer.getScore(i) > buffer.getScore(best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void setDominantOnly(final DetectionBuffer.Ranking ranking, final float areaWeight) {
+        screener.setDominantOnly(ranking, areaWeight);
+        confirmer.setDominantOnly(ranking, areaWeight);
+    }
+
+    @Override
+    public void enableStatLogging(final boolean debug) {
+    }
+
+    /** Fraction of frames that ran the confirmer. */
+    public float getEscalationRate() {
+        return frames == 0 ? 0 : (float) (bandEscalations + identityEscalations) / frames;
+    }
+
+    /**
+     * Time saved compared to running the confirmer on every frame, estimated from the mean
+     * confirmer time.
+     */
+    public long getSavedNanos() {
+        final long confirmed = bandEscalations + identityEscalations;
+        if (confirmed == 0) {
+            return 0;
+        }
+        final long meanConfirmer = confirmerNanos / confirmed;
+        return frames * meanConfirmer - (screenerNanos + confirmerNanos);
+    }
+
+    @Override
+    public String getStatString() {
+        final long confirmed = bandEscalations + identityEscalations;
+        return String.format(Locale.US,
+                "cascade frames=%d screened-only=%d confirmed=%d (band=%d identity=%d) "
+                        + "screener=%.1fms confirmer=%.1fms saved=%.1fms/frame",
+                frames, frames - confirmed, confirmed, bandEscalations, identityEscalations,
+                frames == 0 ? 0 : screenerNanos / 1e6f / frames,
+                confirmed == 0 ? 0 : confirmerNanos / 1e6f / confirmed,
+                frames == 0 ? 0 : getSavedNanos() / 1e6f / frames);
+    }
+
+    @Override
+    public void close() {
+        screener.close();
+        confirmer.close();
+    }
+
+    @Override
+    public void setNumThreads(final int numThreads) {
+        screener.setNumThreads(numThreads);
+        confirmer.setNumThreads(numThreads);
+    }
+
+    @Override
+    public void setUseNNAPI(final boolean isChecked) {
+        screener.setUseNNAPI(isChecked);
+        confirmer.setUseNNAPI(isChecked);
+    }
+
+    @Override
+    public float getObjThresh() {
+        return screener.getObjThresh();
+    }
+}
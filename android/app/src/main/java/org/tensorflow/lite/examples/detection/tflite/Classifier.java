@@ -18,6 +18,7 @@ package org.tensorflow.lite.examples.detection.tflite;
 import android.graphics.Bitmap;
 import android.graphics.RectF;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,6 +27,33 @@ import java.util.List;
 public interface Classifier {
     List<Recognition> recognizeImage(Bitmap bitmap);
 
+    /**
+     * Like {@link #recognizeImage(Bitmap)}, but writes the suppressed detections into a reusable
+     * buffer instead of allocating a Recognition per detection. The buffer is cleared first.
+     */
+    void recognizeInto(Bitmap bitmap, DetectionBuffer results);
+
+    /**
+     * Runs {@link #recognizeInto} for each bitmap, writing into the result buffer at the same
+     * index. Implementations may run several bitmaps through the model in one invocation; this
+     * default runs them one by one.
+     */
+    default void recognizeBatch(List<Bitmap> bitmaps, List<DetectionBuffer> results) {
+        if (bitmaps.size() != results.size()) {
+            throw new IllegalArgumentException(
+                    bitmaps.size() + " bitmaps but " + results.size() + " result buffers");
+        }
+        for (int i = 0; i < bitmaps.size(); ++i) {
+            recognizeInto(bitmaps.get(i), results.get(i));
+        }
+    }
+
+    /**
+     * Makes {@link #recognizeInto} return at most the single dominant detection, doing only the
+     * suppression needed to confirm it. Pass a null ranking to get all detections again.
+     */
+    void setDominantOnly(DetectionBuffer.Ranking ranking, float areaWeight);
+
     void enableStatLogging(final boolean debug);
 
     String getStatString();
@@ -80,6 +108,32 @@ public interface Classifier {
             this.detectedClass = detectedClass;
         }
 
+        /** Adapts buffered detections to the list API. */
+        public static ArrayList<Recognition> fromBuffer(final DetectionBuffer buffer) {
+            final ArrayList<Recognition> recognitions = new ArrayList<Recognition>(buffer.size());
+            for (int i = 0; i < buffer.size(); ++i) {
+                final int detectedClass = buffer.getDetectedClass(i);
+                recognitions.add(new Recognition(String.valueOf(detectedClass), buffer.getTitle(i),
+                        buffer.getScore(i),
+                        new RectF(buffer.getLeft(i), buffer.getTop(i), buffer.getRight(i), buffer.getBottom(i)),
+                        detectedClass));
+            }
+            return recognitions;
+        }
+
+        /** Copies the recognitions into a buffer, e.g. to feed the buffer-based tracker. */
+        public static void toBuffer(final List<Recognition> recognitions, final DetectionBuffer buffer) {
+            buffer.clear();
+            for (final Recognition recognition : recognitions) {
+                final RectF location = recognition.location;
+                if (location == null) {
+                    continue;
+                }
+                buffer.add(location.left, location.top, location.right, location.bottom,
+                        recognition.confidence, recognition.detectedClass, recognition.title);
+            }
+        }
+
         public String getId() {
             return id;
         }
@@ -0,0 +1,587 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+/**
+ * Reusable struct-of-arrays container for detections: boxes as (left, top, right, bottom), scores,
+ * class ids and titles. Adding, suppressing and selecting detections allocates nothing once the
+ * buffer has grown to the frame's candidate count.
+ *
+ * Titles are references to the classifier's label strings, so storing them copies nothing.
+ *
+ * A buffer filled through {@link #offer} keeps only the {@code limit} highest-scoring detections
+ * passed to {@link #clear(int)}, using a min-heap over the stored slots, so the cost of NMS stays
+ * bounded however many candidates a cluttered frame produces.
+ */
+public class DetectionBuffer {
+    /** How {@link #reduceToDominant} ranks the detections that survive suppression. */
+    public enum Ranking {
+        /** Largest box, compared as truncated integer areas like {@link #largestIndex()}. */
+        AREA,
+        /** Highest score. */
+        CONFIDENCE,
+        /** Weighted sum of the area relative to the largest candidate and the score. */
+        BLEND
+    }
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private float[] boxes;
+    private float[] scores;
+    private int[] classes;
+    private String[] titles;
+    private int count;
+    private int limit = Integer.MAX_VALUE;
+    // Slots ordered as a min-heap on score; maintained by offer() only.
+    private int[] heap;
+
+    // Scratch space for nms(), swapped with the main arrays on compaction.
+    private float[] spareBoxes;
+    private float[] spareScores;
+    private int[] spareClasses;
+    private String[] spareTitles;
+    private int[] order;
+    private boolean[] suppressed;
+    // Used by reduceToDominant(): start of each position's class run, how far each run's greedy
+    // suppression has been resolved (indexed by run start), and the positions best-ranked first
+    // with their rank keys.
+    private int[] runStart;
+    private int[] resolvedEnd;
+    private int[] ranked;
+    private float[] rankKeys;
+
+    public DetectionBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DetectionBuffer(final int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(final int capacity) {
+        final float[] newBoxes = new float[capacity * 4];
+        final float[] newScores = new float[capacity];
+        final int[] newClasses = new int[capacity];
+        final String[] newTitles = new String[capacity];
+        if (boxes != null) {
+            System.arraycopy(boxes, 0, newBoxes, 0, count * 4);
+            System.arraycopy(scores, 0, newScores, 0, count);
+            System.arraycopy(classes, 0, newClasses, 0, count);
+            System.arraycopy(titles, 0, newTitles, 0, count);
+        }
+        boxes = newBoxes;
+        scores = newScores;
+        classes = newClasses;
+        titles = newTitles;
+        spareBoxes = new float[capacity * 4];
+        spareScores = new float[capacity];
+        spareClasses = new int[capacity];
+        spareTitles = new String[capacity];
+        order = new int[capacity];
+        suppressed = new boolean[capacity];
+        runStart = new int[capacity];
+        resolvedEnd = new int[capacity];
+        ranked = new int[capacity];
+        rankKeys = new float[capacity];
+        final int[] newHeap = new int[capacity];
+        if (heap != null) {
+            System.arraycopy(heap, 0, newHeap, 0, count);
+        }
+        heap = newHeap;
+    }
+
+    public int capacity() {
+        return scores.length;
+    }
+
+    public void ensureCapacity(final int capacity) {
+        if (capacity > scores.length) {
+            allocate(Math.max(capacity, scores.length * 2));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+        limit = Integer.MAX_VALUE;
+    }
+
+    /** Clears the buffer and caps the detections kept by {@link #offer} at {@code limit}. */
+    public void clear(final int limit) {
+        this.limit = Math.max(1, limit);
+        ensureCapacity(this.limit);
+        count = 0;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Lowest score {@link #offer} still accepts: the weakest kept score once the buffer is full,
+     * otherwise negative infinity. Lets a decoder skip candidates before scoring every class.
+     */
+    public float getAdmissionScore() {
+        return count < limit ? Float.NEGATIVE_INFINITY : scores[heap[0]];
+    }
+
+    /** Drops all detections from index {@code size} on. */
+    public void truncate(final int size) {
+        if (size < count) {
+            count = size;
+        }
+    }
+
+    /** Appends a detection and returns its index. */
+    public int add(final float left, final float top, final float right, final float bottom,
+                   final float score, final int detectedClass, final String title) {
+        ensureCapacity(count + 1);
+        final int i = count++;
+        set(i, left, top, right, bottom, score, detectedClass, title);
+        return i;
+    }
+
+    /**
+     * Adds a detection if it is among the {@code limit} best offered since the last clear, evicting
+     * the weakest kept one if needed. Do not mix with {@link #add} on the same fill.
+     *
+     * @return Whether the detection was kept.
+     */
+    public boolean offer(final float left, final float top, final float right, final float bottom,
+                         final float score, final int detectedClass, final String title) {
+        if (count < limit) {
+            final int i = add(left, top, right, bottom, score, detectedClass, title);
+            heap[i] = i;
+            siftUpHeap(i);
+            return true;
+        }
+        final int weakest = heap[0];
+        if (score <= scores[weakest]) {
+            return false;
+        }
+        set(weakest, left, top, right, bottom, score, detectedClass, title);
+        siftDownHeap(0);
+        return true;
+    }
+
+    private void siftUpHeap(int pos) {
+        final int slot = heap[pos];
+        while (pos > 0) {
+            final int parent = (pos - 1) / 2;
+            if (scores[heap[parent]] <= scores[slot]) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = slot;
+    }
+
+    private void siftDownHeap(int pos) {
+        final int slot = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && scores[heap[child + 1]] < scores[heap[child]]) {
+                child++;
+            }
+            if (scores[slot] <= scores[heap[child]]) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = slot;
+    }
+
+    /** Appends detection {@code i} of another buffer. */
+    public int add(final DetectionBuffer src, final int i) {
+        return add(src.getLeft(i), src.getTop(i), src.getRight(i), src.getBottom(i),
+                src.getScore(i), src.getDetectedClass(i), src.getTitle(i));
+    }
+
+    /** Replaces the contents with a copy of another buffer. */
+    public void copyFrom(final DetectionBuffer src) {
+        ensureCapacity(src.count);
+        System.arraycopy(src.boxes, 0, boxes, 0, src.count * 4);
+        System.arraycopy(src.scores, 0, scores, 0, src.count);
+        System.arraycopy(src.classes, 0, classes, 0, src.count);
+        System.arraycopy(src.titles, 0, titles, 0, src.count);
+        count = src.count;
+    }
+
+    public void set(final int i, final float left, final float top, final float right, final float bottom,
+                    final float score, final int detectedClass, final String title) {
+        setBox(i, left, top, right, bottom);
+        scores[i] = score;
+        classes[i] = detectedClass;
+        titles[i] = title;
+    }
+
+    public void setBox(final int i, final float left, final float top, final float right, final float bottom) {
+        boxes[4 * i] = left;
+        boxes[4 * i + 1] = top;
+        boxes[4 * i + 2] = right;
+        boxes[4 * i + 3] = bottom;
+    }
+
+    public float getLeft(final int i) {
+        return boxes[4 * i];
+    }
+
+    public float getTop(final int i) {
+        return boxes[4 * i + 1];
+    }
+
+    public float getRight(final int i) {
+        return boxes[4 * i + 2];
+    }
+
+    public float getBottom(final int i) {
+        return boxes[4 * i + 3];
+    }
+
+    public float getWidth(final int i) {
+        return boxes[4 * i + 2] - boxes[4 * i];
+    }
+
+    public float getHeight(final int i) {
+        return boxes[4 * i + 3] - boxes[4 * i + 1];
+    }
+
+    public float getScore(final int i) {
+        return scores[i];
+    }
+
+    public int getDetectedClass(final int i) {
+        return classes[i];
+    }
+
+    public String getTitle(final int i) {
+        return titles[i];
+    }
+
+    /**
+     * Index of the detection with the largest box, comparing truncated integer areas like the
+     * original largest-product selection; the first wins ties. Returns -1 if empty.
+     */
+    public int largestIndex() {
+        if (count == 0) {
+            return -1;
+        }
+        int best = 0;
+        int bestArea = 0;
+        for (int i = 0; i < count; ++i) {
+            final int area = (int) (getHeight(i) * getWidth(i));
+            if (area > bestArea) {
+                best = i;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+
+    /** Intersection over union of detections {@code i} and {@code j}. */
+    public float iou(final int i, final int j) {
+        final float intersection = intersection(i, j);
+        final float union = getWidth(i) * getHeight(i) + getWidth(j) * getHeight(j) - intersection;
+        return intersection / union;
+    }
+
+    private float intersection(final int i, final int j) {
+        final float w = overlap((getLeft(i) + getRight(i)) / 2, getWidth(i),
+                (getLeft(j) + getRight(j)) / 2, getWidth(j));
+        final float h = overlap((getTop(i) + getBottom(i)) / 2, getHeight(i),
+                (getTop(j) + getBottom(j)) / 2, getHeight(j));
+        if (w < 0 || h < 0) return 0;
+        return w * h;
+    }
+
+    private static float overlap(final float x1, final float w1, final float x2, final float w2) {
+        final float l1 = x1 - w1 / 2;
+        final float l2 = x2 - w2 / 2;
+        final float left = l1 > l2 ? l1 : l2;
+        final float r1 = x1 + w1 / 2;
+        final float r2 = x2 + w2 / 2;
+        final float right = r1 < r2 ? r1 : r2;
+        return right - left;
+    }
+
+    /**
+     * Greedy per-class non maximum suppression in place. A detection is dropped if a higher-scoring
+     * detection of the same class overlaps it with IoU of at least {@code iouThreshold}. Survivors
+     * are ordered by class, then by descending score.
+     */
+    public void nms(final float iouThreshold) {
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+            suppressed[i] = false;
+        }
+        sortOrder();
+
+        int kept = 0;
+        int runStart = 0;
+        while (runStart < count) {
+            final int runClass = classes[order[runStart]];
+            int runEnd = runStart + 1;
+            while (runEnd < count && classes[order[runEnd]] == runClass) {
+                runEnd++;
+            }
+            for (int a = runStart; a < runEnd; ++a) {
+                final int max = order[a];
+                if (suppressed[max]) {
+                    continue;
+                }
+                copyToSpare(max, kept++);
+                for (int b = a + 1; b < runEnd; ++b) {
+                    final int other = order[b];
+                    if (!suppressed[other] && iou(max, other) >= iouThreshold) {
+                        suppressed[other] = true;
+                    }
+                }
+            }
+            runStart = runEnd;
+        }
+        swapWithSpare();
+        count = kept;
+    }
+
+    /**
+     * Greedy per-class merging for detections gathered from overlapping tiles, where an object cut
+     * by a tile seam shows up as boxes that barely overlap by IoU. A detection is merged into a
+     * higher-scoring one of the same class when their intersection covers at least
+     * {@code minOverlap} of the smaller box; the survivor keeps its score and grows to the union of
+     * the boxes merged into it. Survivors are ordered like {@link #nms(float)}'s.
+     */
+    public void mergeOverlapping(final float minOverlap) {
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+            suppressed[i] = false;
+        }
+        sortOrder();
+
+        int kept = 0;
+        int runStart = 0;
+        while (runStart < count) {
+            final int runClass = classes[order[runStart]];
+            int runEnd = runStart + 1;
+            while (runEnd < count && classes[order[runEnd]] == runClass) {
+                runEnd++;
+            }
+            for (int a = runStart; a < runEnd; ++a) {
+                final int max = order[a];
+                if (suppressed[max]) {
+                    continue;
+                }
+                final int to = kept++;
+                copyToSpare(max, to);
+                final float maxArea = getWidth(max) * getHeight(max);
+                for (int b = a + 1; b < runEnd; ++b) {
+                    final int other = order[b];
+                    if (suppressed[other]) {
+                        continue;
+                    }
+                    final float smaller = Math.min(maxArea, getWidth(other) * getHeight(other));
+                    if (smaller > 0 && intersection(max, other) >= minOverlap * smaller) {
+                        suppressed[other] = true;
+                        spareBoxes[4 * to] = Math.min(spareBoxes[4 * to], getLeft(other));
+                        spareBoxes[4 * to + 1] = Math.min(spareBoxes[4 * to + 1], getTop(other));
+                        spareBoxes[4 * to + 2] = Math.max(spareBoxes[4 * to + 2], getRight(other));
+                        spareBoxes[4 * to + 3] = Math.max(spareBoxes[4 * to + 3], getBottom(other));
+                    }
+                }
+            }
+            runStart = runEnd;
+        }
+        swapWithSpare();
+        count = kept;
+    }
+
+    /**
+     * Keeps only the best-ranked detection that {@link #nms(float)} would keep, and drops the rest.
+     * The candidates are sorted by rank once and checked best first. Suppression is resolved
+     * lazily: a class is only processed up to the rank of the detection being confirmed, so a
+     * winner that no stronger box of its class overlaps costs no NMS at all.
+     * With {@link Ranking#AREA} the result equals {@code nms()} followed by {@link #largestIndex()}.
+     *
+     * @param areaWeight Weight of the area in {@link Ranking#BLEND}, between 0 and 1.
+     * @return Whether a detection is left.
+     */
+    public boolean reduceToDominant(final float iouThreshold, final Ranking ranking, final float areaWeight) {
+        if (count == 0) {
+            return false;
+        }
+        float maxArea = 0;
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+            suppressed[i] = false;
+            maxArea = Math.max(maxArea, getWidth(i) * getHeight(i));
+        }
+        sortOrder();
+        for (int p = 0; p < count; ++p) {
+            if (p > 0 && classes[order[p]] == classes[order[p - 1]]) {
+                runStart[p] = runStart[p - 1];
+            } else {
+                runStart[p] = p;
+                resolvedEnd[p] = p;
+            }
+            ranked[p] = p;
+            rankKeys[p] = rankKey(order[p], ranking, areaWeight, maxArea);
+        }
+        sortRanked();
+
+        // One pass from the best rank down; the first detection that survives NMS is the winner.
+        for (int r = 0; r < count; ++r) {
+            final int position = ranked[r];
+            if (survivesNms(position, iouThreshold)) {
+                copyToSpare(order[position], 0);
+                swapWithSpare();
+                count = 1;
+                return true;
+            }
+        }
+        // Unreachable: the top-scoring detection of each class always survives.
+        count = 0;
+        return false;
+    }
+
+    private float rankKey(final int i, final Ranking ranking, final float areaWeight, final float maxArea) {
+        switch (ranking) {
+            case AREA:
+                // Like largestIndex(), degenerate boxes never beat the first one.
+                return Math.max(0, (int) (getHeight(i) * getWidth(i)));
+            case CONFIDENCE:
+                return scores[i];
+            default:
+                final float area = maxArea > 0 ? getWidth(i) * getHeight(i) / maxArea : 0;
+                return areaWeight * area + (1 - areaWeight) * scores[i];
+        }
+    }
+
+    // Runs greedy suppression of the position's class run just far enough to decide it.
+    private boolean survivesNms(final int position, final float iouThreshold) {
+        final int start = runStart[position];
+        for (int p = resolvedEnd[start]; p <= position; ++p) {
+            final int candidate = order[p];
+            for (int q = start; q < p; ++q) {
+                final int kept = order[q];
+                if (!suppressed[kept] && iou(kept, candidate) >= iouThreshold) {
+                    suppressed[candidate] = true;
+                    break;
+                }
+            }
+        }
+        if (resolvedEnd[start] <= position) {
+            resolvedEnd[start] = position + 1;
+        }
+        return !suppressed[order[position]];
+    }
+
+    private void copyToSpare(final int from, final int to) {
+        System.arraycopy(boxes, 4 * from, spareBoxes, 4 * to, 4);
+        spareScores[to] = scores[from];
+        spareClasses[to] = classes[from];
+        spareTitles[to] = titles[from];
+    }
+
+    private void swapWithSpare() {
+        final float[] b = boxes;
+        boxes = spareBoxes;
+        spareBoxes = b;
+        final float[] s = scores;
+        scores = spareScores;
+        spareScores = s;
+        final int[] c = classes;
+        classes = spareClasses;
+        spareClasses = c;
+        final String[] t = titles;
+        titles = spareTitles;
+        spareTitles = t;
+    }
+
+    // Orders by class ascending, score descending, index ascending.
+    private boolean before(final int a, final int b) {
+        if (classes[a] != classes[b]) {
+            return classes[a] < classes[b];
+        }
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return a < b;
+    }
+
+    // Heap sort: no recursion and no allocation.
+    private void sortOrder() {
+        for (int i = count / 2 - 1; i >= 0; --i) {
+            siftDown(i, count);
+        }
+        for (int end = count - 1; end > 0; --end) {
+            final int tmp = order[0];
+            order[0] = order[end];
+            order[end] = tmp;
+            siftDown(0, end);
+        }
+    }
+
+    // Orders positions by rank key descending, then position ascending, so ties go to the
+    // detection nms() would list first.
+    private boolean rankedBefore(final int a, final int b) {
+        if (rankKeys[a] != rankKeys[b]) {
+            return rankKeys[a] > rankKeys[b];
+        }
+        return a < b;
+    }
+
+    private void sortRanked() {
+        for (int i = count / 2 - 1; i >= 0; --i) {
+            siftDownRanked(i, count);
+        }
+        for (int end = count - 1; end > 0; --end) {
+            final int tmp = ranked[0];
+            ranked[0] = ranked[end];
+            ranked[end] = tmp;
+            siftDownRanked(0, end);
+        }
+    }
+
+    private void siftDownRanked(int root, final int size) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && rankedBefore(ranked[child], ranked[child + 1])) {
+                child++;
+            }
+            if (!rankedBefore(ranked[root], ranked[child])) {
+                return;
+            }
+            final int tmp = ranked[root];
+            ranked[root] = ranked[child];
+            ranked[child] = tmp;
+            root = child;
+        }
+    }
+
+    private void siftDown(int root, final int size) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && before(order[child], order[child + 1])) {
+                child++;
+            }
+            if (!before(order[root], order[child])) {
+                return;
+            }
+            final int tmp = order[root];
+            order[root] = order[child];
+            order[child] = tmp;
+            root = child;
+        }
+    }
+}
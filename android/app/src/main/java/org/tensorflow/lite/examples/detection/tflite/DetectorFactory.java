@@ -2,24 +2,50 @@ package org.tensorflow.lite.examples.detection.tflite;
 
 import android.content.res.AssetManager;
 
+import org.tensorflow.lite.examples.detection.env.Utils;
+
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.List;
 
 public class DetectorFactory {
     public static YoloV5Classifier getDetector(
             final AssetManager assetManager,
             final String modelFilename)
             throws IOException {
-        String labelFilename = null;
+        return getDetector(modelFilename, Utils.loadModelFile(assetManager, modelFilename),
+                Utils.loadLabels(assetManager, getLabelFilename(modelFilename)));
+    }
+
+    public static String getLabelFilename(final String modelFilename) {
+        if (modelFilename.equals("best-int8.tflite")
+                || modelFilename.equals("yolov5s.tflite")
+                || modelFilename.equals("yolov5s-int8.tflite")) {
+            return "file:///android_asset/label.txt";
+        }
+        return null;
+    }
+
+    /**
+     * Builds the detector for a model whose file has already been mapped and whose labels have
+     * already been read, e.g. by {@link org.tensorflow.lite.examples.detection.StartupOrchestrator}.
+     */
+    public static YoloV5Classifier getDetector(
+            final String modelFilename,
+            final MappedByteBuffer model,
+            final List<String> labels) {
         boolean isQuantized = false;
         int inputSize = 0;
         int[] output_width = new int[]{0};
         int[][] masks = new int[][]{{0}};
         int[] anchors = new int[]{0};
+        int maxCandidates = YoloV5Classifier.DEFAULT_MAX_CANDIDATES;
 
         if (modelFilename.equals("best-int8.tflite")) {
-            labelFilename = "file:///android_asset/label.txt";
             isQuantized = true;
             inputSize = 416;
+            // Products are large and few per frame; shelves only add near-duplicates.
+            maxCandidates = 100;
             output_width = new int[]{40, 20, 10};
             masks = new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
             anchors = new int[]{
@@ -27,7 +53,6 @@ public class DetectorFactory {
             };
         }
         else if (modelFilename.equals("yolov5s.tflite")) {
-            labelFilename = "file:///android_asset/label.txt";
             isQuantized = false;
             inputSize = 416;
             output_width = new int[]{80, 40, 20};
@@ -37,7 +62,6 @@ public class DetectorFactory {
             };
         }
         else if (modelFilename.equals("yolov5s-int8.tflite")) {
-            labelFilename = "file:///android_asset/label.txt";
             isQuantized = true;
             inputSize = 416;
             output_width = new int[]{40, 20, 10};
@@ -46,10 +70,9 @@ public class DetectorFactory {
                     10,13, 16,30, 33,23, 30,61, 62,45, 59,119, 116,90, 156,198, 373,326
             };
         }
-        return YoloV5Classifier.create(assetManager, modelFilename, labelFilename, isQuantized,
-                inputSize);
-
-
+        final YoloV5Classifier detector = YoloV5Classifier.create(model, labels, isQuantized, inputSize);
+        detector.setMaxCandidates(maxCandidates);
+        return detector;
     }
 
 }
@@ -0,0 +1,189 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hands out native-order direct buffers rounded up to size classes and takes them back for reuse,
+ * so that switching models reuses the previous model's input and output memory instead of
+ * allocating fresh buffers while the old ones wait for finalization.
+ *
+ * Size classes are the powers of two and three evenly spaced steps between them, so a new buffer
+ * is at most 25% larger than requested. A request is served from the smallest pooled buffer
+ * within {@link #MAX_REUSE_CLASSES} classes above its own, so a model whose tensors are slightly
+ * smaller than the previous model's still reuses its memory. Everything the arena owns, handed
+ * out or pooled, counts against a global budget; when a request would exceed it, pooled buffers
+ * are dropped first, and if that is not enough the request fails. Thread-safe.
+ */
+public class DirectBufferArena {
+    // Two batch-1 models with their outputs, e.g. the cascade, with room for a batch of four.
+    public static final long DEFAULT_BUDGET_BYTES = 128L << 20;
+    // A reused buffer is at most about 50% larger than the request.
+    public static final int MAX_REUSE_CLASSES = 2;
+
+    private static final int MIN_CLASS_BYTES = 4096;
+    private static final DirectBufferArena SHARED = new DirectBufferArena(DEFAULT_BUDGET_BYTES);
+
+    /** The arena shared by all classifiers. */
+    public static DirectBufferArena shared() {
+        return SHARED;
+    }
+
+    private final TreeMap<Integer, ArrayDeque<ByteBuffer>> pooled =
+            new TreeMap<Integer, ArrayDeque<ByteBuffer>>();
+    private final Set<ByteBuffer> handedOut =
+            Collections.newSetFromMap(new IdentityHashMap<ByteBuffer, Boolean>());
+
+    private long budgetBytes;
+    private long inUseBytes;
+    private long pooledBytes;
+    private long peakBytes;
+    private long allocations;
+    private long reuses;
+    private long evictedBytes;
+
+    public DirectBufferArena(final long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public synchronized void setBudgetBytes(final long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict(0);
+    }
+
+    /**
+     * Returns a cleared, native-order direct buffer of at least {@code bytes} bytes; its capacity
+     * is the size class, or up to {@link #MAX_REUSE_CLASSES} classes more when a pooled buffer is
+     * reused. Hand it back with {@link #release}.
+     *
+     * @throws IllegalStateException if the buffer would take the arena over its budget.
+     */
+    public synchronized ByteBuffer acquire(final int bytes) {
+        int size = sizeClass(bytes);
+        ByteBuffer buffer = null;
+        final Map.Entry<Integer, ArrayDeque<ByteBuffer>> fit = pooled.ceilingEntry(size);
+        if (fit != null && fit.getKey() <= maxReuseSize(size)) {
+            size = fit.getKey();
+            buffer = fit.getValue().poll();
+            if (fit.getValue().isEmpty()) {
+                pooled.remove(size);
+            }
+        }
+        if (buffer != null) {
+            pooledBytes -= size;
+            reuses++;
+        } else {
+            evict(size);
+            if (inUseBytes + pooledBytes + size > budgetBytes) {
+                throw new IllegalStateException(String.format(Locale.US,
+                        "Direct buffer of %.1fMB exceeds the %.1fMB budget with %.1fMB in use",
+                        size / 1048576f, budgetBytes / 1048576f, inUseBytes / 1048576f));
+            }
+            buffer = ByteBuffer.allocateDirect(size);
+            allocations++;
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.nativeOrder());
+        handedOut.add(buffer);
+        inUseBytes += size;
+        peakBytes = Math.max(peakBytes, inUseBytes + pooledBytes);
+        return buffer;
+    }
+
+    /**
+     * Takes back a buffer from {@link #acquire} for reuse. Views of it must no longer be used.
+     * Null and buffers the arena did not hand out, or already got back, are ignored.
+     */
+    public synchronized void release(final ByteBuffer buffer) {
+        if (buffer == null || !handedOut.remove(buffer)) {
+            return;
+        }
+        final int size = buffer.capacity();
+        inUseBytes -= size;
+        ArrayDeque<ByteBuffer> free = pooled.get(size);
+        if (free == null) {
+            free = new ArrayDeque<ByteBuffer>();
+            pooled.put(size, free);
+        }
+        free.push(buffer);
+        pooledBytes += size;
+    }
+
+    /** Drops all pooled buffers, leaving their memory to the garbage collector. */
+    public synchronized void trim() {
+        evictedBytes += pooledBytes;
+        pooled.clear();
+        pooledBytes = 0;
+    }
+
+    // Drops pooled buffers, largest first, until another {@code bytes} fit in the budget.
+    private void evict(final long bytes) {
+        while (inUseBytes + pooledBytes + bytes > budgetBytes && !pooled.isEmpty()) {
+            final Map.Entry<Integer, ArrayDeque<ByteBuffer>> largest = pooled.lastEntry();
+            largest.getValue().poll();
+            pooledBytes -= largest.getKey();
+            evictedBytes += largest.getKey();
+            if (largest.getValue().isEmpty()) {
+                pooled.remove(largest.getKey());
+            }
+        }
+    }
+
+    // Largest pooled size class a request of size class {@code size} may be served from.
+    private static int maxReuseSize(final int size) {
+        int limit = size;
+        for (int i = 0; i < MAX_REUSE_CLASSES && limit < Integer.MAX_VALUE / 2; ++i) {
+            limit = sizeClass(limit + 1);
+        }
+        return limit;
+    }
+
+    /** The size class {@code bytes} rounds up to. */
+    static int sizeClass(final int bytes) {
+        if (bytes <= MIN_CLASS_BYTES) {
+            return MIN_CLASS_BYTES;
+        }
+        final int power = Integer.highestOneBit(bytes);
+        if (power == bytes) {
+            return bytes;
+        }
+        final int step = power / 4;
+        final long size = (long) power + (long) ((bytes - power + step - 1) / step) * step;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Buffer too large: " + bytes);
+        }
+        return (int) size;
+    }
+
+    public synchronized long getInUseBytes() {
+        return inUseBytes;
+    }
+
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /** Highest handed-out plus pooled total so far. */
+    public synchronized long getPeakBytes() {
+        return peakBytes;
+    }
+
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized String getStatString() {
+        return String.format(Locale.US,
+                "direct arena in use=%.1fMB pooled=%.1fMB peak=%.1fMB budget=%.1fMB"
+                        + " allocations=%d reuses=%d evicted=%.1fMB",
+                inUseBytes / 1048576f, pooledBytes / 1048576f, peakBytes / 1048576f,
+                budgetBytes / 1048576f, allocations, reuses, evictedBytes / 1048576f);
+    }
+}
@@ -0,0 +1,253 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link InferenceBackend} that runs no model: each run writes the next scripted tensors into the
+ * outputs, one per image of the batch, cycling through the script, and then takes a configured
+ * amount of time. Plain Java, so classifiers, pools and schedulers can be load-tested on a desktop
+ * JVM. The jitter comes from a seeded generator, so a run is reproducible.
+ *
+ * When an input is resized, output batch dimensions follow the input batch, and for image inputs
+ * the row dimension of each output scales with the input area, as YOLO heads do.
+ */
+public class FakeBackend implements InferenceBackend {
+    private TensorSpec input;
+    private final TensorSpec modelInput;
+    private final TensorSpec[] modelOutputs;
+    private final TensorSpec[] outputs;
+    // Per output, the tensors of single images in the order they are handed out.
+    private final List<List<byte[]>> script = new ArrayList<List<byte[]>>();
+    // Script position of the next image.
+    private int cursor;
+
+    private long fixedNanos;
+    private long perImageNanos;
+    private long jitterNanos;
+    private Random random = new Random(0);
+    private long runs;
+    private boolean closed;
+
+    /** @param outputs Single-image output specs, batch dimension 1. */
+    public FakeBackend(final TensorSpec input, final TensorSpec... outputs) {
+        this.input = input;
+        this.modelInput = input;
+        this.modelOutputs = outputs.clone();
+        this.outputs = outputs.clone();
+        for (int i = 0; i < outputs.length; ++i) {
+            script.add(new ArrayList<byte[]>());
+        }
+    }
+
+    /**
+     * A backend replaying the dense tensors of a capture written by {@link OutputCapture}, for a
+     * square RGB input of the capture's first input size.
+     *
+     * @param limit Most records to load; each holds a full output tensor in memory.
+     */
+    public static FakeBackend fromCapture(final File capture, final int limit) throws IOException {
+        try (OutputCaptureReader reader = new OutputCaptureReader(capture)) {
+            FakeBackend backend = null;
+            for (int r = 0; r < limit && reader.next(); ++r) {
+                if (backend == null) {
+                    final int size = reader.getInputSize();
+                    final DataType type =
+                            reader.isQuantized() ? DataType.UINT8 : DataType.FLOAT32;
+                    backend = new FakeBackend(
+                            new TensorSpec(new int[]{1, size, size, 3}, type,
+                                    reader.isQuantized() ? 1 / 255f : 0, 0),
+                            new TensorSpec(new int[]{1, reader.getRows(), reader.getRowSize()},
+                                    type, reader.isQuantized() ? reader.getScale() : 0,
+                                    reader.getZeroPoint()));
+                }
+                final ByteBuffer tensor = reader.getTensor();
+                final byte[] copy = new byte[tensor.capacity()];
+                final ByteBuffer source = tensor.duplicate();
+                source.clear();
+                source.get(copy);
+                backend.addOutputs(copy);
+            }
+            if (backend == null) {
+                throw new IOException("No records in " + capture);
+            }
+            return backend;
+        }
+    }
+
+    /**
+     * Appends one image's outputs to the script, one array per output in the single-image
+     * layout. Arrays shorter than the output are zero-padded when written.
+     */
+    public synchronized void addOutputs(final byte[]... tensors) {
+        if (tensors.length != outputs.length) {
+            throw new IllegalArgumentException(
+                    tensors.length + " tensors for " + outputs.length + " outputs");
+        }
+        for (int i = 0; i < tensors.length; ++i) {
+            script.get(i).add(tensors[i]);
+        }
+    }
+
+    /** Appends one image's outputs given as floats, quantizing them for quantized outputs. */
+    public synchronized void addOutputs(final float[]... values) {
+        final byte[][] tensors = new byte[values.length][];
+        for (int i = 0; i < values.length && i < outputs.length; ++i) {
+            final TensorSpec spec = outputs[i];
+            final ByteBuffer buffer = ByteBuffer
+                    .allocate(values[i].length * spec.getType().byteSize())
+                    .order(ByteOrder.nativeOrder());
+            for (final float value : values[i]) {
+                if (spec.getType() == DataType.FLOAT32) {
+                    buffer.putFloat(value);
+                } else {
+                    final int q = Math.round(value / spec.getScale()) + spec.getZeroPoint();
+                    buffer.put((byte) (spec.getType() == DataType.UINT8
+                            ? Math.max(0, Math.min(255, q)) : Math.max(-128, Math.min(127, q))));
+                }
+            }
+            tensors[i] = buffer.array();
+        }
+        addOutputs(tensors);
+    }
+
+    /**
+     * Makes every run take {@code fixedNanos + perImageNanos * batch} plus uniform jitter of up to
+     * {@code jitterNanos} either way, drawn from a generator seeded with {@code seed}.
+     */
+    public synchronized void setLatency(final long fixedNanos, final long perImageNanos,
+                                        final long jitterNanos, final long seed) {
+        this.fixedNanos = fixedNanos;
+        this.perImageNanos = perImageNanos;
+        this.jitterNanos = jitterNanos;
+        this.random = new Random(seed);
+    }
+
+    public synchronized long getRunCount() {
+        return runs;
+    }
+
+    @Override
+    public int getInputCount() {
+        return 1;
+    }
+
+    @Override
+    public int getOutputCount() {
+        return outputs.length;
+    }
+
+    @Override
+    public synchronized TensorSpec getInputSpec(final int index) {
+        checkIndex(index, 1);
+        return input;
+    }
+
+    @Override
+    public synchronized TensorSpec getOutputSpec(final int index) {
+        checkIndex(index, outputs.length);
+        return outputs[index];
+    }
+
+    @Override
+    public synchronized void resizeInput(final int index, final int[] shape) {
+        checkIndex(index, 1);
+        input = input.withShape(shape);
+        final float area = shape.length == 4 && modelInput.getRank() == 4
+                ? (float) shape[1] * shape[2]
+                        / (modelInput.getDimension(1) * modelInput.getDimension(2))
+                : 1;
+        for (int i = 0; i < outputs.length; ++i) {
+            final int[] outputShape = modelOutputs[i].getShape();
+            outputShape[0] = shape[0];
+            if (outputShape.length >= 3) {
+                outputShape[1] = Math.round(outputShape[1] * area);
+            }
+            outputs[i] = modelOutputs[i].withShape(outputShape);
+        }
+    }
+
+    @Override
+    public synchronized void run(final Object[] inputs, final Map<Integer, Object> outputMap) {
+        if (closed) {
+            throw new IllegalStateException("Backend is closed");
+        }
+        if (inputs.length != 1 || !(inputs[0] instanceof ByteBuffer)
+                || ((ByteBuffer) inputs[0]).capacity() != input.getByteSize()) {
+            throw new IllegalArgumentException("Input does not match " + input);
+        }
+        final int batch = input.getDimension(0);
+        for (int i = 0; i < outputs.length; ++i) {
+            final Object target = outputMap.get(i);
+            if (!(target instanceof ByteBuffer)
+                    || ((ByteBuffer) target).capacity() != outputs[i].getByteSize()) {
+                throw new IllegalArgumentException("Output " + i + " does not match " + outputs[i]);
+            }
+            write((ByteBuffer) target, i, batch);
+        }
+        cursor += batch;
+        runs++;
+        simulateLatency(batch);
+    }
+
+    // Fills each image's slice of the output with the next scripted tensor, or zeros.
+    private void write(final ByteBuffer target, final int output, final int batch) {
+        final ByteBuffer out = target.duplicate();
+        out.clear();
+        final int imageBytes = outputs[output].getByteSize() / batch;
+        final byte fill = outputs[output].getType() == DataType.FLOAT32
+                ? 0 : (byte) outputs[output].getZeroPoint();
+        final List<byte[]> tensors = script.get(output);
+        for (int b = 0; b < batch; ++b) {
+            final byte[] tensor = tensors.isEmpty()
+                    ? null : tensors.get((cursor + b) % tensors.size());
+            final int copied = tensor == null ? 0 : Math.min(imageBytes, tensor.length);
+            if (copied > 0) {
+                out.put(tensor, 0, copied);
+            }
+            for (int k = copied; k < imageBytes; ++k) {
+                out.put(fill);
+            }
+        }
+    }
+
+    private void simulateLatency(final int batch) {
+        long nanos = fixedNanos + perImageNanos * batch;
+        if (jitterNanos > 0) {
+            nanos += (long) ((random.nextDouble() * 2 - 1) * jitterNanos);
+        }
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1000000L, (int) (nanos % 1000000L));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void checkIndex(final int index, final int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Tensor " + index + " of " + count);
+        }
+    }
+
+    @Override
+    public void setNumThreads(final int numThreads) {
+    }
+
+    @Override
+    public void setAccelerator(final Accelerator accelerator) {
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+    }
+}
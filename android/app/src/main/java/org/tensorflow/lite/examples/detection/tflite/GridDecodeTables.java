@@ -0,0 +1,81 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+/**
+ * Grid and anchor tables for decoding the raw heads of a YOLOv5 model, built once per input size
+ * so that box decode is multiply-adds over flat arrays: no per-box stride division, no {@code
+ * Math.pow} and no anchor lookups through the masks.
+ *
+ * Rows of all heads are numbered consecutively in head order, and within a head in its
+ * [box][y][x] layout. Per head the table holds the stride in input pixels; per row, the grid
+ * cell offset (cell - 0.5) * stride and four times the anchor size.
+ */
+class GridDecodeTables {
+    private final int[] headStart;
+    private final float[] twoStride;
+    private final float[] gridOffsetX;
+    private final float[] gridOffsetY;
+    private final float[] anchorWidth4;
+    private final float[] anchorHeight4;
+
+    /**
+     * @param outputWidth Grid width of each head.
+     * @param masks       Per head, the indices of its anchors.
+     * @param anchors     Anchor width and height pairs, in input pixels.
+     */
+    GridDecodeTables(final int inputSize, final int[] outputWidth, final int[][] masks,
+                     final int[] anchors) {
+        headStart = new int[masks.length + 1];
+        for (int i = 0; i < masks.length; ++i) {
+            headStart[i + 1] = headStart[i] + masks[i].length * outputWidth[i] * outputWidth[i];
+        }
+        final int rows = headStart[masks.length];
+        twoStride = new float[masks.length];
+        gridOffsetX = new float[rows];
+        gridOffsetY = new float[rows];
+        anchorWidth4 = new float[rows];
+        anchorHeight4 = new float[rows];
+        for (int i = 0; i < masks.length; ++i) {
+            final int gridWidth = outputWidth[i];
+            final float stride = 1.0f * inputSize / gridWidth;
+            twoStride[i] = 2 * stride;
+            int cell = headStart[i];
+            for (int b = 0; b < masks[i].length; ++b) {
+                final float anchorW = 4.0f * anchors[2 * masks[i][b]];
+                final float anchorH = 4.0f * anchors[2 * masks[i][b] + 1];
+                for (int y = 0; y < gridWidth; ++y) {
+                    for (int x = 0; x < gridWidth; ++x) {
+                        gridOffsetX[cell] = (x - 0.5f) * stride;
+                        gridOffsetY[cell] = (y - 0.5f) * stride;
+                        anchorWidth4[cell] = anchorW;
+                        anchorHeight4[cell] = anchorH;
+                        cell++;
+                    }
+                }
+            }
+        }
+    }
+
+    /** First row of head {@code head}; {@code getHeadStart(heads)} is the total row count. */
+    int getHeadStart(final int head) {
+        return headStart[head];
+    }
+
+    // The decode below is xy = (grid + 2 * sigmoid - 0.5) * stride, wh = (2 * sigmoid)^2 * anchor,
+    // for row {@code row} of head {@code head} and the sigmoid of its raw output.
+
+    float centerX(final int head, final int row, final float sigmoidX) {
+        return gridOffsetX[row] + sigmoidX * twoStride[head];
+    }
+
+    float centerY(final int head, final int row, final float sigmoidY) {
+        return gridOffsetY[row] + sigmoidY * twoStride[head];
+    }
+
+    float width(final int row, final float sigmoidW) {
+        return sigmoidW * sigmoidW * anchorWidth4[row];
+    }
+
+    float height(final int row, final float sigmoidH) {
+        return sigmoidH * sigmoidH * anchorHeight4[row];
+    }
+}
@@ -0,0 +1,132 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Runs a model's forward pass on preprocessed tensors. Keeps classifiers independent of the
+ * runtime, so their preprocessing, decoding and scheduling can run against {@link FakeBackend} on
+ * a plain JVM. The production implementation is {@link TfLiteBackend}.
+ *
+ * Not thread-safe; one inference thread drives a backend.
+ */
+public interface InferenceBackend {
+    /** Hardware a backend may run on; backends without the choice ignore it. */
+    enum Accelerator {
+        CPU,
+        GPU,
+        NNAPI
+    }
+
+    /** Element types of the tensors this app's models use. */
+    enum DataType {
+        FLOAT32(4),
+        UINT8(1),
+        INT8(1);
+
+        private final int byteSize;
+
+        DataType(final int byteSize) {
+            this.byteSize = byteSize;
+        }
+
+        public int byteSize() {
+            return byteSize;
+        }
+    }
+
+    /** Shape, element type and quantization of one tensor. Immutable. */
+    final class TensorSpec {
+        private final int[] shape;
+        private final DataType type;
+        private final float scale;
+        private final int zeroPoint;
+
+        /** @param scale 0 for tensors that are not quantized. */
+        public TensorSpec(final int[] shape, final DataType type, final float scale,
+                          final int zeroPoint) {
+            this.shape = shape.clone();
+            this.type = type;
+            this.scale = scale;
+            this.zeroPoint = zeroPoint;
+        }
+
+        public int[] getShape() {
+            return shape.clone();
+        }
+
+        public int getDimension(final int index) {
+            return shape[index];
+        }
+
+        public int getRank() {
+            return shape.length;
+        }
+
+        public DataType getType() {
+            return type;
+        }
+
+        public float getScale() {
+            return scale;
+        }
+
+        public int getZeroPoint() {
+            return zeroPoint;
+        }
+
+        public int getElementCount() {
+            int count = 1;
+            for (final int dimension : shape) {
+                count *= dimension;
+            }
+            return count;
+        }
+
+        public int getByteSize() {
+            return getElementCount() * type.byteSize();
+        }
+
+        /** The same type and quantization with another shape. */
+        public TensorSpec withShape(final int[] newShape) {
+            return new TensorSpec(newShape, type, scale, zeroPoint);
+        }
+
+        @Override
+        public String toString() {
+            return type + Arrays.toString(shape)
+                    + (scale != 0 ? " q(" + scale + ", " + zeroPoint + ")" : "");
+        }
+    }
+
+    int getInputCount();
+
+    int getOutputCount();
+
+    TensorSpec getInputSpec(int index);
+
+    /** Reflects the current input shapes, e.g. the batch after {@link #resizeInput}. */
+    TensorSpec getOutputSpec(int index);
+
+    /**
+     * Reshapes an input and re-plans the tensors; a no-op when the shape already matches. If that
+     * fails, the previous shape is restored before the exception is rethrown.
+     */
+    void resizeInput(int index, int[] shape);
+
+    /**
+     * Runs one forward pass. Inputs and outputs are direct or heap byte buffers in native order,
+     * of exactly their tensor's byte size; outputs are keyed by output index.
+     */
+    void run(Object[] inputs, Map<Integer, Object> outputs);
+
+    void setNumThreads(int numThreads);
+
+    /**
+     * Moves execution to {@code accelerator} alone, releasing whatever the previous one held, and
+     * keeps the current input shapes.
+     */
+    void setAccelerator(Accelerator accelerator);
+
+    void close();
+}
@@ -0,0 +1,259 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes raw YOLOv5 output tensors, with their quantization parameters and the post-processing
+ * settings they were decoded with, to a compact binary file for {@link OutputReplay}.
+ *
+ * The inference thread only copies the tensor into a free slot; a background thread writes it.
+ * Only rows whose objectness exceeds {@link #getMinObjectness()} are stored: a row below it can
+ * not become a detection at any threshold above it, and on real frames that is most rows.
+ * When no slot is free the tensor is skipped and counted.
+ *
+ * Format, big-endian as written by {@link DataOutputStream}. Header: {@link #MAGIC}, version,
+ * model name, layout, row size, quantized flag, scale, zero point, whether float elements are
+ * little-endian, objectness and NMS thresholds, max candidates, the storage floor, then the class
+ * titles. Each record: {@link #RECORD_MAGIC}, timestamp, input size, frame width and height, row
+ * count, stored row count, the stored row indices, then the stored rows' raw bytes.
+ */
+public class OutputCapture implements Closeable {
+    public static final int MAGIC = 0x594f5554; // "YOUT"
+    public static final int VERSION = 1;
+    public static final int RECORD_MAGIC = 0x52454344; // "RECD"
+    /** One tensor of [rows, 5 + classes] boxes normalized to the input, as YoloV5Classifier. */
+    public static final int LAYOUT_BOXES = 1;
+    public static final float DEFAULT_MIN_OBJECTNESS = 0.05f;
+
+    // A copied tensor waiting for the writer.
+    private static class Slot {
+        byte[] data = new byte[0];
+        int length;
+        int rows;
+        int inputSize;
+        int width;
+        int height;
+        long timestampNanos;
+    }
+
+    private static final Slot END = new Slot();
+
+    private final DataOutputStream out;
+    private final boolean quantized;
+    private final float scale;
+    private final int zeroPoint;
+    private final int rowSize;
+    private final int elementBytes;
+    private final ByteOrder order;
+    private final float minObjectness;
+    private final int interval;
+    private final BlockingQueue<Slot> free;
+    private final BlockingQueue<Slot> pending;
+    private final Thread writer;
+
+    private long calls;
+    private volatile long captured;
+    private volatile long skipped;
+    private volatile long storedRows;
+    private volatile long totalRows;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    /**
+     * Creates {@code path} and writes the header.
+     *
+     * @param postProcessor The model's post-processor, already pointed at its output; supplies the
+     *                      quantization, titles and the settings recorded as the baseline.
+     * @param order         Byte order of float outputs, the interpreter's native order.
+     * @param interval      Captures every {@code interval}-th tensor handed to {@link #record}.
+     * @param slots         Tensors that may wait for the writer before new ones are skipped.
+     */
+    public OutputCapture(final File path, final String modelName,
+                         final YoloPostProcessor postProcessor, final ByteOrder order,
+                         final float minObjectness, final int interval, final int slots)
+            throws IOException {
+        this.quantized = postProcessor.isQuantized();
+        this.scale = postProcessor.getScale();
+        this.zeroPoint = postProcessor.getZeroPoint();
+        this.rowSize = postProcessor.getRowSize();
+        this.elementBytes = quantized ? 1 : 4;
+        this.order = order;
+        this.minObjectness = minObjectness;
+        this.interval = Math.max(1, interval);
+
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(modelName);
+            out.writeInt(LAYOUT_BOXES);
+            out.writeInt(rowSize);
+            out.writeBoolean(quantized);
+            out.writeFloat(scale);
+            out.writeInt(zeroPoint);
+            out.writeBoolean(order == ByteOrder.LITTLE_ENDIAN);
+            out.writeFloat(postProcessor.getObjThresh());
+            out.writeFloat(postProcessor.getNmsThreshold());
+            out.writeInt(postProcessor.getMaxCandidates());
+            out.writeFloat(minObjectness);
+            final String[] titles = postProcessor.getTitles();
+            out.writeInt(titles.length);
+            for (final String title : titles) {
+                out.writeUTF(title);
+            }
+        } catch (final IOException e) {
+            out.close();
+            throw e;
+        }
+
+        free = new ArrayBlockingQueue<Slot>(Math.max(1, slots));
+        pending = new ArrayBlockingQueue<Slot>(Math.max(1, slots) + 1);
+        for (int i = 0; i < Math.max(1, slots); ++i) {
+            free.add(new Slot());
+        }
+        writer = new Thread(this::writeLoop, "output-capture");
+        writer.start();
+    }
+
+    public float getMinObjectness() {
+        return minObjectness;
+    }
+
+    /**
+     * Queues one image's output: {@code rows} rows starting at byte {@code byteOffset} of
+     * {@code output}. The buffer's position and limit are left alone.
+     */
+    public void record(final ByteBuffer output, final int byteOffset, final int rows,
+                       final int inputSize, final int width, final int height) {
+        if (closed || failure != null || calls++ % interval != 0) {
+            return;
+        }
+        final Slot slot = free.poll();
+        if (slot == null) {
+            skipped++;
+            return;
+        }
+        final int length = rows * rowSize * elementBytes;
+        if (slot.data.length < length) {
+            slot.data = new byte[length];
+        }
+        final ByteBuffer source = output.duplicate();
+        source.clear();
+        source.position(byteOffset);
+        source.get(slot.data, 0, length);
+        slot.length = length;
+        slot.rows = rows;
+        slot.inputSize = inputSize;
+        slot.width = width;
+        slot.height = height;
+        slot.timestampNanos = System.nanoTime();
+        pending.add(slot);
+        captured++;
+    }
+
+    private void writeLoop() {
+        int[] indices = new int[0];
+        try {
+            while (true) {
+                final Slot slot = pending.take();
+                if (slot == END) {
+                    return;
+                }
+                if (failure == null) {
+                    if (indices.length < slot.rows) {
+                        indices = new int[slot.rows];
+                    }
+                    try {
+                        write(slot, indices);
+                    } catch (final IOException e) {
+                        failure = e;
+                    }
+                }
+                free.add(slot);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final Slot slot, final int[] indices) throws IOException {
+        final ByteBuffer data = ByteBuffer.wrap(slot.data, 0, slot.length).order(order);
+        final int rowBytes = rowSize * elementBytes;
+        int stored = 0;
+        for (int r = 0; r < slot.rows; ++r) {
+            if (objectness(data, r * rowBytes + 4 * elementBytes) > minObjectness) {
+                indices[stored++] = r;
+            }
+        }
+
+        out.writeInt(RECORD_MAGIC);
+        out.writeLong(slot.timestampNanos);
+        out.writeInt(slot.inputSize);
+        out.writeInt(slot.width);
+        out.writeInt(slot.height);
+        out.writeInt(slot.rows);
+        out.writeInt(stored);
+        for (int i = 0; i < stored; ++i) {
+            out.writeInt(indices[i]);
+        }
+        for (int i = 0; i < stored; ++i) {
+            out.write(slot.data, indices[i] * rowBytes, rowBytes);
+        }
+        storedRows += stored;
+        totalRows += slot.rows;
+    }
+
+    private float objectness(final ByteBuffer data, final int byteIndex) {
+        if (quantized) {
+            return scale * (((int) data.get(byteIndex) & 0xFF) - zeroPoint);
+        }
+        return data.getFloat(byteIndex);
+    }
+
+    public long getCapturedCount() {
+        return captured;
+    }
+
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    public String getStatString() {
+        return String.format(Locale.US, "captured=%d skipped=%d rows kept=%.2f%%%s",
+                captured, skipped, totalRows == 0 ? 0 : 100f * storedRows / totalRows,
+                failure != null ? " failed: " + failure.getMessage() : "");
+    }
+
+    /**
+     * Writes out the queued tensors and closes the file.
+     *
+     * @throws IOException if writing failed at any point.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.add(END);
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
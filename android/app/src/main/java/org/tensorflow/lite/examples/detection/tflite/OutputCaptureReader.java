@@ -0,0 +1,198 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Reads a file written by {@link OutputCapture} back one record at a time, rebuilding each dense
+ * output tensor with the rows that were not stored set to zero objectness.
+ */
+public class OutputCaptureReader implements Closeable {
+    private final DataInputStream in;
+    private final String modelName;
+    private final int rowSize;
+    private final boolean quantized;
+    private final float scale;
+    private final int zeroPoint;
+    private final ByteOrder order;
+    private final float objThresh;
+    private final float nmsThresh;
+    private final int maxCandidates;
+    private final float minObjectness;
+    private final String[] titles;
+
+    // Current record.
+    private byte[] tensor = new byte[0];
+    private ByteBuffer tensorBuffer;
+    private int[] indices = new int[0];
+    private long timestampNanos;
+    private int inputSize;
+    private int width;
+    private int height;
+    private int rows;
+    private int storedRows;
+
+    public OutputCaptureReader(final File path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16));
+        try {
+            if (in.readInt() != OutputCapture.MAGIC) {
+                throw new IOException("Not an output capture: " + path);
+            }
+            final int version = in.readInt();
+            if (version != OutputCapture.VERSION) {
+                throw new IOException("Unsupported capture version " + version + ": " + path);
+            }
+            modelName = in.readUTF();
+            final int layout = in.readInt();
+            if (layout != OutputCapture.LAYOUT_BOXES) {
+                throw new IOException("Unsupported output layout " + layout + ": " + path);
+            }
+            rowSize = in.readInt();
+            quantized = in.readBoolean();
+            scale = in.readFloat();
+            zeroPoint = in.readInt();
+            order = in.readBoolean() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            objThresh = in.readFloat();
+            nmsThresh = in.readFloat();
+            maxCandidates = in.readInt();
+            minObjectness = in.readFloat();
+            titles = new String[in.readInt()];
+            for (int c = 0; c < titles.length; ++c) {
+                titles[c] = in.readUTF();
+            }
+        } catch (final IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return False at the end of the file or at a record cut short.
+     */
+    public boolean next() throws IOException {
+        try {
+            if (in.readInt() != OutputCapture.RECORD_MAGIC) {
+                throw new IOException("Corrupt output capture record");
+            }
+            timestampNanos = in.readLong();
+            inputSize = in.readInt();
+            width = in.readInt();
+            height = in.readInt();
+            rows = in.readInt();
+            storedRows = in.readInt();
+            if (rows < 0 || storedRows < 0 || storedRows > rows) {
+                throw new IOException("Corrupt output capture record");
+            }
+            if (indices.length < storedRows) {
+                indices = new int[storedRows];
+            }
+            for (int i = 0; i < storedRows; ++i) {
+                indices[i] = in.readInt();
+            }
+
+            final int rowBytes = rowSize * (quantized ? 1 : 4);
+            final int length = rows * rowBytes;
+            if (tensor.length != length) {
+                tensor = new byte[length];
+                tensorBuffer = ByteBuffer.wrap(tensor).order(order);
+            }
+            // Zero bytes are 0.0f for float outputs; quantized ones sit at the zero point.
+            Arrays.fill(tensor, quantized ? (byte) zeroPoint : 0);
+            for (int i = 0; i < storedRows; ++i) {
+                if (indices[i] < 0 || indices[i] >= rows) {
+                    throw new IOException("Corrupt output capture record");
+                }
+                in.readFully(tensor, indices[i] * rowBytes, rowBytes);
+            }
+            return true;
+        } catch (final EOFException e) {
+            return false;
+        }
+    }
+
+    /** The current record's dense output tensor, for {@link YoloPostProcessor#setOutput}. */
+    public ByteBuffer getTensor() {
+        return tensorBuffer;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    public boolean isQuantized() {
+        return quantized;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getZeroPoint() {
+        return zeroPoint;
+    }
+
+    /** Objectness threshold the app decoded with. */
+    public float getObjThresh() {
+        return objThresh;
+    }
+
+    public float getNmsThreshold() {
+        return nmsThresh;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    /** Rows at or below this objectness were not stored; lower thresholds replay inexactly. */
+    public float getMinObjectness() {
+        return minObjectness;
+    }
+
+    public String[] getTitles() {
+        return titles.clone();
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getStoredRows() {
+        return storedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
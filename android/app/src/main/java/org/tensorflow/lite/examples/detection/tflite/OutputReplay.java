@@ -0,0 +1,278 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Command-line tool that replays an {@link OutputCapture} file through the app's post-processing
+ * with the recorded settings and through an alternative configuration, and reports the latency
+ * of both and how the detections differ. Plain Java; run it on a desktop JVM with the app's
+ * tflite classes on the classpath:
+ *
+ * <pre>
+ * java -cp classes org.tensorflow.lite.examples.detection.tflite.OutputReplay capture.bin \
+ *     --nms 0.45 --max-candidates 100
+ * </pre>
+ */
+public class OutputReplay {
+    private static final String USAGE = "usage: OutputReplay <capture> [--threshold F] [--nms F]"
+            + " [--max-candidates N] [--dominant AREA|CONFIDENCE|BLEND] [--area-weight F]"
+            + " [--threads N] [--rounds N] [--match-iou F]";
+
+    /** What to compare the recorded post-processing against, and how. */
+    public static class Options {
+        /** Null keeps the recorded value. */
+        Float threshold;
+        Float nmsThreshold;
+        Integer maxCandidates;
+        DetectionBuffer.Ranking dominantRanking;
+        float areaWeight = 0.5f;
+        int threads = 1;
+        /** Passes over each record; the first only warms up when there are several. */
+        int rounds = 3;
+        /** Same-class IoU at which a baseline and an alternative detection count as the same. */
+        float matchIou = 0.5f;
+
+        static Options parse(final String[] args, final int start) {
+            final Options options = new Options();
+            for (int i = start; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--threshold":
+                        options.threshold = Float.parseFloat(value);
+                        break;
+                    case "--nms":
+                        options.nmsThreshold = Float.parseFloat(value);
+                        break;
+                    case "--max-candidates":
+                        options.maxCandidates = Integer.parseInt(value);
+                        break;
+                    case "--dominant":
+                        options.dominantRanking =
+                                DetectionBuffer.Ranking.valueOf(value.toUpperCase(Locale.US));
+                        break;
+                    case "--area-weight":
+                        options.areaWeight = Float.parseFloat(value);
+                        break;
+                    case "--threads":
+                        options.threads = Integer.parseInt(value);
+                        break;
+                    case "--rounds":
+                        options.rounds = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--match-iou":
+                        options.matchIou = Float.parseFloat(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+
+    /** Totals of one replay. */
+    public static class Report {
+        int records;
+        long baselineDetections;
+        long alternativeDetections;
+        long matched;
+        double matchedIouSum;
+        double scoreDeltaSum;
+        /** Baseline detections with no match in the alternative. */
+        long lost;
+        /** Alternative detections with no match in the baseline. */
+        long added;
+        int changedRecords;
+        long[] baselineNanos = new long[64];
+        long[] alternativeNanos = new long[64];
+        int timings;
+
+        void addTiming(final long baseline, final long alternative) {
+            if (timings == baselineNanos.length) {
+                baselineNanos = Arrays.copyOf(baselineNanos, timings * 2);
+                alternativeNanos = Arrays.copyOf(alternativeNanos, timings * 2);
+            }
+            baselineNanos[timings] = baseline;
+            alternativeNanos[timings] = alternative;
+            timings++;
+        }
+
+        void print(final PrintStream out) {
+            out.printf(Locale.US, "records: %d, changed: %d%n", records, changedRecords);
+            out.printf(Locale.US, "detections: baseline %d, alternative %d%n",
+                    baselineDetections, alternativeDetections);
+            out.printf(Locale.US, "matched %d (mean IoU %.3f, mean score delta %+.4f), lost %d,"
+                            + " added %d%n",
+                    matched, matched == 0 ? 0 : matchedIouSum / matched,
+                    matched == 0 ? 0 : scoreDeltaSum / matched, lost, added);
+            printLatency(out, "baseline", baselineNanos);
+            printLatency(out, "alternative", alternativeNanos);
+        }
+
+        private void printLatency(final PrintStream out, final String name, final long[] nanos) {
+            if (timings == 0) {
+                return;
+            }
+            final long[] sorted = Arrays.copyOf(nanos, timings);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (final long n : sorted) {
+                sum += n;
+            }
+            out.printf(Locale.US, "%s latency: mean %.3fms p50 %.3fms p95 %.3fms max %.3fms%n",
+                    name, sum / 1e6 / timings, sorted[timings / 2] / 1e6,
+                    sorted[Math.min(timings - 1, (int) (timings * 0.95))] / 1e6,
+                    sorted[timings - 1] / 1e6);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1 || args[0].startsWith("--")) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        final Options options;
+        try {
+            options = Options.parse(args, 1);
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        replay(new File(args[0]), options, System.out).print(System.out);
+    }
+
+    /** Replays every record of {@code capture}, printing the header summary to {@code log}. */
+    public static Report replay(final File capture, final Options options, final PrintStream log)
+            throws IOException {
+        try (OutputCaptureReader reader = new OutputCaptureReader(capture)) {
+            log.printf(Locale.US, "model %s, %d classes, %s, recorded threshold %.2f nms %.2f"
+                            + " max candidates %d, rows stored above objectness %.2f%n",
+                    reader.getModelName(), reader.getRowSize() - 5,
+                    reader.isQuantized() ? "quantized" : "float", reader.getObjThresh(),
+                    reader.getNmsThreshold(), reader.getMaxCandidates(),
+                    reader.getMinObjectness());
+
+            final YoloPostProcessor baseline =
+                    new YoloPostProcessor(reader.getTitles(), reader.getObjThresh());
+            baseline.setNmsThreshold(reader.getNmsThreshold());
+            baseline.setMaxCandidates(reader.getMaxCandidates());
+            baseline.setDecodeThreads(options.threads);
+
+            final float threshold =
+                    options.threshold != null ? options.threshold : reader.getObjThresh();
+            if (threshold < reader.getMinObjectness()) {
+                log.printf(Locale.US, "warning: threshold %.2f is below the stored objectness"
+                        + " floor %.2f; rows in between were not captured%n",
+                        threshold, reader.getMinObjectness());
+            }
+            final YoloPostProcessor alternative =
+                    new YoloPostProcessor(reader.getTitles(), threshold);
+            alternative.setNmsThreshold(options.nmsThreshold != null
+                    ? options.nmsThreshold : reader.getNmsThreshold());
+            alternative.setMaxCandidates(options.maxCandidates != null
+                    ? options.maxCandidates : reader.getMaxCandidates());
+            alternative.setDominantOnly(options.dominantRanking, options.areaWeight);
+            alternative.setDecodeThreads(options.threads);
+
+            final Report report = new Report();
+            final DetectionBuffer baselineResults = new DetectionBuffer();
+            final DetectionBuffer alternativeResults = new DetectionBuffer();
+            try {
+                while (reader.next()) {
+                    baseline.setOutput(reader.getTensor(), reader.isQuantized(),
+                            reader.getScale(), reader.getZeroPoint(), reader.getRowSize());
+                    alternative.setOutput(reader.getTensor(), reader.isQuantized(),
+                            reader.getScale(), reader.getZeroPoint(), reader.getRowSize());
+                    for (int round = 0; round < options.rounds; ++round) {
+                        final long baselineNanos = run(baseline, reader, baselineResults);
+                        final long alternativeNanos =
+                                run(alternative, reader, alternativeResults);
+                        if (round > 0 || options.rounds == 1) {
+                            report.addTiming(baselineNanos, alternativeNanos);
+                        }
+                    }
+                    compare(baselineResults, alternativeResults, options.matchIou, report);
+                    report.records++;
+                }
+            } finally {
+                baseline.shutdown();
+                alternative.shutdown();
+            }
+            return report;
+        }
+    }
+
+    private static long run(final YoloPostProcessor postProcessor,
+                            final OutputCaptureReader reader, final DetectionBuffer results) {
+        final long start = System.nanoTime();
+        postProcessor.decode(0, reader.getRows(), reader.getInputSize(), reader.getWidth(),
+                reader.getHeight(), results);
+        postProcessor.suppress(results);
+        return System.nanoTime() - start;
+    }
+
+    // Greedy same-class matching by IoU, best baseline detections first.
+    private static void compare(final DetectionBuffer baseline, final DetectionBuffer alternative,
+                                final float matchIou, final Report report) {
+        final boolean[] taken = new boolean[alternative.size()];
+        long matched = 0;
+        boolean changed = baseline.size() != alternative.size();
+        for (int i = 0; i < baseline.size(); ++i) {
+            int best = -1;
+            float bestIou = matchIou;
+            for (int j = 0; j < alternative.size(); ++j) {
+                if (taken[j] || alternative.getDetectedClass(j) != baseline.getDetectedClass(i)) {
+                    continue;
+                }
+                final float iou = iou(baseline, i, alternative, j);
+                if (iou >= bestIou) {
+                    best = j;
+                    bestIou = iou;
+                }
+            }
+            if (best < 0) {
+                report.lost++;
+                changed = true;
+                continue;
+            }
+            taken[best] = true;
+            matched++;
+            report.matchedIouSum += bestIou;
+            report.scoreDeltaSum += alternative.getScore(best) - baseline.getScore(i);
+            if (bestIou < 1 || alternative.getScore(best) != baseline.getScore(i)) {
+                changed = true;
+            }
+        }
+        report.matched += matched;
+        report.added += alternative.size() - matched;
+        report.baselineDetections += baseline.size();
+        report.alternativeDetections += alternative.size();
+        if (changed) {
+            report.changedRecords++;
+        }
+    }
+
+    private static float iou(final DetectionBuffer a, final int i, final DetectionBuffer b,
+                             final int j) {
+        final float width = Math.min(a.getRight(i), b.getRight(j))
+                - Math.max(a.getLeft(i), b.getLeft(j));
+        final float height = Math.min(a.getBottom(i), b.getBottom(j))
+                - Math.max(a.getTop(i), b.getTop(j));
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        final float intersection = width * height;
+        final float union = a.getWidth(i) * a.getHeight(i) + b.getWidth(j) * b.getHeight(j)
+                - intersection;
+        return union <= 0 ? 0 : intersection / union;
+    }
+}
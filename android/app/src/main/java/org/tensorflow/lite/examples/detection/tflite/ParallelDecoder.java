@@ -0,0 +1,211 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Splits output decoding into contiguous row ranges and runs them on a small set of persistent
+ * worker threads, the calling thread taking the first range. Each worker fills its own candidate
+ * buffer; the buffers are merged into the caller's buffer once all ranges are done, so no locking
+ * happens per row and nothing is allocated per frame.
+ *
+ * Rows must be independent: the range decoder may only read shared state.
+ *
+ * The post-processors decode with {@link #DEFAULT_WORKERS}. ParallelDecoderBenchmark in the unit
+ * tests measures 1 to 8 workers; raise the default only where it shows a speedup.
+ */
+public class ParallelDecoder {
+    /** Serial: no multi-core measurement has shown parallel decode to be faster yet. */
+    public static final int DEFAULT_WORKERS = 1;
+
+    /** Decodes rows {@code [start, end)} into {@code out} using {@link DetectionBuffer#offer}. */
+    public interface RangeDecoder {
+        void decode(int start, int end, DetectionBuffer out);
+    }
+
+    private final int workers;
+    private final DetectionBuffer[] buffers;
+    private final Thread[] threads;
+
+    private final Object lock = new Object();
+    private int generation;
+    private int pending;
+    private boolean shutdown;
+    private Throwable failure;
+
+    // Current job, published under lock.
+    private RangeDecoder decoder;
+    private int rows;
+
+    public ParallelDecoder(final int workers) {
+        this.workers = Math.max(1, workers);
+        buffers = new DetectionBuffer[this.workers];
+        for (int w = 0; w < this.workers; ++w) {
+            buffers[w] = new DetectionBuffer();
+        }
+        threads = new Thread[this.workers - 1];
+        for (int w = 1; w < this.workers; ++w) {
+            final int index = w;
+            threads[w - 1] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    workerLoop(index);
+                }
+            }, "decode-" + w);
+            threads[w - 1].setDaemon(true);
+            threads[w - 1].start();
+        }
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Decodes {@code rows} rows and leaves the best {@code limit} candidates of all ranges in
+     * {@code out}, which is cleared first. Blocks until every range is done.
+     */
+    public void decode(final int rows, final int limit, final RangeDecoder decoder, final DetectionBuffer out) {
+        if (workers == 1) {
+            out.clear(limit);
+            decoder.decode(0, rows, out);
+            return;
+        }
+        for (final DetectionBuffer buffer : buffers) {
+            buffer.clear(limit);
+        }
+        synchronized (lock) {
+            if (shutdown) {
+                throw new IllegalStateException("Decoder has been shut down");
+            }
+            this.decoder = decoder;
+            this.rows = rows;
+            failure = null;
+            pending = workers - 1;
+            generation++;
+            lock.notifyAll();
+        }
+
+        Throwable callerFailure = null;
+        try {
+            decoder.decode(rangeStart(0, rows), rangeStart(1, rows), buffers[0]);
+        } catch (final RuntimeException e) {
+            callerFailure = e;
+        }
+
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while decoding", e);
+                }
+            }
+            this.decoder = null;
+            if (callerFailure == null) {
+                callerFailure = failure;
+            }
+        }
+        if (callerFailure != null) {
+            throw new RuntimeException("Decoding failed", callerFailure);
+        }
+
+        out.clear(limit);
+        for (final DetectionBuffer buffer : buffers) {
+            for (int i = 0; i < buffer.size(); ++i) {
+                out.offer(buffer.getLeft(i), buffer.getTop(i), buffer.getRight(i), buffer.getBottom(i),
+                        buffer.getScore(i), buffer.getDetectedClass(i), buffer.getTitle(i));
+            }
+        }
+    }
+
+    private int rangeStart(final int worker, final int rows) {
+        return (int) ((long) rows * worker / workers);
+    }
+
+    private void workerLoop(final int index) {
+        int seen = 0;
+        while (true) {
+            final RangeDecoder job;
+            final int jobRows;
+            synchronized (lock) {
+                while (generation == seen && !shutdown) {
+                    try {
+                        lock.wait();
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+                if (shutdown) {
+                    return;
+                }
+                seen = generation;
+                job = decoder;
+                jobRows = rows;
+            }
+
+            Throwable error = null;
+            try {
+                job.decode(rangeStart(index, jobRows), rangeStart(index + 1, jobRows), buffers[index]);
+            } catch (final Throwable t) {
+                error = t;
+            }
+
+            synchronized (lock) {
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                if (--pending == 0) {
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /** Stops the worker threads. Decoding afterwards throws. */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Number of cores faster than the slowest cluster, i.e. the big and prime cores of a big.LITTLE
+     * SoC, or half the available processors if all cores are alike or cpufreq is unreadable. Only a
+     * hint for a worker count: the workers are ordinary threads that the scheduler places, they
+     * are not pinned to these cores.
+     */
+    public static int bigCoreCount() {
+        final int cpus = Runtime.getRuntime().availableProcessors();
+        final long[] freqs = new long[cpus];
+        long minFreq = Long.MAX_VALUE;
+        for (int cpu = 0; cpu < cpus; ++cpu) {
+            freqs[cpu] = readMaxFreq(cpu);
+            minFreq = Math.min(minFreq, freqs[cpu]);
+        }
+        int bigCores = 0;
+        if (minFreq > 0) {
+            for (final long freq : freqs) {
+                if (freq > minFreq) {
+                    bigCores++;
+                }
+            }
+        }
+        if (bigCores == 0) {
+            bigCores = cpus / 2;
+        }
+        return Math.max(1, bigCores);
+    }
+
+    private static long readMaxFreq(final int cpu) {
+        final String path = "/sys/devices/system/cpu/cpu" + cpu + "/cpufreq/cpuinfo_max_freq";
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            return Long.parseLong(reader.readLine().trim());
+        } catch (final IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import org.tensorflow.lite.examples.detection.env.FrameAdmissionController;
+import org.tensorflow.lite.examples.detection.env.PerceptualHash;
+
+import java.util.Locale;
+
+/**
+ * Small LRU cache from perceptual image hashes to detection results, so that views seen moments
+ * ago do not have to be run through the model again.
+ *
+ * A lookup hits the freshest entry whose hash is within the maximum Hamming distance and that is
+ * younger than the maximum age. Cached confidences decay with the entry's age (halving every
+ * half-life), and an entry whose decayed results all fall below the minimum confidence no longer
+ * hits, so a stale view gets re-detected rather than fading out.
+ *
+ * Entries are stored as copies in compact per-entry arrays. Not thread-safe.
+ */
+public class ResultCache {
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final int DEFAULT_MAX_DISTANCE = 10;
+    public static final long DEFAULT_MAX_AGE_MS = 1500;
+    public static final long DEFAULT_HALF_LIFE_MS = 3000;
+
+    private final FrameAdmissionController.Clock clock;
+    private final long[] hashes;
+    private final long[] storedAt;
+    private final long[] usedAt;
+    private final int[] sizes;
+    private final float[][] boxes;
+    private final float[][] scores;
+    private final int[][] classes;
+    private final String[][] titles;
+    private int count;
+
+    private int maxDistance = DEFAULT_MAX_DISTANCE;
+    private long maxAgeNanos = DEFAULT_MAX_AGE_MS * 1000000L;
+    private long halfLifeNanos = DEFAULT_HALF_LIFE_MS * 1000000L;
+    private float minConfidence;
+
+    private long hits;
+    private long misses;
+    private long stores;
+    private long storedInferenceNanos;
+
+    public ResultCache(final int capacity, final FrameAdmissionController.Clock clock) {
+        final int slots = Math.max(1, capacity);
+        this.clock = clock;
+        hashes = new long[slots];
+        storedAt = new long[slots];
+        usedAt = new long[slots];
+        sizes = new int[slots];
+        boxes = new float[slots][];
+        scores = new float[slots][];
+        classes = new int[slots][];
+        titles = new String[slots][];
+    }
+
+    /** Hashes at most {@code maxDistance} bits apart count as the same view. */
+    public void setMaxDistance(final int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /** Entries older than {@code maxAgeMs} never hit; a half-life of 0 disables decay. */
+    public void setAging(final long maxAgeMs, final long halfLifeMs) {
+        this.maxAgeNanos = maxAgeMs * 1000000L;
+        this.halfLifeNanos = halfLifeMs * 1000000L;
+    }
+
+    /** Entries with detections that have all decayed below this no longer hit. */
+    public void setMinConfidence(final float minConfidence) {
+        this.minConfidence = minConfidence;
+    }
+
+    /**
+     * Copies the cached results for {@code hash} into {@code out}, with decayed confidences.
+     *
+     * @return whether there was a hit; {@code out} is left untouched otherwise.
+     */
+    public boolean lookup(final long hash, final DetectionBuffer out) {
+        final long now = clock.nanoTime();
+        final int slot = findSlot(hash, now);
+        if (slot < 0) {
+            misses++;
+            return false;
+        }
+        final float decay = halfLifeNanos > 0
+                ? (float) Math.pow(0.5, (double) (now - storedAt[slot]) / halfLifeNanos) : 1f;
+        final int size = sizes[slot];
+        boolean confident = size == 0;
+        for (int i = 0; i < size && !confident; ++i) {
+            confident = scores[slot][i] * decay >= minConfidence;
+        }
+        if (!confident) {
+            remove(slot);
+            misses++;
+            return false;
+        }
+
+        out.clear();
+        final float[] box = boxes[slot];
+        for (int i = 0; i < size; ++i) {
+            out.add(box[i * 4], box[i * 4 + 1], box[i * 4 + 2], box[i * 4 + 3],
+                    scores[slot][i] * decay, classes[slot][i], titles[slot][i]);
+        }
+        usedAt[slot] = now;
+        hits++;
+        return true;
+    }
+
+    /**
+     * Stores freshly detected {@code results} for {@code hash}, replacing an older entry for the
+     * same view or else the least recently used one.
+     *
+     * @param inferenceNanos What producing the results cost, for {@link #getSavedNanos()}.
+     */
+    public void store(final long hash, final DetectionBuffer results, final long inferenceNanos) {
+        final long now = clock.nanoTime();
+        stores++;
+        storedInferenceNanos += inferenceNanos;
+
+        int slot = -1;
+        int bestDistance = maxDistance + 1;
+        for (int i = 0; i < count; ++i) {
+            final int distance = PerceptualHash.distance(hash, hashes[i]);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                slot = i;
+            }
+        }
+        if (slot < 0) {
+            if (count < hashes.length) {
+                slot = count++;
+            } else {
+                slot = 0;
+                for (int i = 1; i < count; ++i) {
+                    if (usedAt[i] < usedAt[slot]) {
+                        slot = i;
+                    }
+                }
+            }
+        }
+
+        final int size = results.size();
+        if (scores[slot] == null || scores[slot].length < size) {
+            final int length = Math.max(1, size);
+            boxes[slot] = new float[length * 4];
+            scores[slot] = new float[length];
+            classes[slot] = new int[length];
+            titles[slot] = new String[length];
+        }
+        for (int i = 0; i < size; ++i) {
+            boxes[slot][i * 4] = results.getLeft(i);
+            boxes[slot][i * 4 + 1] = results.getTop(i);
+            boxes[slot][i * 4 + 2] = results.getRight(i);
+            boxes[slot][i * 4 + 3] = results.getBottom(i);
+            scores[slot][i] = results.getScore(i);
+            classes[slot][i] = results.getDetectedClass(i);
+            titles[slot][i] = results.getTitle(i);
+        }
+        for (int i = size; i < titles[slot].length; ++i) {
+            titles[slot][i] = null;
+        }
+        hashes[slot] = hash;
+        sizes[slot] = size;
+        storedAt[slot] = now;
+        usedAt[slot] = now;
+    }
+
+    private int findSlot(final long hash, final long now) {
+        int best = -1;
+        int bestDistance = maxDistance + 1;
+        for (int i = 0; i < count; ++i) {
+            if (now - storedAt[i] > maxAgeNanos) {
+                continue;
+            }
+            final int distance = PerceptualHash.distance(hash, hashes[i]);
+            if (distance < bestDistance
+                    || (distance == bestDistance && best >= 0 && storedAt[i] > storedAt[best])) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Moves the last entry into the freed slot, keeping its arrays for reuse.
+    private void remove(final int slot) {
+        final int last = --count;
+        if (slot == last) {
+            return;
+        }
+        hashes[slot] = hashes[last];
+        storedAt[slot] = storedAt[last];
+        usedAt[slot] = usedAt[last];
+        sizes[slot] = sizes[last];
+        final float[] freeBoxes = boxes[slot];
+        final float[] freeScores = scores[slot];
+        final int[] freeClasses = classes[slot];
+        final String[] freeTitles = titles[slot];
+        boxes[slot] = boxes[last];
+        scores[slot] = scores[last];
+        classes[slot] = classes[last];
+        titles[slot] = titles[last];
+        boxes[last] = freeBoxes;
+        scores[last] = freeScores;
+        classes[last] = freeClasses;
+        titles[last] = freeTitles;
+    }
+
+    /** Drops all entries, e.g. after the detector's input size changed. */
+    public void clear() {
+        for (int i = 0; i < count; ++i) {
+            sizes[i] = 0;
+        }
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public float getHitRatio() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (float) hits / lookups;
+    }
+
+    /** Inference time avoided by hits, at the mean cost of the stored results. */
+    public long getSavedNanos() {
+        return stores == 0 ? 0 : hits * (storedInferenceNanos / stores);
+    }
+
+    /** Approximate heap held by the cache: array payloads, counting references as 4 bytes. */
+    public long getMemoryBytes() {
+        long bytes = (long) hashes.length * (8 * 3 + 4 + 4 * 4);
+        for (int i = 0; i < hashes.length; ++i) {
+            if (scores[i] != null) {
+                bytes += (boxes[i].length + scores[i].length + classes[i].length + titles[i].length) * 4L;
+            }
+        }
+        return bytes;
+    }
+
+    public String getStatString() {
+        return String.format(Locale.US,
+                "cache entries=%d/%d hits=%d misses=%d ratio=%.2f memory=%dB saved=%.1fms",
+                count, hashes.length, hits, misses, getHitRatio(), getMemoryBytes(),
+                getSavedNanos() / 1e6f);
+    }
+}
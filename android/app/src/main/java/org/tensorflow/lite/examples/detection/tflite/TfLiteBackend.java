@@ -0,0 +1,163 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.os.Build;
+
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+import org.tensorflow.lite.gpu.GpuDelegate;
+import org.tensorflow.lite.nnapi.NnApiDelegate;
+
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@link InferenceBackend} on the TensorFlow Lite {@link Interpreter}. */
+public class TfLiteBackend implements InferenceBackend {
+    private final MappedByteBuffer model;
+    private int numThreads;
+    private Interpreter interpreter;
+    /** holds a gpu delegate */
+    private GpuDelegate gpuDelegate;
+    /** holds an nnapi delegate */
+    private NnApiDelegate nnapiDelegate;
+    // Inputs resized away from the model's shapes, re-applied when the interpreter is recreated.
+    private final Map<Integer, int[]> resizedInputs = new HashMap<>();
+
+    /**
+     * @param useNNAPI Starts on the NNAPI delegate, on Android P and above.
+     * @param useGpu   Starts on the GPU delegate, tuned for sustained speed.
+     */
+    public TfLiteBackend(final MappedByteBuffer model, final int numThreads,
+                         final boolean useNNAPI, final boolean useGpu) {
+        this.model = model;
+        this.numThreads = numThreads;
+        interpreter = new Interpreter(model, createOptions(useNNAPI, useGpu));
+    }
+
+    // Fresh options with only the requested delegates, which it creates; options cannot drop a
+    // delegate once added, so every accelerator change starts from new ones.
+    private Interpreter.Options createOptions(final boolean useNNAPI, final boolean useGpu) {
+        final Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(numThreads);
+        if (useNNAPI) {
+            // Initialize interpreter with NNAPI delegate for Android Pie or above
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                nnapiDelegate = new NnApiDelegate();
+                options.addDelegate(nnapiDelegate);
+                options.setUseNNAPI(true);
+            }
+        }
+        if (useGpu) {
+            GpuDelegate.Options gpu_options = new GpuDelegate.Options();
+            gpu_options.setPrecisionLossAllowed(true); // It seems that the default is true
+            gpu_options.setInferencePreference(
+                    GpuDelegate.Options.INFERENCE_PREFERENCE_SUSTAINED_SPEED);
+            gpuDelegate = new GpuDelegate(gpu_options);
+            options.addDelegate(gpuDelegate);
+        }
+        return options;
+    }
+
+    private void closeDelegates() {
+        if (gpuDelegate != null) {
+            gpuDelegate.close();
+            gpuDelegate = null;
+        }
+        if (nnapiDelegate != null) {
+            nnapiDelegate.close();
+            nnapiDelegate = null;
+        }
+    }
+
+    @Override
+    public int getInputCount() {
+        return interpreter.getInputTensorCount();
+    }
+
+    @Override
+    public int getOutputCount() {
+        return interpreter.getOutputTensorCount();
+    }
+
+    @Override
+    public TensorSpec getInputSpec(final int index) {
+        return spec(interpreter.getInputTensor(index));
+    }
+
+    @Override
+    public TensorSpec getOutputSpec(final int index) {
+        return spec(interpreter.getOutputTensor(index));
+    }
+
+    private static TensorSpec spec(final Tensor tensor) {
+        final DataType type;
+        switch (tensor.dataType()) {
+            case FLOAT32:
+                type = DataType.FLOAT32;
+                break;
+            case UINT8:
+                type = DataType.UINT8;
+                break;
+            case INT8:
+                type = DataType.INT8;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported tensor type " + tensor.dataType());
+        }
+        final Tensor.QuantizationParams params = tensor.quantizationParams();
+        return new TensorSpec(tensor.shape(), type, params.getScale(), params.getZeroPoint());
+    }
+
+    @Override
+    public void resizeInput(final int index, final int[] shape) {
+        final int[] previous = interpreter.getInputTensor(index).shape();
+        if (Arrays.equals(previous, shape)) {
+            return;
+        }
+        try {
+            interpreter.resizeInput(index, shape);
+            interpreter.allocateTensors();
+        } catch (final RuntimeException e) {
+            // Left at the new shape, the next run would not match the callers' buffers.
+            interpreter.resizeInput(index, previous);
+            interpreter.allocateTensors();
+            throw e;
+        }
+        resizedInputs.put(index, shape.clone());
+    }
+
+    @Override
+    public void run(final Object[] inputs, final Map<Integer, Object> outputs) {
+        interpreter.runForMultipleInputsOutputs(inputs, outputs);
+    }
+
+    @Override
+    public void setNumThreads(final int numThreads) {
+        this.numThreads = numThreads;
+        interpreter.setNumThreads(numThreads);
+    }
+
+    @Override
+    public void setAccelerator(final Accelerator accelerator) {
+        final boolean useNNAPI = accelerator == Accelerator.NNAPI;
+        final boolean useGpu = accelerator == Accelerator.GPU;
+        if (useNNAPI == (nnapiDelegate != null) && useGpu == (gpuDelegate != null)) {
+            return;
+        }
+        // The old delegates are only released once no interpreter uses them.
+        interpreter.close();
+        closeDelegates();
+        interpreter = new Interpreter(model, createOptions(useNNAPI, useGpu));
+        for (final Map.Entry<Integer, int[]> input : resizedInputs.entrySet()) {
+            interpreter.resizeInput(input.getKey(), input.getValue());
+        }
+        interpreter.allocateTensors();
+    }
+
+    @Override
+    public void close() {
+        interpreter.close();
+        closeDelegates();
+    }
+}
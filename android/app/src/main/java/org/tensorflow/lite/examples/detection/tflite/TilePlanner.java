@@ -0,0 +1,142 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.util.Locale;
+
+/**
+ * Lays out overlapping square tiles over a frame and decides how many to run.
+ *
+ * The tile count follows the latency budget: after each batch the mean per-image cost is updated,
+ * and the next frame gets as many tiles as fit in the budget next to the full-frame pass, up to
+ * the maximum. For a given count, the grid with the smallest tiles (the largest magnification)
+ * is chosen. Not thread-safe.
+ */
+public class TilePlanner {
+    public static final int DEFAULT_MAX_TILES = 6;
+    public static final float DEFAULT_OVERLAP = 0.2f;
+
+    // Weight of the newest batch in the per-image cost average.
+    private static final float COST_SMOOTHING = 0.2f;
+
+    private final long budgetNanos;
+    private final int maxTiles;
+    private final float overlap;
+
+    private float imageNanos;
+    private int tileCount;
+
+    private int frameWidth;
+    private int frameHeight;
+    private int plannedCount = -1;
+    private int columns;
+    private int rows;
+    private int side;
+    private final int[] lefts;
+    private final int[] tops;
+
+    /**
+     * @param budgetMs  Time one frame's batch, full frame plus tiles, may take.
+     * @param maxTiles  Upper bound on tiles per frame.
+     * @param overlap   Fraction of a tile shared with each neighbour, so seams do not cut every
+     *                  object in half.
+     */
+    public TilePlanner(final long budgetMs, final int maxTiles, final float overlap) {
+        this.budgetNanos = budgetMs * 1000000L;
+        this.maxTiles = Math.max(0, maxTiles);
+        this.overlap = overlap;
+        // Optimistic start; the first batch corrects it.
+        this.tileCount = this.maxTiles;
+        lefts = new int[this.maxTiles];
+        tops = new int[this.maxTiles];
+    }
+
+    /** Reports how long a batch of {@code images} images, full frame included, took. */
+    public void onBatch(final long nanos, final int images) {
+        final float perImage = (float) nanos / Math.max(1, images);
+        imageNanos = imageNanos == 0 ? perImage
+                : (1 - COST_SMOOTHING) * imageNanos + COST_SMOOTHING * perImage;
+        final int affordable = (int) (budgetNanos / imageNanos) - 1;
+        tileCount = Math.max(0, Math.min(maxTiles, affordable));
+    }
+
+    /** How many tiles the next {@link #plan} asks for, before rounding to a grid. */
+    public int getTargetTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Lays out the tiles for a frame. Cheap when neither the frame size nor the tile count
+     * changed since the last call.
+     *
+     * @return Whether the layout changed.
+     */
+    public boolean plan(final int width, final int height) {
+        if (width == frameWidth && height == frameHeight && tileCount == plannedCount) {
+            return false;
+        }
+        frameWidth = width;
+        frameHeight = height;
+        plannedCount = tileCount;
+
+        columns = 0;
+        rows = 0;
+        side = 0;
+        // One tile would just repeat the full-frame pass.
+        if (tileCount >= 2) {
+            for (int c = 1; c <= tileCount; ++c) {
+                for (int r = 1; c * r <= tileCount; ++r) {
+                    if (c * r < 2) {
+                        continue;
+                    }
+                    final int s = Math.max(cover(width, c), cover(height, r));
+                    if (side == 0 || s < side || (s == side && c * r < columns * rows)) {
+                        side = s;
+                        columns = c;
+                        rows = r;
+                    }
+                }
+            }
+        }
+        for (int r = 0; r < rows; ++r) {
+            for (int c = 0; c < columns; ++c) {
+                lefts[r * columns + c] = position(width, c, columns);
+                tops[r * columns + c] = position(height, r, rows);
+            }
+        }
+        return true;
+    }
+
+    // Smallest tile side for n tiles to span length with the configured overlap.
+    private int cover(final int length, final int n) {
+        return (int) Math.ceil(length / (n - (n - 1) * overlap));
+    }
+
+    // Tiles are spread evenly, the outer ones flush with the frame edges; a single tile larger
+    // than the frame is centered on it.
+    private int position(final int length, final int index, final int n) {
+        if (n == 1) {
+            return (length - side) / 2;
+        }
+        return (int) ((long) (length - side) * index / (n - 1));
+    }
+
+    public int getTileCount() {
+        return columns * rows;
+    }
+
+    public int getTileSide() {
+        return side;
+    }
+
+    public int getTileLeft(final int tile) {
+        return lefts[tile];
+    }
+
+    public int getTileTop(final int tile) {
+        return tops[tile];
+    }
+
+    public String getStatString() {
+        return String.format(Locale.US, "tiles %dx%d side=%d image=%.1fms",
+                columns, rows, side, imageNanos / 1e6f);
+    }
+}
@@ -0,0 +1,166 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import org.tensorflow.lite.examples.detection.env.BitmapPool;
+import org.tensorflow.lite.examples.detection.env.ImageUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sliced inference for small objects: besides the usual downscaled full frame, overlapping tiles
+ * of the full-resolution frame are scaled to the model input and run in the same batch. Tile boxes
+ * are mapped back to frame coordinates and merged across tile seams with
+ * {@link DetectionBuffer#mergeOverlapping(float)}. A {@link TilePlanner} keeps the tile count
+ * within the latency budget.
+ *
+ * The classifier runs full NMS on every pass, since reducing each tile to its dominant box would
+ * drop the small objects tiling is for; {@link #setDominantOnly} reduces only the merged result.
+ *
+ * Not thread-safe; use from the inference thread.
+ */
+public class TiledDetector {
+    // Share of the smaller box two detections must overlap by to be merged.
+    private static final float MERGE_OVERLAP = 0.25f;
+
+    private final Classifier classifier;
+    private final TilePlanner planner;
+    private final int sensorOrientation;
+    private final Paint filterPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF box = new RectF();
+
+    private final List<Bitmap> batch = new ArrayList<Bitmap>();
+    private final List<DetectionBuffer> batchResults = new ArrayList<DetectionBuffer>();
+    private final List<Bitmap> tileBitmaps = new ArrayList<Bitmap>();
+    private final List<Canvas> tileCanvases = new ArrayList<Canvas>();
+    private final List<Matrix> frameToTile = new ArrayList<Matrix>();
+    private final List<Matrix> tileToFrame = new ArrayList<Matrix>();
+    private int inputSize;
+    // Null to keep every merged detection.
+    private DetectionBuffer.Ranking dominantRanking;
+    private float dominantAreaWeight;
+
+    /**
+     * @param classifier        Runs the batches; should batch natively, e.g. a YoloV5Classifier.
+     * @param sensorOrientation Rotation applied to the frame to make it upright, as for the crop.
+     */
+    public TiledDetector(final Classifier classifier, final TilePlanner planner,
+                         final int sensorOrientation) {
+        this.classifier = classifier;
+        this.planner = planner;
+        this.sensorOrientation = sensorOrientation;
+        classifier.setDominantOnly(null, 0);
+    }
+
+    /**
+     * Keeps only the dominant detection of the merged frame, as {@link Classifier#setDominantOnly}
+     * does for a plain pass; null ranking keeps them all.
+     */
+    public void setDominantOnly(final DetectionBuffer.Ranking ranking, final float areaWeight) {
+        dominantRanking = ranking;
+        dominantAreaWeight = areaWeight;
+    }
+
+    public TilePlanner getPlanner() {
+        return planner;
+    }
+
+    /** Hands the tile bitmaps back to the bitmap pool; the detector must not be used after. */
+    public void close() {
+        releaseTiles();
+    }
+
+    private void releaseTiles() {
+        for (final Canvas canvas : tileCanvases) {
+            canvas.setBitmap(null);
+        }
+        for (final Bitmap bitmap : tileBitmaps) {
+            BitmapPool.shared().release(bitmap);
+        }
+        tileBitmaps.clear();
+        tileCanvases.clear();
+        frameToTile.clear();
+        tileToFrame.clear();
+    }
+
+    /**
+     * Detects in the full-frame crop and in the planned tiles of {@code frame}, leaving merged
+     * detections in frame coordinates in {@code out}.
+     *
+     * @param crop        The frame already transformed to the model input, as for a plain pass.
+     * @param cropToFrame Maps crop coordinates back to the frame.
+     */
+    public void detect(final Bitmap frame, final Bitmap crop, final Matrix cropToFrame,
+                       final DetectionBuffer out) {
+        final int size = crop.getWidth();
+        if (planner.plan(frame.getWidth(), frame.getHeight()) || size != inputSize) {
+            layOut(size);
+        }
+        final int tiles = planner.getTileCount();
+
+        batch.clear();
+        batch.add(crop);
+        for (int t = 0; t < tiles; ++t) {
+            tileCanvases.get(t).drawBitmap(frame, frameToTile.get(t), filterPaint);
+            batch.add(tileBitmaps.get(t));
+        }
+        while (batchResults.size() < batch.size()) {
+            batchResults.add(new DetectionBuffer());
+        }
+
+        final long start = System.nanoTime();
+        classifier.recognizeBatch(batch, batchResults.subList(0, batch.size()));
+        planner.onBatch(System.nanoTime() - start, batch.size());
+
+        out.clear();
+        for (int b = 0; b < batch.size(); ++b) {
+            final Matrix toFrame = b == 0 ? cropToFrame : tileToFrame.get(b - 1);
+            final DetectionBuffer results = batchResults.get(b);
+            for (int i = 0; i < results.size(); ++i) {
+                box.set(results.getLeft(i), results.getTop(i),
+                        results.getRight(i), results.getBottom(i));
+                toFrame.mapRect(box);
+                out.add(box.left, box.top, box.right, box.bottom,
+                        results.getScore(i), results.getDetectedClass(i), results.getTitle(i));
+            }
+        }
+        out.mergeOverlapping(MERGE_OVERLAP);
+        if (dominantRanking != null) {
+            // The merge already resolved the overlaps, so this mostly ranks.
+            out.reduceToDominant(YoloPostProcessor.DEFAULT_NMS_THRESHOLD, dominantRanking,
+                    dominantAreaWeight);
+        }
+    }
+
+    // Builds the tile bitmaps and transforms for the planner's current layout.
+    private void layOut(final int size) {
+        if (size != inputSize) {
+            releaseTiles();
+            inputSize = size;
+        }
+        final int side = planner.getTileSide();
+        for (int t = 0; t < planner.getTileCount(); ++t) {
+            if (t == tileBitmaps.size()) {
+                final Bitmap bitmap =
+                        BitmapPool.shared().acquire(size, size, Bitmap.Config.ARGB_8888);
+                tileBitmaps.add(bitmap);
+                tileCanvases.add(new Canvas(bitmap));
+                frameToTile.add(new Matrix());
+                tileToFrame.add(new Matrix());
+            }
+            // Parts of a tile beyond the frame edge are never drawn and must not show old pixels.
+            tileBitmaps.get(t).eraseColor(Color.BLACK);
+            final Matrix toTile = frameToTile.get(t);
+            toTile.setTranslate(-planner.getTileLeft(t), -planner.getTileTop(t));
+            toTile.postConcat(ImageUtils.getTransformationMatrix(
+                    side, side, size, size, sensorOrientation, true));
+            toTile.invert(tileToFrame.get(t));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Turns the single YOLOv5 output tensor, [rows, 5 + classes] of center-size boxes normalized to
+ * the input, objectness and class scores, into suppressed detections in input pixels.
+ *
+ * Has no Android or interpreter dependencies, so {@link OutputReplay} runs the exact code the app
+ * runs over captured tensors. Not thread-safe; {@link #decode} fans out over its own workers.
+ */
+public class YoloPostProcessor {
+    public static final int DEFAULT_MAX_CANDIDATES = 300;
+    public static final float DEFAULT_NMS_THRESHOLD = 0.6f;
+
+    private final String[] titles;
+    private final float objThresh;
+    private float nmsThresh = DEFAULT_NMS_THRESHOLD;
+    // Upper bound on candidates passed to NMS; the lowest-scoring ones are dropped first.
+    private int maxCandidates = DEFAULT_MAX_CANDIDATES;
+    // Null for full NMS output.
+    private DetectionBuffer.Ranking dominantRanking;
+    private float dominantAreaWeight;
+
+    // Row-range decode, serial unless setDecodeThreads() asks for more.
+    private ParallelDecoder decoder = new ParallelDecoder(ParallelDecoder.DEFAULT_WORKERS);
+    private final ParallelDecoder.RangeDecoder rowDecoder = this::decodeRows;
+
+    // The output being decoded.
+    private ByteBuffer output;
+    private FloatBuffer outputFloats;
+    private boolean quantized;
+    private float scale;
+    private int zeroPoint;
+    private int rowSize;
+    // Element offset of the image being decoded within a batched output.
+    private int offset;
+    private float inputSize;
+    // Clip bounds of the frame being decoded.
+    private float maxX;
+    private float maxY;
+
+    /**
+     * @param titles    Display title per class; the class scores beyond them are ignored.
+     * @param objThresh Objectness and combined score a row needs to become a candidate.
+     */
+    public YoloPostProcessor(final String[] titles, final float objThresh) {
+        this.titles = titles;
+        this.objThresh = objThresh;
+    }
+
+    public String[] getTitles() {
+        return titles.clone();
+    }
+
+    public float getObjThresh() {
+        return objThresh;
+    }
+
+    public float getNmsThreshold() {
+        return nmsThresh;
+    }
+
+    public void setNmsThreshold(final float nmsThresh) {
+        this.nmsThresh = nmsThresh;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(final int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public void setDecodeThreads(final int numThreads) {
+        if (numThreads != decoder.getWorkers()) {
+            decoder.shutdown();
+            decoder = new ParallelDecoder(numThreads);
+        }
+    }
+
+    public int getDecodeThreads() {
+        return decoder.getWorkers();
+    }
+
+    /** Keeps only the dominant detection instead of full NMS output; null ranking restores NMS. */
+    public void setDominantOnly(final DetectionBuffer.Ranking ranking, final float areaWeight) {
+        dominantRanking = ranking;
+        dominantAreaWeight = areaWeight;
+    }
+
+    public DetectionBuffer.Ranking getDominantRanking() {
+        return dominantRanking;
+    }
+
+    public float getDominantAreaWeight() {
+        return dominantAreaWeight;
+    }
+
+    /**
+     * Points the decoder at an output tensor, in native order. Call again whenever the buffer is
+     * replaced.
+     *
+     * @param rowSize Elements per row, 5 + classes.
+     */
+    public void setOutput(final ByteBuffer output, final boolean quantized, final float scale,
+                          final int zeroPoint, final int rowSize) {
+        this.output = output;
+        this.outputFloats = quantized ? null : output.asFloatBuffer();
+        this.quantized = quantized;
+        this.scale = scale;
+        this.zeroPoint = zeroPoint;
+        this.rowSize = rowSize;
+    }
+
+    public boolean isQuantized() {
+        return quantized;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getZeroPoint() {
+        return zeroPoint;
+    }
+
+    /** Elements per output row, 5 + classes; 0 before {@link #setOutput}. */
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    /**
+     * Decodes {@code rows} rows starting at element {@code offset} of the output into candidates
+     * in {@code detections}, clipped to a {@code width} x {@code height} frame.
+     */
+    public void decode(final int offset, final int rows, final int inputSize, final int width,
+                       final int height, final DetectionBuffer detections) {
+        this.offset = offset;
+        this.inputSize = inputSize;
+        maxX = width - 1;
+        maxY = height - 1;
+        decoder.decode(rows, maxCandidates, rowDecoder, detections);
+    }
+
+    /** Suppresses overlapping candidates, or reduces them to the dominant one. */
+    public void suppress(final DetectionBuffer detections) {
+        if (dominantRanking != null) {
+            detections.reduceToDominant(nmsThresh, dominantRanking, dominantAreaWeight);
+        } else {
+            detections.nms(nmsThresh);
+        }
+    }
+
+    public void shutdown() {
+        decoder.shutdown();
+    }
+
+    /** Decodes output rows {@code [start, end)}; called concurrently for disjoint ranges. */
+    private void decodeRows(final int start, final int end, final DetectionBuffer detections) {
+        final int numLabels = Math.min(titles.length, rowSize - 5);
+
+        // 각 bounding box에 대해 가장 확률이 높은 Class 예측
+        for (int i = start; i < end; ++i) {
+            final int row = i * rowSize;
+            final float confidence = outputValue(row + 4);
+            // Class scores are at most 1, so objectness bounds the combined score and most rows
+            // are rejected without scanning every class.
+            if (confidence <= objThresh || confidence <= detections.getAdmissionScore()) {
+                continue;
+            }
+            int detectedClass = -1;
+            float maxClass = 0;
+
+            for (int c = 0; c < numLabels; ++c) {
+                final float classScore = outputValue(row + 5 + c);
+                if (classScore > maxClass) {
+                    detectedClass = c;
+                    maxClass = classScore;
+                }   // 가장 큰 확률의 class로 선정
+            }
+
+            final float confidenceInClass = maxClass * confidence;
+            if (confidenceInClass > objThresh) {
+                // Denormalize xywh
+                final float xPos = outputValue(row) * inputSize;
+                final float yPos = outputValue(row + 1) * inputSize;
+
+                final float w = outputValue(row + 2) * inputSize;
+                final float h = outputValue(row + 3) * inputSize;
+
+                detections.offer(
+                        Math.max(0, xPos - w / 2),
+                        Math.max(0, yPos - h / 2),
+                        Math.min(maxX, xPos + w / 2),
+                        Math.min(maxY, yPos + h / 2),
+                        confidenceInClass, detectedClass, titles[detectedClass]);
+            }
+        }
+    }
+
+    /** Reads element {@code index} of the current image's output, dequantizing if needed. */
+    private float outputValue(final int index) {
+        if (quantized) {
+            return scale * (((int) output.get(offset + index) & 0xFF) - zeroPoint);
+        }
+        return outputFloats.get(offset + index);
+    }
+}
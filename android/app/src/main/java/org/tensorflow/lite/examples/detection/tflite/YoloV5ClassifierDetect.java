@@ -17,7 +17,6 @@ package org.tensorflow.lite.examples.detection.tflite;
 
 import android.content.res.AssetManager;
 import android.graphics.Bitmap;
-import android.graphics.RectF;
 import android.os.Build;
 import android.util.Log;
 
@@ -25,22 +24,19 @@ import org.tensorflow.lite.Interpreter;
 import org.tensorflow.lite.Tensor;
 import org.tensorflow.lite.examples.detection.MainActivity;
 import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.env.Tracer;
 import org.tensorflow.lite.examples.detection.env.Utils;
 import org.tensorflow.lite.gpu.GpuDelegate;
 import org.tensorflow.lite.nnapi.NnApiDelegate;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Vector;
 
 import static org.tensorflow.lite.examples.detection.env.Utils.expit;
@@ -76,16 +72,7 @@ public class YoloV5ClassifierDetect implements Classifier {
             final int[] anchors)
             throws IOException {
         final YoloV5ClassifierDetect d = new YoloV5ClassifierDetect();
-
-        String actualFilename = labelFilename.split("file:///android_asset/")[1];
-        InputStream labelsInput = assetManager.open(actualFilename);
-        BufferedReader br = new BufferedReader(new InputStreamReader(labelsInput));
-        String line;
-        while ((line = br.readLine()) != null) {
-            LOGGER.w(line);
-            d.labels.add(line);
-        }
-        br.close();
+        d.labels.addAll(Utils.loadLabels(assetManager, labelFilename));
 
         try {
             Interpreter.Options options = (new Interpreter.Options());
@@ -126,17 +113,25 @@ public class YoloV5ClassifierDetect implements Classifier {
         }
         d.INPUT_SIZE = inputSize;
         d.OUTPUT_WIDTH = output_width;
-        d.imgData = ByteBuffer.allocateDirect(1 * d.INPUT_SIZE * d.INPUT_SIZE * 3 * numBytesPerChannel);
-        d.imgData.order(ByteOrder.nativeOrder());
+        final int imgBytes = 1 * d.INPUT_SIZE * d.INPUT_SIZE * 3 * numBytesPerChannel;
+        d.imgBacking = DirectBufferArena.shared().acquire(imgBytes);
+        d.imgData = exactView(d.imgBacking, imgBytes);
         d.outData = new ByteBuffer[masks.length];
+        d.outBackings = new ByteBuffer[masks.length];
+        d.outFloats = new FloatBuffer[masks.length];
 
         int[] shape = d.tfLite.getOutputTensor(0).shape();
         int numClass = shape[shape.length - 1] - 5;
         for (int i = 0; i < masks.length; ++i){
-            d.outData[i] = ByteBuffer.allocateDirect(1 * d.OUTPUT_WIDTH[i] * d.OUTPUT_WIDTH[i] *
-                    masks[i].length * (5 + numClass) * numBytesPerChannel);
-            d.outData[i].order(ByteOrder.nativeOrder());
+            final int outBytes = 1 * d.OUTPUT_WIDTH[i] * d.OUTPUT_WIDTH[i] *
+                    masks[i].length * (5 + numClass) * numBytesPerChannel;
+            d.outBackings[i] = DirectBufferArena.shared().acquire(outBytes);
+            d.outData[i] = exactView(d.outBackings[i], outBytes);
+            d.outFloats[i] = d.outData[i].asFloatBuffer();
+            d.outputMap.put(i, d.outData[i]);
         }
+        d.inputArray = new Object[]{d.imgData};
+        d.tables = new GridDecodeTables(d.INPUT_SIZE, d.OUTPUT_WIDTH, masks, anchors);
 
         d.intValues = new int[d.INPUT_SIZE * d.INPUT_SIZE];
         if (d.isModelQuantized){
@@ -183,6 +178,26 @@ public class YoloV5ClassifierDetect implements Classifier {
             nnapiDelegate = null;
         }
         tfliteModel = null;
+        decoder.shutdown();
+        // The next model reuses the memory instead of allocating while this waits for the GC.
+        imgData = null;
+        outData = null;
+        inputArray = null;
+        outputMap.clear();
+        DirectBufferArena.shared().release(imgBacking);
+        imgBacking = null;
+        for (int i = 0; i < outBackings.length; ++i) {
+            DirectBufferArena.shared().release(outBackings[i]);
+            outBackings[i] = null;
+        }
+    }
+
+    // The interpreter checks buffer capacity against the tensor size, so hand it an exact slice of
+    // the size-classed arena buffer.
+    private static ByteBuffer exactView(ByteBuffer backing, int bytes) {
+        backing.clear();
+        backing.limit(bytes);
+        return backing.slice().order(ByteOrder.nativeOrder());
     }
 
     public void setNumThreads(int num_threads) {
@@ -242,6 +257,8 @@ public class YoloV5ClassifierDetect implements Classifier {
 
     private static final int NUM_BOXES_PER_BLOCK = 3;
 
+    public static final int DEFAULT_MAX_CANDIDATES = 300;
+
     // Number of threads in the java app
     private static final int NUM_THREADS = 1;
     private static boolean isNNAPI = false;
@@ -266,8 +283,15 @@ public class YoloV5ClassifierDetect implements Classifier {
     private Vector<String> labels = new Vector<String>();
     private int[] intValues;
 
+    // Arena buffers that imgData and outData are exact views of.
+    private ByteBuffer imgBacking;
+    private ByteBuffer[] outBackings;
     private ByteBuffer imgData;
     private ByteBuffer[] outData;
+    private FloatBuffer[] outFloats;
+    private Object[] inputArray;
+    private final Map<Integer, Object> outputMap = new HashMap<>();
+    private final DetectionBuffer results = new DetectionBuffer();
     private Interpreter tfLite;
 
     private float inp_scale;
@@ -277,197 +301,174 @@ public class YoloV5ClassifierDetect implements Classifier {
     private YoloV5ClassifierDetect() {
     }
 
-    //non maximum suppression
-    protected ArrayList<Recognition> nms(ArrayList<Recognition> list) {
-        ArrayList<Recognition> nmsList = new ArrayList<Recognition>();
-
-        for (int k = 0; k < labels.size(); k++) {
-            //1.find max confidence per class
-            PriorityQueue<Recognition> pq =
-                    new PriorityQueue<Recognition>(
-                            50,
-                            new Comparator<Recognition>() {
-                                @Override
-                                public int compare(final Recognition lhs, final Recognition rhs) {
-                                    // Intentionally reversed to put high confidence at the head of the queue.
-                                    return Float.compare(rhs.getConfidence(), lhs.getConfidence());
-                                }
-                            });
-
-            for (int i = 0; i < list.size(); ++i) {
-                if (list.get(i).getDetectedClass() == k) {
-                    pq.add(list.get(i));
-                }
-            }
-
-            //2.do non maximum suppression
-            while (pq.size() > 0) {
-                //insert detection with max confidence
-                Recognition[] a = new Recognition[pq.size()];
-                Recognition[] detections = pq.toArray(a);
-                Recognition max = detections[0];
-                nmsList.add(max);
-                pq.clear();
-
-                for (int j = 1; j < detections.length; j++) {
-                    Recognition detection = detections[j];
-                    RectF b = detection.getLocation();
-                    if (box_iou(max.getLocation(), b) < mNmsThresh) {
-                        pq.add(detection);
-                    }
-                }
-            }
-        }
-        return nmsList;
-    }
-
     protected float mNmsThresh = 0.6f;
 
-    protected float box_iou(RectF a, RectF b) {
-        return box_intersection(a, b) / box_union(a, b);
-    }
+    // Upper bound on candidates passed to NMS; the lowest-scoring ones are dropped first.
+    private int maxCandidates = DEFAULT_MAX_CANDIDATES;
 
-    protected float box_intersection(RectF a, RectF b) {
-        float w = overlap((a.left + a.right) / 2, a.right - a.left,
-                (b.left + b.right) / 2, b.right - b.left);
-        float h = overlap((a.top + a.bottom) / 2, a.bottom - a.top,
-                (b.top + b.bottom) / 2, b.bottom - b.top);
-        if (w < 0 || h < 0) return 0;
-        float area = w * h;
-        return area;
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
     }
 
-    protected float box_union(RectF a, RectF b) {
-        float i = box_intersection(a, b);
-        float u = (a.right - a.left) * (a.bottom - a.top) + (b.right - b.left) * (b.bottom - b.top) - i;
-        return u;
+    // Row-range decode, serial unless setDecodeThreads() asks for more; the interpreter itself
+    // runs on NUM_THREADS.
+    private ParallelDecoder decoder = new ParallelDecoder(ParallelDecoder.DEFAULT_WORKERS);
+    private final ParallelDecoder.RangeDecoder rowDecoder = this::decodeRows;
+    // Decode tables built at create time; rows of all heads are numbered consecutively.
+    private GridDecodeTables tables;
+    // Clip bounds of the frame being decoded.
+    private float maxX;
+    private float maxY;
+
+    public void setDecodeThreads(int numThreads) {
+        if (numThreads != decoder.getWorkers()) {
+            decoder.shutdown();
+            decoder = new ParallelDecoder(numThreads);
+        }
     }
 
-    protected float overlap(float x1, float w1, float x2, float w2) {
-        float l1 = x1 - w1 / 2;
-        float l2 = x2 - w2 / 2;
-        float left = l1 > l2 ? l1 : l2;
-        float r1 = x1 + w1 / 2;
-        float r2 = x2 + w2 / 2;
-        float right = r1 < r2 ? r1 : r2;
-        return right - left;
+    // Null for full NMS output.
+    private DetectionBuffer.Ranking dominantRanking;
+    private float dominantAreaWeight;
+
+    @Override
+    public void setDominantOnly(DetectionBuffer.Ranking ranking, float areaWeight) {
+        dominantRanking = ranking;
+        dominantAreaWeight = areaWeight;
     }
 
     protected static final int BATCH_SIZE = 1;
     protected static final int PIXEL_SIZE = 3;
 
     public ArrayList<Recognition> recognizeImage(Bitmap bitmap) {
-        Map<Integer, Object> outputMap = new HashMap<>();
-
-        bitmap.getPixels(intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
-        imgData.rewind();
-        for (int i = 0; i < INPUT_SIZE; ++i) {
-            for (int j = 0; j < INPUT_SIZE; ++j) {
-                int pixelValue = intValues[i * INPUT_SIZE + j];
-                if (isModelQuantized) {
-                    // Quantized model
-                    imgData.put((byte) ((((pixelValue >> 16) & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
-                    imgData.put((byte) ((((pixelValue >> 8) & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
-                    imgData.put((byte) (((pixelValue & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
-                } else { // Float model
-                    imgData.putFloat((((pixelValue >> 16) & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
-                    imgData.putFloat((((pixelValue >> 8) & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
-                    imgData.putFloat(((pixelValue & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
+        recognizeInto(bitmap, results);
+        return Recognition.fromBuffer(results);
+    }
+
+    @Override
+    public void recognizeInto(Bitmap bitmap, DetectionBuffer detections) {
+        Tracer.beginSection("preprocess");
+        try {
+            bitmap.getPixels(intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+            imgData.rewind();
+            for (int i = 0; i < INPUT_SIZE; ++i) {
+                for (int j = 0; j < INPUT_SIZE; ++j) {
+                    int pixelValue = intValues[i * INPUT_SIZE + j];
+                    if (isModelQuantized) {
+                        // Quantized model
+                        imgData.put((byte) ((((pixelValue >> 16) & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
+                        imgData.put((byte) ((((pixelValue >> 8) & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
+                        imgData.put((byte) (((pixelValue & 0xFF) - IMAGE_MEAN) / IMAGE_STD / inp_scale + inp_zero_point));
+                    } else { // Float model
+                        imgData.putFloat((((pixelValue >> 16) & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
+                        imgData.putFloat((((pixelValue >> 8) & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
+                        imgData.putFloat(((pixelValue & 0xFF) - IMAGE_MEAN) / IMAGE_STD);
+                    }
                 }
             }
+        } finally {
+            Tracer.endSection();
         }
 
         for (int i = 0; i < OUTPUT_WIDTH.length; i++) {
             outData[i].rewind();
-            outputMap.put(i, outData[i]);
         }
 
-        Log.d("YoloV5Classifier", "mObjThresh: " + getObjThresh());
+        LOGGER.d("mObjThresh: %f", getObjThresh());
+
+        Tracer.beginSection("runInference");
+        try {
+            tfLite.runForMultipleInputsOutputs(inputArray, outputMap);
+        } finally {
+            Tracer.endSection();
+        }
+
+        Tracer.beginSection("decodeOutput");
+        try {
+            maxX = bitmap.getWidth() - 1;
+            maxY = bitmap.getHeight() - 1;
+            decoder.decode(tables.getHeadStart(OUTPUT_WIDTH.length), maxCandidates, rowDecoder,
+                    detections);
 
-        Object[] inputArray = {imgData};
-        tfLite.runForMultipleInputsOutputs(inputArray, outputMap);
+        } finally {
+            Tracer.endSection();
+        }
+        Tracer.beginSection("nms");
+        try {
+            if (dominantRanking != null) {
+                detections.reduceToDominant(mNmsThresh, dominantRanking, dominantAreaWeight);
+            } else {
+                detections.nms(mNmsThresh);
+            }
+        } finally {
+            Tracer.endSection();
+        }
+    }
 
-        ArrayList<Recognition> detections = new ArrayList<Recognition>();
+    /**
+     * Decodes rows {@code [start, end)} of all heads, numbered consecutively in head order; called
+     * concurrently for disjoint ranges.
+     */
+    private void decodeRows(final int start, final int end, final DetectionBuffer detections) {
+        final int numLabels = labels.size();
+        final int rowSize = 5 + numLabels;
+        final float objThresh = getObjThresh();
 
         for (int i = 0; i < OUTPUT_WIDTH.length; i++) {
-            int gridWidth = OUTPUT_WIDTH[i];
-            ByteBuffer byteBuffer = (ByteBuffer) outputMap.get(i);
-            byteBuffer.rewind();
-            float[][][][] out = new float[1][NUM_BOXES_PER_BLOCK][gridWidth * gridWidth][5 + labels.size()];
-            if (isModelQuantized) {
-                for (int b = 0; b < NUM_BOXES_PER_BLOCK; ++b) {
-                    for (int y = 0; y < gridWidth; ++y) {
-                        for (int x = 0; x < gridWidth; ++x) {
-                            for (int c = 0; c < 5 + labels.size(); ++c) {
-                                out[0][b][y * gridWidth + x][c] =
-                                        oup_scales[i] * (((int) byteBuffer.get() & 0xFF) - oup_zero_points[i]);
-                            }
-                        }
-                    }
-                }
+            final int headStart = tables.getHeadStart(i);
+            final int first = Math.max(start, headStart);
+            final int last = Math.min(end, tables.getHeadStart(i + 1));
+            if (first >= last) {
+                continue;
             }
-            else {
-                for (int b = 0; b < NUM_BOXES_PER_BLOCK; ++b) {
-                    for (int y = 0; y < gridWidth; ++y) {
-                        for (int x = 0; x < gridWidth; ++x) {
-                            for (int c = 0; c < 5 + labels.size(); ++c) {
-                                out[0][b][y * gridWidth + x][c] = byteBuffer.getFloat();
-                            }
-                        }
-                    }
+            LOGGER.d("out[%d] detect start", i);
+            for (int index = first - headStart; index < last - headStart; ++index) {
+                // Head layout is [box][y][x][5 + labels].
+                final int row = index * rowSize;
+
+                final float confidence = expit(outputValue(i, row + 4));
+                // Class scores are at most 1, so objectness bounds the combined score and most
+                // rows are rejected without scanning every class.
+                if (confidence <= objThresh || confidence <= detections.getAdmissionScore()) {
+                    continue;
                 }
-            }
-            Log.d("YoloV5Classifier", "out[" + i + "] detect start");
-            for (int y = 0; y < gridWidth; ++y) {
-                for (int x = 0; x < gridWidth; ++x) {
-                    for (int b = 0; b < NUM_BOXES_PER_BLOCK; ++b) {
-                        final int offset =
-                                (gridWidth * (NUM_BOXES_PER_BLOCK * (labels.size() + 5))) * y
-                                        + (NUM_BOXES_PER_BLOCK * (labels.size() + 5)) * x
-                                        + (labels.size() + 5) * b;
-
-                        final float confidence = expit(out[0][b][y * gridWidth + x][4]);
-                        int detectedClass = -1;
-                        float maxClass = 0;
-
-                        final float[] classes = new float[labels.size()];
-                        for (int c = 0; c < labels.size(); ++c) {
-                            classes[c] = expit(out[0][b][y * gridWidth + x][5 + c]);
-                        }
-
-                        for (int c = 0; c < labels.size(); ++c) {
-                            if (classes[c] > maxClass) {
-                                detectedClass = c;
-                                maxClass = classes[c];
-                            }
-                        }
-
-                        final float confidenceInClass = maxClass * confidence;
-                        if (confidenceInClass > getObjThresh()) {
-                            final float xPos = (x + expit(out[0][b][y * gridWidth + x][0]) * 2.f - 0.5f) * (1.0f * INPUT_SIZE / gridWidth);
-                            final float yPos = (y + expit(out[0][b][y * gridWidth + x][1]) * 2.f - 0.5f) * (1.0f * INPUT_SIZE / gridWidth);
-
-                            final float w = (float) (Math.pow(expit(out[0][b][y * gridWidth + x][2]) * 2, 2) * ANCHORS[2 * MASKS[i][b]]);
-                            final float h = (float) (Math.pow(expit(out[0][b][y * gridWidth + x][3]) * 2, 2) * ANCHORS[2 * MASKS[i][b] + 1]);
-
-                            final RectF rect =
-                                    new RectF(
-                                            Math.max(0, xPos - w / 2),
-                                            Math.max(0, yPos - h / 2),
-                                            Math.min(bitmap.getWidth() - 1, xPos + w / 2),
-                                            Math.min(bitmap.getHeight() - 1, yPos + h / 2));
-                            detections.add(new Recognition("" + offset, labels.get(detectedClass),
-                                    confidenceInClass, rect, detectedClass));
-                        }
+                int detectedClass = -1;
+                float maxClass = 0;
+
+                for (int c = 0; c < numLabels; ++c) {
+                    final float classScore = expit(outputValue(i, row + 5 + c));
+                    if (classScore > maxClass) {
+                        detectedClass = c;
+                        maxClass = classScore;
                     }
                 }
+
+                final float confidenceInClass = maxClass * confidence;
+                if (confidenceInClass > objThresh) {
+                    final int cell = headStart + index;
+                    final float xPos = tables.centerX(i, cell, expit(outputValue(i, row)));
+                    final float yPos = tables.centerY(i, cell, expit(outputValue(i, row + 1)));
+                    final float w = tables.width(cell, expit(outputValue(i, row + 2)));
+                    final float h = tables.height(cell, expit(outputValue(i, row + 3)));
+
+                    detections.offer(
+                            Math.max(0, xPos - w / 2),
+                            Math.max(0, yPos - h / 2),
+                            Math.min(maxX, xPos + w / 2),
+                            Math.min(maxY, yPos + h / 2),
+                            confidenceInClass, detectedClass, labels.get(detectedClass));
+                }
             }
-            Log.d("YoloV5Classifier", "out[" + i + "] detect end");
+            LOGGER.d("out[%d] detect end", i);
         }
+    }
 
-        final ArrayList<Recognition> recognitions = nms(detections);
-
-        return recognitions;
+    /** Reads element {@code index} of output head {@code head}, dequantizing if needed. */
+    private float outputValue(final int head, final int index) {
+        if (isModelQuantized) {
+            return oup_scales[head] * (((int) outData[head].get(index) & 0xFF) - oup_zero_points[head]);
+        }
+        return outFloats[head].get(index);
     }
 
     public boolean checkInvalidateBox(float x, float y, float width, float height, float oriW, float oriH, int intputSize) {
@@ -25,15 +25,18 @@ import android.graphics.Paint.Join;
 import android.graphics.Paint.Style;
 import android.graphics.RectF;
 import android.text.TextUtils;
-import android.util.Pair;
+import android.util.Log;
 import android.util.TypedValue;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import org.tensorflow.lite.examples.detection.env.BorderedText;
 import org.tensorflow.lite.examples.detection.env.ImageUtils;
 import org.tensorflow.lite.examples.detection.env.Logger;
+import org.tensorflow.lite.examples.detection.env.Tracer;
 import org.tensorflow.lite.examples.detection.tflite.Classifier.Recognition;
+import org.tensorflow.lite.examples.detection.tflite.DetectionBuffer;
 
 /** A tracker that handles non-max suppression and matches existing objects to new detections. */
 public class MultiBoxTracker {
@@ -56,10 +59,17 @@ public class MultiBoxTracker {
           Color.parseColor("#AA33AA"),
           Color.parseColor("#0D0068")
   };
-  final List<Pair<Float, RectF>> screenRects = new LinkedList<Pair<Float, RectF>>();
+  final DetectionBuffer screenRects = new DetectionBuffer();
   private final Logger logger = new Logger();
   private final Queue<Integer> availableColors = new LinkedList<Integer>();
-  private final List<TrackedRecognition> trackedObjects = new LinkedList<TrackedRecognition>();
+  // Recycled across frames; only the first trackedCount entries are live.
+  private final List<TrackedRecognition> trackedObjects = new ArrayList<TrackedRecognition>();
+  private int trackedCount;
+  private final DetectionBuffer listResults = new DetectionBuffer();
+  private final Matrix rgbFrameToScreen = new Matrix();
+  private final RectF frameRect = new RectF();
+  private final RectF screenRect = new RectF();
+  private final RectF trackedPos = new RectF();
   private final Paint boxPaint = new Paint();
   private final float textSizePx;
   private final BorderedText borderedText;
@@ -103,17 +113,34 @@ public class MultiBoxTracker {
     boxPaint.setAlpha(200);
     boxPaint.setStyle(Style.STROKE);
 
-    for (final Pair<Float, RectF> detection : screenRects) {
-      final RectF rect = detection.second;
+    for (int i = 0; i < screenRects.size(); ++i) {
+      final RectF rect =
+          new RectF(
+              screenRects.getLeft(i),
+              screenRects.getTop(i),
+              screenRects.getRight(i),
+              screenRects.getBottom(i));
+      final String confidence = "" + screenRects.getScore(i);
       canvas.drawRect(rect, boxPaint);
-      canvas.drawText("" + detection.first, rect.left, rect.top, textPaint);
-      borderedText.drawText(canvas, rect.centerX(), rect.centerY(), "" + detection.first);
+      canvas.drawText(confidence, rect.left, rect.top, textPaint);
+      borderedText.drawText(canvas, rect.centerX(), rect.centerY(), confidence);
     }
   }
 
   public synchronized void trackResults(final List<Recognition> results, final long timestamp) {
-    logger.i("Processing %d results from %d", results.size(), timestamp);
-    processResults(results);
+    Recognition.toBuffer(results, listResults);
+    trackResults(listResults, timestamp);
+  }
+
+  /** Tracks detections given in frame coordinates. Allocates nothing once warmed up. */
+  public synchronized void trackResults(final DetectionBuffer results, final long timestamp) {
+    logger.d("Processing %d results from %d", results.size(), timestamp);
+    Tracer.beginSection("processResults");
+    try {
+      processResults(results);
+    } finally {
+      Tracer.endSection();
+    }
   }
 
   private Matrix getFrameToCanvasMatrix() {
@@ -134,10 +161,9 @@ public class MultiBoxTracker {
                     (int) (multiplier * (rotated ? frameWidth : frameHeight)),
                     sensorOrientation,
                     false);
-    for (final TrackedRecognition recognition : trackedObjects) {
-      final RectF trackedPos = new RectF(recognition.location);
-
-      getFrameToCanvasMatrix().mapRect(trackedPos);
+    for (int i = 0; i < trackedCount; ++i) {
+      final TrackedRecognition recognition = trackedObjects.get(i);
+      getFrameToCanvasMatrix().mapRect(trackedPos, recognition.location);
       boxPaint.setColor(recognition.color);
 
       float cornerSize = Math.min(trackedPos.width(), trackedPos.height()) / 8.0f;
@@ -154,57 +180,53 @@ public class MultiBoxTracker {
     }
   }
 
-  private void processResults(final List<Recognition> results) {
-    final List<Pair<Float, Recognition>> rectsToTrack = new LinkedList<Pair<Float, Recognition>>();
-
+  private void processResults(final DetectionBuffer results) {
     screenRects.clear();
-    final Matrix rgbFrameToScreen = new Matrix(getFrameToCanvasMatrix());
+    trackedCount = 0;
+    // Identity until the first draw() has sized the canvas.
+    rgbFrameToScreen.set(getFrameToCanvasMatrix());
 
-    for (final Recognition result : results) {
-      if (result.getLocation() == null) {
-        continue;
-      }
-      final RectF detectionFrameRect = new RectF(result.getLocation());
+    for (int i = 0; i < results.size(); ++i) {
+      frameRect.set(results.getLeft(i), results.getTop(i), results.getRight(i), results.getBottom(i));
+      rgbFrameToScreen.mapRect(screenRect, frameRect);
 
-      final RectF detectionScreenRect = new RectF();
-      rgbFrameToScreen.mapRect(detectionScreenRect, detectionFrameRect);
-
-      logger.v(
-              "Result! Frame: " + result.getLocation() + " mapped to screen:" + detectionScreenRect);
-
-      screenRects.add(new Pair<Float, RectF>(result.getConfidence(), detectionScreenRect));
+      if (logger.isLoggable(Log.VERBOSE)) {
+        logger.v("Result! Frame: %s mapped to screen:%s", frameRect, screenRect);
+      }
 
-      if (detectionFrameRect.width() < MIN_SIZE || detectionFrameRect.height() < MIN_SIZE) {
-        logger.w("Degenerate rectangle! " + detectionFrameRect);
+      screenRects.add(
+          screenRect.left,
+          screenRect.top,
+          screenRect.right,
+          screenRect.bottom,
+          results.getScore(i),
+          results.getDetectedClass(i),
+          results.getTitle(i));
+
+      if (frameRect.width() < MIN_SIZE || frameRect.height() < MIN_SIZE) {
+        if (logger.isLoggable(Log.WARN)) {
+          logger.w("Degenerate rectangle! " + frameRect);
+        }
         continue;
       }
 
-      rectsToTrack.add(new Pair<Float, Recognition>(result.getConfidence(), result));
+      if (trackedCount == trackedObjects.size()) {
+        trackedObjects.add(new TrackedRecognition());
+      }
+      final TrackedRecognition trackedRecognition = trackedObjects.get(trackedCount++);
+      trackedRecognition.detectionConfidence = results.getScore(i);
+      trackedRecognition.location.set(frameRect);
+      trackedRecognition.title = results.getTitle(i);
+      trackedRecognition.color = COLORS[results.getDetectedClass(i) % COLORS.length];
     }
 
-    trackedObjects.clear();
-    if (rectsToTrack.isEmpty()) {
+    if (trackedCount == 0) {
       logger.v("Nothing to track, aborting.");
-      return;
-    }
-
-    for (final Pair<Float, Recognition> potential : rectsToTrack) {
-      final TrackedRecognition trackedRecognition = new TrackedRecognition();
-      trackedRecognition.detectionConfidence = potential.first;
-      trackedRecognition.location = new RectF(potential.second.getLocation());
-      trackedRecognition.title = potential.second.getTitle();
-//      trackedRecognition.color = COLORS[trackedObjects.size() % COLORS.length];
-      trackedRecognition.color = COLORS[potential.second.getDetectedClass() % COLORS.length];
-      trackedObjects.add(trackedRecognition);
-
-//      if (trackedObjects.size() >= COLORS.length) {
-//        break;
-//      }
     }
   }
 
   private static class TrackedRecognition {
-    RectF location;
+    final RectF location = new RectF();
     float detectionConfidence;
     int color;
     String title;
@@ -0,0 +1,192 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives each admission policy with a simulated clock; frames are numbered in arrival order and
+ * the test plays both the camera thread (offer) and the inference thread (finish).
+ */
+public class FrameAdmissionControllerTest {
+  private final List<Integer> released = new ArrayList<Integer>();
+  private long nowMs;
+  private FrameAdmissionController<Integer> controller;
+
+  private final FrameAdmissionController.Clock clock =
+      new FrameAdmissionController.Clock() {
+        @Override
+        public long nanoTime() {
+          return nowMs * 1000000L;
+        }
+      };
+
+  @Before
+  public void setUp() {
+    nowMs = 0;
+    released.clear();
+    controller =
+        new FrameAdmissionController<Integer>(
+            new FrameAdmissionController.Releaser<Integer>() {
+              @Override
+              public void release(final Integer frame) {
+                released.add(frame);
+              }
+            },
+            clock);
+  }
+
+  private boolean offerAt(final long atMs, final int frame) {
+    nowMs = atMs;
+    return controller.offer(frame);
+  }
+
+  private Integer finishAt(final long atMs) {
+    nowMs = atMs;
+    return controller.finish();
+  }
+
+  private void assertCounts(
+      final long arrived, final long admitted, final long dropped, final long superseded) {
+    assertEquals(arrived, controller.getArrivedFrames());
+    assertEquals(admitted, controller.getAdmittedFrames());
+    assertEquals(dropped, controller.getDroppedFrames());
+    assertEquals(superseded, controller.getSupersededFrames());
+  }
+
+  @Test
+  public void latestWinsKeepsOnlyTheNewestPendingFrame() {
+    assertTrue(offerAt(0, 0));
+    assertFalse(offerAt(10, 1));
+    assertFalse(offerAt(20, 2));
+    assertEquals(Arrays.asList(1), released);
+    assertEquals(1, controller.getPendingCount());
+
+    assertEquals(Integer.valueOf(2), finishAt(50));
+    assertNull(finishAt(60));
+    assertFalse(controller.isBusy());
+    assertCounts(3, 2, 0, 1);
+    // Frame 2 waited 30ms; frame 0 started at once.
+    assertEquals(30000000L, controller.getMaxWaitNanos());
+    assertEquals(15000000L, controller.getMeanWaitNanos());
+  }
+
+  @Test
+  public void everyNthConsidersOnlyEveryNthArrival() {
+    controller.setPolicy(FrameAdmissionController.Policy.EVERY_NTH, 3);
+    final List<Integer> started = new ArrayList<Integer>();
+    for (int frame = 0; frame < 7; ++frame) {
+      if (offerAt(frame * 10, frame)) {
+        started.add(frame);
+        assertNull(finishAt(frame * 10 + 5));
+      }
+    }
+    assertEquals(Arrays.asList(0, 3, 6), started);
+    assertEquals(Arrays.asList(1, 2, 4, 5), released);
+
+    // Nothing is queued: an Nth frame arriving while busy is dropped too.
+    assertFalse(offerAt(100, 7));
+    assertFalse(offerAt(110, 8));
+    assertTrue(offerAt(120, 9));
+    assertFalse(offerAt(130, 10));
+    assertFalse(offerAt(140, 11));
+    assertFalse(offerAt(150, 12));
+    assertEquals(0, controller.getPendingCount());
+    assertNull(finishAt(160));
+    assertEquals(Arrays.asList(1, 2, 4, 5, 7, 8, 10, 11, 12), released);
+    assertCounts(13, 4, 9, 0);
+  }
+
+  @Test
+  public void timeBudgetedDropsFramesThatWaitedPastTheBudget() {
+    controller.setPolicy(FrameAdmissionController.Policy.TIME_BUDGETED, 50);
+    assertTrue(offerAt(0, 0));
+    assertFalse(offerAt(5, 1));
+    // Frame 1 has waited 55ms.
+    assertNull(finishAt(60));
+    assertEquals(Arrays.asList(1), released);
+
+    assertTrue(offerAt(70, 2));
+    assertFalse(offerAt(80, 3));
+    // Frame 3 has waited 50ms, exactly the budget.
+    assertEquals(Integer.valueOf(3), finishAt(130));
+    assertNull(finishAt(140));
+    assertCounts(4, 3, 1, 0);
+    assertEquals(50000000L, controller.getMaxWaitNanos());
+  }
+
+  @Test
+  public void queueDepthQueuesInOrderAndDropsWhenFull() {
+    controller.setPolicy(FrameAdmissionController.Policy.QUEUE_DEPTH, 2);
+    assertTrue(offerAt(0, 0));
+    assertFalse(offerAt(10, 1));
+    assertFalse(offerAt(20, 2));
+    assertFalse(offerAt(30, 3));
+    assertEquals(Arrays.asList(3), released);
+
+    assertEquals(Integer.valueOf(1), finishAt(40));
+    assertEquals(Integer.valueOf(2), finishAt(80));
+    assertNull(finishAt(120));
+    assertCounts(4, 3, 1, 0);
+    // Waits of 30ms and 60ms.
+    assertEquals(60000000L, controller.getMaxWaitNanos());
+    assertEquals(30000000L, controller.getMeanWaitNanos());
+  }
+
+  @Test
+  public void shrinkingTheQueueSupersedesTheOldestPendingFrames() {
+    controller.setPolicy(FrameAdmissionController.Policy.QUEUE_DEPTH, 3);
+    assertTrue(offerAt(0, 0));
+    offerAt(1, 1);
+    offerAt(2, 2);
+    offerAt(3, 3);
+    controller.setPolicy(FrameAdmissionController.Policy.LATEST_WINS, 0);
+    assertEquals(Arrays.asList(1, 2), released);
+    assertEquals(Integer.valueOf(3), finishAt(10));
+    assertCounts(4, 2, 0, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveParameters() {
+    controller.setPolicy(FrameAdmissionController.Policy.QUEUE_DEPTH, 0);
+  }
+
+  @Test
+  public void minIntervalThrottlesStartsWithoutCountingDrops() {
+    controller.setMinIntervalMs(100);
+    assertTrue(offerAt(0, 0));
+    assertNull(finishAt(20));
+    assertFalse(offerAt(50, 1));
+    assertTrue(offerAt(100, 2));
+
+    // A pending frame is throttled as well when the pipeline finishes too early.
+    assertFalse(offerAt(120, 3));
+    assertNull(finishAt(150));
+    assertEquals(Arrays.asList(1, 3), released);
+    assertEquals(2, controller.getThrottledFrames());
+    assertCounts(4, 2, 0, 0);
+
+    controller.setMinIntervalMs(0);
+    assertTrue(offerAt(160, 4));
+  }
+
+  @Test
+  public void clearReleasesPendingFramesAndGoesIdle() {
+    controller.setPolicy(FrameAdmissionController.Policy.QUEUE_DEPTH, 2);
+    assertTrue(offerAt(0, 0));
+    offerAt(10, 1);
+    offerAt(20, 2);
+    controller.clear();
+    assertEquals(Arrays.asList(1, 2), released);
+    assertFalse(controller.isBusy());
+    assertTrue(offerAt(30, 3));
+    assertCounts(4, 2, 2, 0);
+  }
+}
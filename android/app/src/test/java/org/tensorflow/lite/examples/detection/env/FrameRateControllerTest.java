@@ -0,0 +1,152 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the controller with a simulated clock, one processed frame per 50ms, with the default
+ * 1.25 headroom, 1.15 step-down margin, 3s hold, 1s settle time and 10 samples minimum.
+ */
+public class FrameRateControllerTest {
+  private static final long FRAME_MS = 50;
+  private static final int[][] RANGES = {{15, 15}, {10, 20}, {15, 24}, {7, 30}, {30, 30}};
+
+  private final List<String> applied = new ArrayList<String>();
+  private long nowMs;
+  private FrameRateController controller;
+
+  private final FrameAdmissionController.Clock clock =
+      new FrameAdmissionController.Clock() {
+        @Override
+        public long nanoTime() {
+          return nowMs * 1000000L;
+        }
+      };
+
+  private final FrameRateController.Camera camera =
+      new FrameRateController.Camera() {
+        @Override
+        public int[][] getSupportedFpsRanges() {
+          return RANGES;
+        }
+
+        @Override
+        public void setFpsRange(final int minFps, final int maxFps) {
+          applied.add(nowMs + " " + minFps + "-" + maxFps);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    nowMs = 0;
+    applied.clear();
+    controller = new FrameRateController(clock);
+    controller.setCamera(camera);
+  }
+
+  // Processes frames taking processingMs each until the clock reaches untilMs.
+  private void run(final long processingMs, final long untilMs) {
+    while (nowMs + FRAME_MS <= untilMs) {
+      nowMs += FRAME_MS;
+      controller.onFrameProcessed(processingMs * 1000000L);
+    }
+  }
+
+  @Test
+  public void chooseRangeTakesTheSmallestMaximumAboveTheTarget() {
+    assertArrayEquals(new int[] {10, 20}, FrameRateController.chooseRange(RANGES, 18));
+    assertArrayEquals(new int[] {15, 24}, FrameRateController.chooseRange(RANGES, 24));
+    // Equal maximums: the lowest minimum leaves exposure room in low light.
+    assertArrayEquals(new int[] {7, 30}, FrameRateController.chooseRange(RANGES, 25));
+    // Nothing fast enough: the fastest range.
+    assertArrayEquals(new int[] {7, 30}, FrameRateController.chooseRange(RANGES, 60));
+    assertArrayEquals(new int[] {15, 15}, FrameRateController.chooseRange(RANGES, 1));
+    assertNull(FrameRateController.chooseRange(new int[0][], 10));
+  }
+
+  @Test
+  public void appliesARangeAfterSettleSamplesAndHold() {
+    // 60ms per frame is 16.7fps, 20.8fps with headroom. Samples count from 1s, the tenth arrives
+    // at 1.45s and proposes 15-24, which is applied after the 3s hold.
+    run(60, 4400);
+    assertTrue(applied.isEmpty());
+    assertNull(controller.getCurrentRange());
+    run(60, 4450);
+    assertEquals(Arrays.asList("4450 15-24"), applied);
+    assertArrayEquals(new int[] {15, 24}, controller.getCurrentRange());
+    assertEquals(1000f / 60, controller.getThroughputFps(), 0.01f);
+
+    // The same throughput keeps the range.
+    run(60, 30000);
+    assertEquals(1, applied.size());
+  }
+
+  @Test
+  public void samplesDuringSettleAreIgnored() {
+    // Slow frames while the camera settles would otherwise pick the slowest range.
+    run(1000, 1000 - FRAME_MS);
+    run(60, 4450);
+    assertEquals(Arrays.asList("4450 15-24"), applied);
+  }
+
+  @Test
+  public void steppingDownNeedsTheMargin() {
+    // 25fps wants more than any range offers: the fastest, preferring 7-30 over 30-30.
+    run(40, 4450);
+    assertEquals(Arrays.asList("4450 7-30"), applied);
+
+    // 18.2fps targets 22.7fps, which 15-24 covers, but not with the 15% margin.
+    controller.reset();
+    run(55, 30000);
+    assertEquals(1, applied.size());
+    assertArrayEquals(new int[] {7, 30}, controller.getCurrentRange());
+
+    // 16.1fps targets 20.2fps, and 15-24 still covers it with the margin.
+    controller.reset();
+    run(62, 60000);
+    assertEquals(Arrays.asList("4450 7-30", "34450 15-24"), applied);
+  }
+
+  @Test
+  public void steppingUpNeedsNoMargin() {
+    run(60, 4450);
+    controller.reset();
+    // 22.2fps targets 27.8fps, past 15-24.
+    run(45, 30000);
+    assertEquals(Arrays.asList("4450 15-24", "8900 7-30"), applied);
+  }
+
+  @Test
+  public void minFrameIntervalCapsTheUsefulRate() {
+    controller.setMinFrameIntervalMs(100);
+    // The pipeline could take 100fps, but admission lets through only 10.
+    run(10, 4450);
+    assertEquals(10f, controller.getThroughputFps(), 0.01f);
+    assertEquals(Arrays.asList("4450 15-15"), applied);
+
+    controller.setMinFrameIntervalMs(0);
+    controller.reset();
+    run(10, 30000);
+    assertEquals(Arrays.asList("4450 15-15", "8900 7-30"), applied);
+  }
+
+  @Test
+  public void resetForgetsTheProposal() {
+    run(60, 3000);
+    // E.g. a model switch: the proposal from the old throughput is dropped and measured again.
+    controller.reset();
+    run(60, 5400);
+    assertTrue(applied.isEmpty());
+    // Settle until 4s, ten samples by 4.45s, hold until 7.45s.
+    run(60, 7450);
+    assertEquals(Arrays.asList("7450 15-24"), applied);
+  }
+}
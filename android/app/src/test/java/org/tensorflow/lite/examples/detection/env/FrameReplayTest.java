@@ -0,0 +1,233 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Records frames of both formats with {@link FrameRecorder} and checks that {@link
+ * FrameReplaySource} hands back the same header, timestamps, strides and plane bytes, and that
+ * every frame is released exactly once whether it was written or dropped.
+ */
+public class FrameReplayTest {
+  private static final int WIDTH = 64;
+  private static final int HEIGHT = 48;
+  // Camera2 rows are padded past the width.
+  private static final int Y_ROW_STRIDE = 80;
+  private static final int UV_ROW_STRIDE = 80;
+
+  private final Random random = new Random(44);
+  private File capture;
+
+  @Before
+  public void setUp() throws IOException {
+    capture = File.createTempFile("capture", ".yuv");
+  }
+
+  @After
+  public void tearDown() {
+    capture.delete();
+  }
+
+  @Test
+  public void replaysRecordedFramesByteForByte() throws Exception {
+    final List<Recorded> recorded = new ArrayList<Recorded>();
+    final AtomicInteger released = new AtomicInteger();
+    final FrameRecorder recorder =
+        new FrameRecorder(capture, WIDTH, HEIGHT, 90, "device=test sdk=0", 64);
+    for (int i = 0; i < 20; ++i) {
+      final Recorded frame = i % 2 == 0 ? nv21Frame(i) : yuv420Frame(i);
+      assertTrue(
+          recorder.record(
+              frame.captureNanos,
+              frame.receiveNanos,
+              frame.format,
+              frame.yRowStride,
+              frame.uvRowStride,
+              frame.uvPixelStride,
+              released::incrementAndGet,
+              frame.buffers));
+      recorded.add(frame);
+    }
+    recorder.close();
+    assertEquals(20, released.get());
+    assertEquals(20, recorder.getRecordedFrames());
+    assertEquals(0, recorder.getDroppedFrames());
+    assertEquals(capture.length(), recorder.getWrittenBytes());
+
+    // The recorder reads the planes without moving them.
+    for (final Recorded frame : recorded) {
+      for (int p = 0; p < frame.planes.length; ++p) {
+        assertEquals(1, frame.buffers[p].position());
+      }
+    }
+
+    final List<CapturedFrame> replayed = new ArrayList<CapturedFrame>();
+    final FrameReplaySource source = new FrameReplaySource(capture);
+    try {
+      assertEquals(WIDTH, source.getWidth());
+      assertEquals(HEIGHT, source.getHeight());
+      assertEquals(90, source.getRotation());
+      assertEquals("device=test sdk=0", source.getMetadata());
+      assertEquals(20, source.replay(FrameReplaySource.Pacing.MAX_SPEED, replayed::add));
+
+      for (int i = 0; i < recorded.size(); ++i) {
+        final Recorded expected = recorded.get(i);
+        final CapturedFrame actual = replayed.get(i);
+        assertEquals(i, actual.getIndex());
+        assertEquals(expected.captureNanos, actual.getCaptureNanos());
+        assertEquals(expected.receiveNanos, actual.getReceiveNanos());
+        assertEquals(expected.format, actual.getFormat());
+        assertEquals(expected.yRowStride, actual.getYRowStride());
+        assertEquals(expected.uvRowStride, actual.getUvRowStride());
+        assertEquals(expected.uvPixelStride, actual.getUvPixelStride());
+        assertEquals(expected.planes.length, actual.getPlaneCount());
+        for (int p = 0; p < expected.planes.length; ++p) {
+          assertEquals(expected.planes[p].length, actual.getPlane(p).remaining());
+          assertArrayEquals(expected.planes[p], actual.copyPlane(p, null));
+        }
+      }
+    } finally {
+      source.close();
+    }
+  }
+
+  @Test
+  public void dropsAndReleasesFramesWhileTheWriterIsBehind() throws Exception {
+    final FrameRecorder recorder = new FrameRecorder(capture, WIDTH, HEIGHT, 0, "", 1);
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch resume = new CountDownLatch(1);
+    final AtomicInteger released = new AtomicInteger();
+    final Recorded first = nv21Frame(0);
+    // Holds the writer in the first frame's release, after its slot is free again.
+    assertTrue(
+        record(
+            recorder,
+            first,
+            () -> {
+              writing.countDown();
+              awaitQuietly(resume);
+              released.incrementAndGet();
+            }));
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+    assertTrue(record(recorder, nv21Frame(1), released::incrementAndGet));
+
+    // The only slot is queued: the frame is dropped and released before record returns.
+    final AtomicInteger droppedRelease = new AtomicInteger();
+    assertFalse(record(recorder, nv21Frame(2), droppedRelease::incrementAndGet));
+    assertEquals(1, droppedRelease.get());
+    assertEquals(1, recorder.getDroppedFrames());
+
+    resume.countDown();
+    recorder.close();
+    assertEquals(2, released.get());
+    assertEquals(1, droppedRelease.get());
+
+    // Frames after close are not recorded but still released.
+    assertFalse(record(recorder, nv21Frame(3), droppedRelease::incrementAndGet));
+    assertEquals(2, droppedRelease.get());
+
+    final FrameReplaySource source = new FrameReplaySource(capture);
+    try {
+      final List<CapturedFrame> replayed = new ArrayList<CapturedFrame>();
+      assertEquals(2, source.replay(FrameReplaySource.Pacing.MAX_SPEED, replayed::add));
+      assertArrayEquals(first.planes[0], replayed.get(0).copyPlane(0, null));
+    } finally {
+      source.close();
+    }
+  }
+
+  private static boolean record(
+      final FrameRecorder recorder, final Recorded frame, final Runnable release) {
+    return recorder.record(
+        frame.captureNanos,
+        frame.receiveNanos,
+        frame.format,
+        frame.yRowStride,
+        frame.uvRowStride,
+        frame.uvPixelStride,
+        release,
+        frame.buffers);
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // A Camera1 preview frame: one heap array holding Y and interleaved VU.
+  private Recorded nv21Frame(final int index) {
+    final Recorded frame = new Recorded(index, FrameRecorder.FORMAT_NV21, WIDTH, WIDTH, 2);
+    frame.setPlanes(false, WIDTH * HEIGHT * 3 / 2);
+    return frame;
+  }
+
+  // A Camera2 frame: three direct planes with padded rows and interleaved chroma.
+  private Recorded yuv420Frame(final int index) {
+    final Recorded frame =
+        new Recorded(
+            index, FrameRecorder.FORMAT_YUV_420_888, Y_ROW_STRIDE, UV_ROW_STRIDE, 2);
+    final int uvBytes = UV_ROW_STRIDE * (HEIGHT / 2 - 1) + WIDTH - 1;
+    frame.setPlanes(true, Y_ROW_STRIDE * HEIGHT, uvBytes, uvBytes);
+    return frame;
+  }
+
+  private final class Recorded {
+    final long captureNanos;
+    final long receiveNanos;
+    final int format;
+    final int yRowStride;
+    final int uvRowStride;
+    final int uvPixelStride;
+    byte[][] planes;
+    ByteBuffer[] buffers;
+
+    Recorded(
+        final int index,
+        final int format,
+        final int yRowStride,
+        final int uvRowStride,
+        final int uvPixelStride) {
+      this.captureNanos = 1000000000L + index * 33000000L;
+      this.receiveNanos = captureNanos + 5000000L + random.nextInt(1000000);
+      this.format = format;
+      this.yRowStride = yRowStride;
+      this.uvRowStride = uvRowStride;
+      this.uvPixelStride = uvPixelStride;
+    }
+
+    // Each buffer starts one byte in, past a byte that must not be recorded.
+    void setPlanes(final boolean direct, final int... lengths) {
+      planes = new byte[lengths.length][];
+      buffers = new ByteBuffer[lengths.length];
+      for (int p = 0; p < lengths.length; ++p) {
+        planes[p] = new byte[lengths[p]];
+        random.nextBytes(planes[p]);
+        final ByteBuffer buffer =
+            direct
+                ? ByteBuffer.allocateDirect(lengths[p] + 1)
+                : ByteBuffer.allocate(lengths[p] + 1);
+        buffer.put((byte) 0x7f).put(planes[p]);
+        buffer.position(1);
+        buffers[p] = buffer;
+      }
+    }
+  }
+}
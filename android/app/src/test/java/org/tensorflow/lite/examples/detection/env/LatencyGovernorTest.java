@@ -0,0 +1,204 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the governor with a simulated clock at one inference per 100ms, with the default
+ * hysteresis: a 100ms budget, 2s down-hold, 15s up-hold, 1.5s settle time and 8 samples minimum.
+ */
+public class LatencyGovernorTest {
+  private static final long BUDGET_MS = 100;
+  private static final long FRAME_MS = 100;
+
+  private final List<LatencyGovernor.Level> ladder =
+      Arrays.asList(
+          new LatencyGovernor.Level("large.tflite", 640, 0),
+          new LatencyGovernor.Level("small.tflite", 416, 0),
+          new LatencyGovernor.Level("small.tflite", 320, 200));
+  private final List<String> events = new ArrayList<String>();
+  private long nowMs;
+  private LatencyGovernor governor;
+
+  private final FrameAdmissionController.Clock clock =
+      new FrameAdmissionController.Clock() {
+        @Override
+        public long nanoTime() {
+          return nowMs * 1000000L;
+        }
+      };
+
+  private final LatencyGovernor.Listener listener =
+      new LatencyGovernor.Listener() {
+        @Override
+        public void onLevelChanged(final LatencyGovernor.Level level) {
+          events.add(nowMs + " " + level);
+        }
+
+        @Override
+        public void onLowPowerChanged(final boolean lowPower) {
+          events.add(nowMs + " low-power " + lowPower);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    nowMs = 0;
+    events.clear();
+  }
+
+  private void start(final int level) {
+    governor = new LatencyGovernor(ladder, level, BUDGET_MS, listener, clock);
+  }
+
+  // Runs inferences of the given latency until the clock reaches untilMs.
+  private void run(final long latencyMs, final boolean detected, final long untilMs) {
+    while (nowMs + FRAME_MS <= untilMs) {
+      nowMs += FRAME_MS;
+      governor.onInference(latencyMs * 1000000L, detected);
+    }
+  }
+
+  @Test
+  public void overBudgetStepsDownAfterSettleSamplesAndHold() {
+    start(0);
+    // Samples count from 1.5s, the eighth arrives at 2.2s and starts the 2s down-hold.
+    run(200, true, 4100);
+    assertEquals(0, governor.getLevelIndex());
+    run(200, true, 4200);
+    assertEquals(1, governor.getLevelIndex());
+    assertEquals(Arrays.asList("4200 small.tflite@416/0ms"), events);
+
+    // The same again from the change: settle until 5.7s, eight samples by 6.4s, hold until 8.4s.
+    run(200, true, 8300);
+    assertEquals(1, governor.getLevelIndex());
+    run(200, true, 8400);
+    assertEquals(2, governor.getLevelIndex());
+    assertEquals(200, governor.getFrameIntervalMs());
+
+    // The cheapest level is the floor.
+    run(200, true, 30000);
+    assertEquals(2, governor.getLevelIndex());
+    assertEquals(2, events.size());
+  }
+
+  @Test
+  public void underBudgetStepsUpOnlyAfterTheLongerHold() {
+    start(2);
+    // Under 60% of the budget from 2.2s; the up-hold is 15s.
+    run(30, true, 17100);
+    assertEquals(2, governor.getLevelIndex());
+    run(30, true, 17200);
+    assertEquals(1, governor.getLevelIndex());
+    assertEquals(Arrays.asList("17200 small.tflite@416/0ms"), events);
+  }
+
+  @Test
+  public void latencyInsideTheHysteresisBandHoldsTheLevel() {
+    start(1);
+    // Between 60% and 100% of the budget: neither over nor under.
+    run(80, true, 60000);
+    assertEquals(1, governor.getLevelIndex());
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void shortSpikeDoesNotStepDown() {
+    start(0);
+    run(50, true, 3000);
+    // Three slow frames stay below the p90 of the 32-sample window.
+    run(200, true, 3300);
+    run(50, true, 20000);
+    assertEquals(0, governor.getLevelIndex());
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void samplesDuringSettleAreIgnored() {
+    start(0);
+    run(200, true, 4200);
+    assertEquals(1, governor.getLevelIndex());
+    // Slow frames right after the change, e.g. the new model warming up, then fast ones.
+    run(1000, true, 5700);
+    run(80, true, 20000);
+    assertEquals(1, governor.getLevelIndex());
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void dropRateCountsAsOverBudget() {
+    start(0);
+    long arrived = 0;
+    long dropped = 0;
+    governor.onFrameCounts(arrived, dropped);
+    // Inference is fast, but 19 of every 20 arriving frames are dropped.
+    while (nowMs < 4100) {
+      arrived += 20;
+      dropped += 19;
+      governor.onFrameCounts(arrived, dropped);
+      run(50, true, nowMs + FRAME_MS);
+    }
+    assertTrue(governor.getDropRate() > 0.9f);
+    assertEquals(0, governor.getLevelIndex());
+    arrived += 20;
+    dropped += 19;
+    governor.onFrameCounts(arrived, dropped);
+    run(50, true, 4200);
+    assertEquals(Arrays.asList("4200 small.tflite@416/0ms"), events);
+  }
+
+  @Test
+  public void findLevelPrefersTheExactSizeThenTheModelsFirstRung() {
+    start(0);
+    assertEquals(2, governor.findLevel("small.tflite", 320));
+    assertEquals(1, governor.findLevel("small.tflite", 640));
+    assertEquals(-1, governor.findLevel("other.tflite", 640));
+  }
+
+  @Test
+  public void setLevelRebasesQuietlyAndRestartsTheHold() {
+    start(0);
+    run(200, true, 4100);
+    // A model picked by hand just before the down-hold ran out.
+    governor.setLevel(1);
+    assertEquals(1, governor.getLevelIndex());
+    assertTrue(events.isEmpty());
+    // Settle until 5.6s, eight samples by 6.3s, hold until 8.3s.
+    run(200, true, 8200);
+    assertEquals(1, governor.getLevelIndex());
+    run(200, true, 8300);
+    assertEquals(Arrays.asList("8300 small.tflite@320/200ms"), events);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setLevelRejectsLevelsOffTheLadder() {
+    start(0);
+    governor.setLevel(3);
+  }
+
+  @Test
+  public void idleEntersAndLeavesLowPower() {
+    start(0);
+    run(50, false, 20000);
+    assertFalse(governor.isLowPower());
+    run(50, false, 20100);
+    assertTrue(governor.isLowPower());
+    assertEquals(1000, governor.getFrameIntervalMs());
+
+    // Over budget while idle does not change the level.
+    run(500, false, 40000);
+    assertEquals(0, governor.getLevelIndex());
+
+    run(50, true, 40100);
+    assertFalse(governor.isLowPower());
+    assertEquals(0, governor.getFrameIntervalMs());
+    assertEquals(Arrays.asList("20100 low-power true", "40100 low-power false"), events);
+  }
+}
@@ -0,0 +1,79 @@
+package org.tensorflow.lite.examples.detection.env;
+
+import static org.junit.Assert.assertTrue;
+
+import android.util.Log;
+import java.lang.management.ManagementFactory;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks that log calls below the minimum level allocate nothing. */
+public class LoggerAllocationTest {
+  private static final int CALLS = 100000;
+  // Slack for the measurement itself; one allocation per call would be megabytes.
+  private static final long MAX_BYTES = 4096;
+
+  private com.sun.management.ThreadMXBean threads;
+  private Logger logger;
+
+  @Before
+  public void setUp() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) bean;
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+    logger = new Logger(LoggerAllocationTest.class);
+    logger.setMinLogLevel(Log.ERROR);
+  }
+
+  @Test
+  public void filteredMessageAllocatesNothing() {
+    assertNoAllocation(() -> {
+      for (int i = 0; i < CALLS; ++i) {
+        logger.d("Frame done");
+        logger.i("Frame done");
+      }
+    });
+  }
+
+  @Test
+  public void filteredPrimitiveArgumentsAllocateNothing() {
+    assertNoAllocation(() -> {
+      for (int i = 0; i < CALLS; ++i) {
+        logger.d("Preparing image %d for detection in bg thread.", (long) i);
+        logger.d("Processing %d results from %d", i, (long) i * 33);
+        logger.v("Confidence %.2f", i * 0.001);
+        logger.i("Running detection on image %d", (long) i);
+      }
+    });
+  }
+
+  @Test
+  public void enabledCallsAreMeasured() {
+    // Guards the other tests: formatting a message must show up in the count.
+    logger.setMinLogLevel(Log.VERBOSE);
+    final long bytes = allocatedBytes(() -> {
+      for (int i = 0; i < 1000; ++i) {
+        logger.d("Preparing image %d for detection in bg thread.", (long) i);
+      }
+    });
+    assertTrue("Formatting allocated only " + bytes + " bytes", bytes > 1000 * 16);
+  }
+
+  private void assertNoAllocation(final Runnable calls) {
+    // Warms up class loading, string constants and the JIT before measuring.
+    calls.run();
+    final long bytes = allocatedBytes(calls);
+    assertTrue(bytes + " bytes allocated by " + CALLS + " filtered calls", bytes < MAX_BYTES);
+  }
+
+  private long allocatedBytes(final Runnable calls) {
+    final long thread = Thread.currentThread().getId();
+    final long before = threads.getThreadAllocatedBytes(thread);
+    calls.run();
+    final long after = threads.getThreadAllocatedBytes(thread);
+    return after - before;
+  }
+}
@@ -0,0 +1,78 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Times decoding and NMS of a full-size output tensor while the share of rows above the
+ * confidence threshold grows, as when the camera points at a crowded shelf. With the top-K cap the
+ * time stays nearly flat; without it NMS grows with the square of the candidate count. Excluded
+ * from the default test run; see build.gradle. {@link DetectionBufferTest} checks the cap itself.
+ */
+public class CandidateDensityBenchmark {
+    private static final int ROWS = 10647;
+    private static final int CLASSES = 10;
+    private static final int ROW_SIZE = 5 + CLASSES;
+    private static final int INPUT_SIZE = 416;
+    private static final float OBJ_THRESH = 0.3f;
+    private static final float[] DENSITIES = {0.01f, 0.1f, 0.5f, 1f};
+    private static final int ROUNDS = 15;
+
+    @Test
+    public void cappedLatencyStaysFlat() {
+        final String[] titles = new String[CLASSES];
+        for (int c = 0; c < CLASSES; ++c) {
+            titles[c] = "class" + c;
+        }
+        final YoloPostProcessor postProcessor = new YoloPostProcessor(titles, OBJ_THRESH);
+        postProcessor.setDecodeThreads(1);
+        final DetectionBuffer detections = new DetectionBuffer();
+
+        final StringBuilder table = new StringBuilder(
+                "density candidates   capped(ms) uncapped(ms)\n");
+        final double[] capped = new double[DENSITIES.length];
+        final double[] uncapped = new double[DENSITIES.length];
+        for (int d = 0; d < DENSITIES.length; ++d) {
+            final ByteBuffer output = DetectionBufferTest.shelfOutput(
+                    new Random(d), ROWS, CLASSES, DENSITIES[d]);
+            postProcessor.setOutput(output, false, 0, 0, ROW_SIZE);
+            postProcessor.setMaxCandidates(YoloPostProcessor.DEFAULT_MAX_CANDIDATES);
+            capped[d] = medianMs(postProcessor, detections);
+            postProcessor.setMaxCandidates(ROWS);
+            uncapped[d] = medianMs(postProcessor, detections);
+            table.append(String.format(Locale.US, "%6.0f%% %10d %12.3f %12.3f\n",
+                    DENSITIES[d] * 100, Math.round(ROWS * DENSITIES[d]), capped[d], uncapped[d]));
+        }
+        postProcessor.shutdown();
+        System.out.print(table);
+
+        final int last = DENSITIES.length - 1;
+        double slowestCapped = 0;
+        for (final double ms : capped) {
+            slowestCapped = Math.max(slowestCapped, ms);
+        }
+        // Generous bounds so a loaded machine does not fail the build; the gap is far larger.
+        assertTrue(table.toString(), capped[last] < 4 * capped[1] + 1);
+        assertTrue(table.toString(), slowestCapped * 4 < uncapped[last]);
+    }
+
+    private static double medianMs(final YoloPostProcessor postProcessor,
+                                   final DetectionBuffer detections) {
+        final double[] times = new double[ROUNDS];
+        for (int round = -3; round < ROUNDS; ++round) {
+            final long start = System.nanoTime();
+            postProcessor.decode(0, ROWS, INPUT_SIZE, INPUT_SIZE, INPUT_SIZE, detections);
+            postProcessor.suppress(detections);
+            if (round >= 0) {
+                times[round] = (System.nanoTime() - start) / 1e6;
+            }
+        }
+        Arrays.sort(times);
+        return times[ROUNDS / 2];
+    }
+}
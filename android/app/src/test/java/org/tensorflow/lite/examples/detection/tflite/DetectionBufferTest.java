@@ -0,0 +1,195 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class DetectionBufferTest {
+    private static final float NMS_THRESHOLD = 0.6f;
+
+    @Test
+    public void offerKeepsTheHighestScores() {
+        final Random random = new Random(1);
+        final DetectionBuffer buffer = new DetectionBuffer();
+        for (int round = 0; round < 200; ++round) {
+            final int candidates = random.nextInt(2000);
+            final int limit = 1 + random.nextInt(300);
+            final float[] scores = distinctScores(random, candidates);
+            buffer.clear(limit);
+            for (int i = 0; i < candidates; ++i) {
+                buffer.offer(0, 0, 10, 10, scores[i], 0, "a");
+                assertTrue(buffer.size() <= limit);
+            }
+
+            final float[] expected = scores.clone();
+            Arrays.sort(expected);
+            final float[] kept = new float[buffer.size()];
+            for (int i = 0; i < kept.length; ++i) {
+                kept[i] = buffer.getScore(i);
+            }
+            Arrays.sort(kept);
+            final int expectedCount = Math.min(candidates, limit);
+            assertEquals(expectedCount, kept.length);
+            for (int i = 0; i < expectedCount; ++i) {
+                assertEquals(expected[candidates - expectedCount + i], kept[i], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void nmsOfOfferedCandidatesMatchesNmsOfTheTopK() {
+        final Random random = new Random(2);
+        final DetectionBuffer offered = new DetectionBuffer();
+        final DetectionBuffer reference = new DetectionBuffer();
+        for (int round = 0; round < 200; ++round) {
+            final int candidates = random.nextInt(1500);
+            final int limit = 1 + random.nextInt(300);
+            final float[] scores = distinctScores(random, candidates);
+            final float[][] boxes = randomBoxes(random, candidates);
+            final int[] classes = new int[candidates];
+            for (int i = 0; i < candidates; ++i) {
+                classes[i] = random.nextInt(4);
+            }
+
+            offered.clear(limit);
+            for (int i = 0; i < candidates; ++i) {
+                offered.offer(boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3], scores[i],
+                        classes[i], "c" + classes[i]);
+            }
+            offered.nms(NMS_THRESHOLD);
+
+            // The top K by sorting, in offer order, through plain add().
+            final List<Integer> byScore = new ArrayList<Integer>();
+            for (int i = 0; i < candidates; ++i) {
+                byScore.add(i);
+            }
+            Collections.sort(byScore, (a, b) -> Float.compare(scores[b], scores[a]));
+            final List<Integer> top = new ArrayList<Integer>(
+                    byScore.subList(0, Math.min(limit, candidates)));
+            Collections.sort(top);
+            reference.clear();
+            for (final int i : top) {
+                reference.add(boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3], scores[i],
+                        classes[i], "c" + classes[i]);
+            }
+            reference.nms(NMS_THRESHOLD);
+
+            assertSameDetections(reference, offered);
+        }
+    }
+
+    @Test
+    public void cappedDecodeKeepsTheTopKOfADenseOutput() {
+        final int rows = 10647;
+        final int classes = 10;
+        final String[] titles = new String[classes];
+        for (int c = 0; c < classes; ++c) {
+            titles[c] = "class" + c;
+        }
+        final YoloPostProcessor postProcessor = new YoloPostProcessor(titles, 0.3f);
+        postProcessor.setDecodeThreads(1);
+        final DetectionBuffer capped = new DetectionBuffer();
+        final DetectionBuffer uncapped = new DetectionBuffer();
+        for (final float density : new float[] {0.01f, 0.1f, 1f}) {
+            postProcessor.setOutput(shelfOutput(new Random(3), rows, classes, density), false,
+                    0, 0, 5 + classes);
+            postProcessor.setMaxCandidates(rows);
+            postProcessor.decode(0, rows, 416, 416, 416, uncapped);
+            postProcessor.setMaxCandidates(YoloPostProcessor.DEFAULT_MAX_CANDIDATES);
+            postProcessor.decode(0, rows, 416, 416, 416, capped);
+
+            final int expectedCount =
+                    Math.min(uncapped.size(), YoloPostProcessor.DEFAULT_MAX_CANDIDATES);
+            assertEquals(expectedCount, capped.size());
+            final float[] all = scoresOf(uncapped);
+            final float[] kept = scoresOf(capped);
+            for (int i = 0; i < expectedCount; ++i) {
+                assertEquals(all[all.length - expectedCount + i], kept[i], 0f);
+            }
+        }
+        postProcessor.shutdown();
+    }
+
+    private static float[] scoresOf(final DetectionBuffer buffer) {
+        final float[] scores = new float[buffer.size()];
+        for (int i = 0; i < scores.length; ++i) {
+            scores[i] = buffer.getScore(i);
+        }
+        Arrays.sort(scores);
+        return scores;
+    }
+
+    static void assertSameDetections(final DetectionBuffer expected, final DetectionBuffer actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.getDetectedClass(i), actual.getDetectedClass(i));
+            assertEquals(expected.getScore(i), actual.getScore(i), 0f);
+            assertEquals(expected.getLeft(i), actual.getLeft(i), 0f);
+            assertEquals(expected.getTop(i), actual.getTop(i), 0f);
+            assertEquals(expected.getRight(i), actual.getRight(i), 0f);
+            assertEquals(expected.getBottom(i), actual.getBottom(i), 0f);
+            assertEquals(expected.getTitle(i), actual.getTitle(i));
+        }
+    }
+
+    // Scores in (0, 1], all different so the top K is unambiguous.
+    static float[] distinctScores(final Random random, final int count) {
+        final List<Integer> ranks = new ArrayList<Integer>();
+        for (int i = 0; i < count; ++i) {
+            ranks.add(i + 1);
+        }
+        Collections.shuffle(ranks, random);
+        final float[] scores = new float[count];
+        for (int i = 0; i < count; ++i) {
+            scores[i] = ranks.get(i) / (float) count;
+        }
+        return scores;
+    }
+
+    // Boxes of a 640 x 640 frame, dense enough that many overlap.
+    static float[][] randomBoxes(final Random random, final int count) {
+        final float[][] boxes = new float[count][];
+        for (int i = 0; i < count; ++i) {
+            final float left = random.nextInt(600);
+            final float top = random.nextInt(600);
+            boxes[i] = new float[] {left, top,
+                    left + 10 + random.nextInt(120), top + 10 + random.nextInt(120)};
+        }
+        return boxes;
+    }
+
+    /**
+     * A float output of {@code rows} rows where a {@code density} share pass the 0.3 threshold
+     * with scattered small boxes, like products on a shelf.
+     */
+    static ByteBuffer shelfOutput(final Random random, final int rows, final int classes,
+                                  final float density) {
+        final int rowSize = 5 + classes;
+        final ByteBuffer output =
+                ByteBuffer.allocateDirect(rows * rowSize * 4).order(ByteOrder.nativeOrder());
+        for (int row = 0; row < rows; ++row) {
+            final int base = row * rowSize * 4;
+            final boolean candidate = random.nextFloat() < density;
+            output.putFloat(base, random.nextFloat());
+            output.putFloat(base + 4, random.nextFloat());
+            output.putFloat(base + 8, 0.02f + 0.08f * random.nextFloat());
+            output.putFloat(base + 12, 0.02f + 0.08f * random.nextFloat());
+            output.putFloat(base + 16,
+                    candidate ? 0.9f + 0.1f * random.nextFloat() : 0.2f * random.nextFloat());
+            final int best = random.nextInt(classes);
+            for (int c = 0; c < classes; ++c) {
+                output.putFloat(base + 20 + 4 * c,
+                        c == best ? 0.7f + 0.3f * random.nextFloat() : 0.1f * random.nextFloat());
+            }
+        }
+        return output;
+    }
+}
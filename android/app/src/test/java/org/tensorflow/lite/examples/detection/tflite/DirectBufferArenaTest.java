@@ -0,0 +1,82 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+
+/** Reuse across nearby size classes and the budget of the direct buffer arena. */
+public class DirectBufferArenaTest {
+    private static final int MB = 1 << 20;
+
+    @Test
+    public void sizeClassesHaveFourStepsPerPowerOfTwo() {
+        assertEquals(4096, DirectBufferArena.sizeClass(1));
+        assertEquals(4 * MB, DirectBufferArena.sizeClass(4 * MB));
+        assertEquals(5 * MB, DirectBufferArena.sizeClass(4 * MB + 1));
+        assertEquals(8 * MB, DirectBufferArena.sizeClass(7 * MB + 1));
+    }
+
+    @Test
+    public void reusesTheSmallestPooledBufferWithinTheReuseClasses() {
+        final DirectBufferArena arena = new DirectBufferArena(64L * MB);
+        final ByteBuffer large = arena.acquire(6 * MB);
+        final ByteBuffer larger = arena.acquire(7 * MB);
+        arena.release(large);
+        arena.release(larger);
+
+        // 4MB + 1 is in the 5MB class; 6MB is one class above and 7MB two.
+        final ByteBuffer reused = arena.acquire(4 * MB + 1);
+        assertSame(large, reused);
+        assertEquals(6 * MB, reused.capacity());
+        assertEquals(6 * MB, arena.getInUseBytes());
+        assertEquals(7 * MB, arena.getPooledBytes());
+
+        // 4MB is three classes below 7MB: a new buffer rather than wasting 3MB.
+        final ByteBuffer fresh = arena.acquire(4 * MB);
+        assertNotSame(larger, fresh);
+        assertEquals(4 * MB, fresh.capacity());
+        assertSame(larger, arena.acquire(5 * MB));
+        assertEquals(0, arena.getPooledBytes());
+        assertEquals(17 * MB, arena.getInUseBytes());
+    }
+
+    @Test
+    public void releasedBuffersAreClearedAndNativeOrder() {
+        final DirectBufferArena arena = new DirectBufferArena(64L * MB);
+        final ByteBuffer buffer = arena.acquire(MB);
+        buffer.limit(16).position(8);
+        arena.release(buffer);
+        final ByteBuffer again = arena.acquire(MB);
+        assertSame(buffer, again);
+        assertEquals(0, again.position());
+        assertEquals(MB, again.limit());
+        assertEquals(ByteOrder.nativeOrder(), again.order());
+    }
+
+    @Test
+    public void trimAndTheBudgetDropPooledBuffers() {
+        final DirectBufferArena arena = new DirectBufferArena(16L * MB);
+        arena.release(arena.acquire(8 * MB));
+        // The pooled 8MB is too small for 10MB and is dropped to fit the new buffer in 16MB.
+        arena.acquire(10 * MB);
+        assertEquals(0, arena.getPooledBytes());
+
+        final ByteBuffer small = arena.acquire(MB);
+        arena.release(small);
+        assertEquals(MB, arena.getPooledBytes());
+        arena.trim();
+        assertEquals(0, arena.getPooledBytes());
+        assertNotSame(small, arena.acquire(MB));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsPastTheBudget() {
+        final DirectBufferArena arena = new DirectBufferArena(16L * MB);
+        arena.acquire(8 * MB);
+        arena.acquire(10 * MB);
+    }
+}
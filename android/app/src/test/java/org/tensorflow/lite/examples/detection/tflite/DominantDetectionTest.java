@@ -0,0 +1,225 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that {@link DetectionBuffer#reduceToDominant} picks the detection the full path, NMS and
+ * then the ranking, would pick: on random sets with many ties, and on output captures replayed
+ * through {@link YoloPostProcessor}.
+ */
+public class DominantDetectionTest {
+    private static final float NMS_THRESHOLD = 0.6f;
+    private static final float AREA_WEIGHT = 0.5f;
+    // Captures recorded on a device with the capture_outputs extra can be dropped in here.
+    private static final String RECORDED_CAPTURES = "/captures";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void matchesNmsThenRankingOnRandomSets() {
+        final Random random = new Random(3);
+        final DetectionBuffer full = new DetectionBuffer();
+        final DetectionBuffer dominant = new DetectionBuffer();
+        for (int round = 0; round < 3000; ++round) {
+            full.clear();
+            final int candidates = 1 + random.nextInt(80);
+            final int classes = 1 + random.nextInt(4);
+            for (int i = 0; i < candidates; ++i) {
+                // Coarse values, so scores and areas tie often.
+                final float left = random.nextInt(20) * 10;
+                final float top = random.nextInt(20) * 10;
+                final int c = random.nextInt(classes);
+                full.add(left, top, left + 10 * (1 + random.nextInt(8)),
+                        top + 10 * (1 + random.nextInt(8)), random.nextInt(10) / 10f, c, "c" + c);
+            }
+            for (final DetectionBuffer.Ranking ranking : DetectionBuffer.Ranking.values()) {
+                dominant.copyFrom(full);
+                final DetectionBuffer expected = new DetectionBuffer();
+                expected.copyFrom(full);
+                final float maxArea = maxArea(expected);
+                expected.nms(NMS_THRESHOLD);
+                final int winner = bestRanked(expected, ranking, maxArea);
+
+                assertTrue(dominant.reduceToDominant(NMS_THRESHOLD, ranking, AREA_WEIGHT));
+                assertEquals(1, dominant.size());
+                assertSameDetection(expected, winner, dominant, 0);
+            }
+        }
+    }
+
+    @Test
+    public void announcesTheSameProductOnCapturedOutputs() throws IOException {
+        final List<File> captures = new ArrayList<File>();
+        captures.add(captureShelfFrames(false));
+        captures.add(captureShelfFrames(true));
+        captures.addAll(recordedCaptures());
+
+        final DetectionBuffer full = new DetectionBuffer();
+        final DetectionBuffer dominant = new DetectionBuffer();
+        int frames = 0;
+        for (final File capture : captures) {
+            final OutputCaptureReader reader = new OutputCaptureReader(capture);
+            final YoloPostProcessor postProcessor =
+                    new YoloPostProcessor(reader.getTitles(), reader.getObjThresh());
+            postProcessor.setDecodeThreads(1);
+            postProcessor.setNmsThreshold(reader.getNmsThreshold());
+            postProcessor.setMaxCandidates(reader.getMaxCandidates());
+            try {
+                while (reader.next()) {
+                    postProcessor.setOutput(reader.getTensor(), reader.isQuantized(),
+                            reader.getScale(), reader.getZeroPoint(), reader.getRowSize());
+
+                    postProcessor.setDominantOnly(null, 0);
+                    postProcessor.decode(0, reader.getRows(), reader.getInputSize(),
+                            reader.getWidth(), reader.getHeight(), full);
+                    postProcessor.suppress(full);
+                    postProcessor.setDominantOnly(DetectionBuffer.Ranking.AREA, AREA_WEIGHT);
+                    postProcessor.decode(0, reader.getRows(), reader.getInputSize(),
+                            reader.getWidth(), reader.getHeight(), dominant);
+                    postProcessor.suppress(dominant);
+
+                    final int largest = full.largestIndex();
+                    assertEquals(capture + " frame " + frames, largest >= 0 ? 1 : 0,
+                            dominant.size());
+                    if (largest >= 0) {
+                        assertSameDetection(full, largest, dominant, 0);
+                    }
+                    frames++;
+                }
+            } finally {
+                postProcessor.shutdown();
+                reader.close();
+            }
+        }
+        assertTrue(frames > 0);
+    }
+
+    // Writes frames of a crowded shelf, products of several classes in overlapping boxes, through
+    // OutputCapture the way the detector activity records them.
+    private File captureShelfFrames(final boolean quantized) throws IOException {
+        final int rows = 6300;
+        final int classes = 10;
+        final int rowSize = 5 + classes;
+        final int inputSize = 320;
+        final float scale = 1 / 255f;
+        final String[] titles = new String[classes];
+        for (int c = 0; c < classes; ++c) {
+            titles[c] = "product" + c;
+        }
+        final ByteBuffer output = ByteBuffer.allocateDirect(rows * rowSize * (quantized ? 1 : 4))
+                .order(ByteOrder.nativeOrder());
+        final YoloPostProcessor postProcessor = new YoloPostProcessor(titles, 0.3f);
+        postProcessor.setOutput(output, quantized, scale, 0, rowSize);
+        postProcessor.shutdown();
+
+        final int frames = 20;
+        final File file = folder.newFile(quantized ? "quantized.bin" : "float.bin");
+        final OutputCapture capture = new OutputCapture(file, "shelf.tflite", postProcessor,
+                ByteOrder.nativeOrder(), OutputCapture.DEFAULT_MIN_OBJECTNESS, 1, frames);
+        final Random random = new Random(quantized ? 5 : 4);
+        for (int frame = 0; frame < frames; ++frame) {
+            for (int row = 0; row < rows; ++row) {
+                final boolean product = random.nextFloat() < 0.05f;
+                final int best = random.nextInt(classes);
+                for (int e = 0; e < rowSize; ++e) {
+                    final float value;
+                    if (e < 2) {
+                        value = random.nextFloat();
+                    } else if (e < 4) {
+                        value = 0.05f + 0.25f * random.nextFloat();
+                    } else if (e == 4) {
+                        value = product ? 0.3f + 0.7f * random.nextFloat() : 0.1f * random.nextFloat();
+                    } else {
+                        value = e - 5 == best ? 0.5f + 0.5f * random.nextFloat()
+                                : 0.2f * random.nextFloat();
+                    }
+                    if (quantized) {
+                        output.put(row * rowSize + e, (byte) Math.round(value / scale));
+                    } else {
+                        output.putFloat((row * rowSize + e) * 4, value);
+                    }
+                }
+            }
+            capture.record(output, 0, rows, inputSize, inputSize, inputSize);
+        }
+        capture.close();
+        assertEquals(frames, capture.getCapturedCount());
+        return file;
+    }
+
+    private List<File> recordedCaptures() {
+        final List<File> files = new ArrayList<File>();
+        final URL url = getClass().getResource(RECORDED_CAPTURES);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return files;
+        }
+        try {
+            final File[] listed = new File(url.toURI()).listFiles();
+            if (listed != null) {
+                for (final File file : listed) {
+                    if (file.getName().endsWith(".bin")) {
+                        files.add(file);
+                    }
+                }
+            }
+        } catch (final URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+        return files;
+    }
+
+    private static float maxArea(final DetectionBuffer buffer) {
+        float maxArea = 0;
+        for (int i = 0; i < buffer.size(); ++i) {
+            maxArea = Math.max(maxArea, buffer.getWidth(i) * buffer.getHeight(i));
+        }
+        return maxArea;
+    }
+
+    // The first best detection of NMS output by the ranking, written out independently.
+    private static int bestRanked(final DetectionBuffer buffer,
+                                  final DetectionBuffer.Ranking ranking, final float maxArea) {
+        if (ranking == DetectionBuffer.Ranking.AREA) {
+            return buffer.largestIndex();
+        }
+        int best = 0;
+        float bestKey = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < buffer.size(); ++i) {
+            final float key = ranking == DetectionBuffer.Ranking.CONFIDENCE
+                    ? buffer.getScore(i)
+                    : AREA_WEIGHT * buffer.getWidth(i) * buffer.getHeight(i) / maxArea
+                            + (1 - AREA_WEIGHT) * buffer.getScore(i);
+            if (key > bestKey) {
+                best = i;
+                bestKey = key;
+            }
+        }
+        return best;
+    }
+
+    private static void assertSameDetection(final DetectionBuffer expected, final int i,
+                                            final DetectionBuffer actual, final int j) {
+        assertEquals(expected.getTitle(i), actual.getTitle(j));
+        assertEquals(expected.getDetectedClass(i), actual.getDetectedClass(j));
+        assertEquals(expected.getScore(i), actual.getScore(j), 0f);
+        assertEquals(expected.getLeft(i), actual.getLeft(j), 0f);
+        assertEquals(expected.getTop(i), actual.getTop(j), 0f);
+        assertEquals(expected.getRight(i), actual.getRight(j), 0f);
+        assertEquals(expected.getBottom(i), actual.getBottom(j), 0f);
+    }
+}
@@ -0,0 +1,73 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * The table decode of {@link YoloV5ClassifierDetect} must match the formulas it replaced, which
+ * divided by the stride, squared with {@code Math.pow} and looked anchors up through the masks, on
+ * every row of every head.
+ */
+public class GridDecodeTablesTest {
+    private static final int[][] MASKS = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
+    private static final int[] ANCHORS = {
+            10,13, 16,30, 33,23, 30,61, 62,45, 59,119, 116,90, 156,198, 373,326
+    };
+    // Relative error of float multiply-adds against the old float/double mix.
+    private static final float TOLERANCE = 1e-5f;
+
+    @Test
+    public void matchesTheOldFormulasAt640() {
+        assertMatchesOldDecode(640, new int[]{80, 40, 20});
+    }
+
+    @Test
+    public void matchesTheOldFormulasForTheShippedModels() {
+        assertMatchesOldDecode(416, new int[]{80, 40, 20});
+        assertMatchesOldDecode(416, new int[]{40, 20, 10});
+    }
+
+    private static void assertMatchesOldDecode(final int inputSize, final int[] outputWidth) {
+        final GridDecodeTables tables = new GridDecodeTables(inputSize, outputWidth, MASKS, ANCHORS);
+        final Random random = new Random(inputSize + outputWidth[0]);
+        int rows = 0;
+        for (int i = 0; i < outputWidth.length; i++) {
+            assertEquals(rows, tables.getHeadStart(i));
+            final int gridWidth = outputWidth[i];
+            final int cells = gridWidth * gridWidth;
+            for (int index = 0; index < MASKS[i].length * cells; ++index) {
+                final int b = index / cells;
+                final int y = (index % cells) / gridWidth;
+                final int x = index % gridWidth;
+                final int row = rows + index;
+                // Both ends of the sigmoid's range, then random values.
+                for (int sample = 0; sample < 4; ++sample) {
+                    final float sx = sample(random, sample);
+                    final float sy = sample(random, sample);
+                    final float sw = sample(random, sample);
+                    final float sh = sample(random, sample);
+                    final float xPos = (x + sx * 2.f - 0.5f) * (1.0f * inputSize / gridWidth);
+                    final float yPos = (y + sy * 2.f - 0.5f) * (1.0f * inputSize / gridWidth);
+                    final float w = (float) (Math.pow(sw * 2, 2) * ANCHORS[2 * MASKS[i][b]]);
+                    final float h = (float) (Math.pow(sh * 2, 2) * ANCHORS[2 * MASKS[i][b] + 1]);
+                    assertClose(xPos, tables.centerX(i, row, sx));
+                    assertClose(yPos, tables.centerY(i, row, sy));
+                    assertClose(w, tables.width(row, sw));
+                    assertClose(h, tables.height(row, sh));
+                }
+            }
+            rows += MASKS[i].length * cells;
+        }
+        assertEquals(rows, tables.getHeadStart(outputWidth.length));
+    }
+
+    private static float sample(final Random random, final int sample) {
+        return sample == 0 ? 0f : sample == 1 ? 1f : random.nextFloat();
+    }
+
+    private static void assertClose(final float expected, final float actual) {
+        assertEquals(expected, actual, TOLERANCE * Math.max(1f, Math.abs(expected)));
+    }
+}
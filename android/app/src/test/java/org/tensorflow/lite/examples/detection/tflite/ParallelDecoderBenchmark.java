@@ -0,0 +1,90 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Times {@link YoloPostProcessor#decode} of a full-size 80-class output with 1 to 8 workers and
+ * prints the speedup over serial decode. Run on the target device class before raising {@link
+ * ParallelDecoder#DEFAULT_WORKERS}. Excluded from the default test run; see build.gradle.
+ * {@link ParallelDecoderTest} checks that the results do not depend on the worker count.
+ */
+public class ParallelDecoderBenchmark {
+    private static final int ROWS = 10647;
+    private static final int CLASSES = 80;
+    private static final int ROW_SIZE = 5 + CLASSES;
+    private static final int INPUT_SIZE = 416;
+    private static final int MAX_WORKERS = 8;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int ROUNDS = 21;
+
+    @Test
+    public void scalesFromOneToEightWorkers() {
+        final String[] titles = new String[CLASSES];
+        for (int c = 0; c < CLASSES; ++c) {
+            titles[c] = "class" + c;
+        }
+        final ByteBuffer output = syntheticOutput(new Random(7));
+        final YoloPostProcessor postProcessor = new YoloPostProcessor(titles, 0.3f);
+        postProcessor.setOutput(output, false, 0, 0, ROW_SIZE);
+        final DetectionBuffer parallel = new DetectionBuffer();
+
+        final StringBuilder table = new StringBuilder(String.format(Locale.US,
+                "processors=%d big cores=%d\nworkers  median(ms)  speedup\n",
+                Runtime.getRuntime().availableProcessors(), ParallelDecoder.bigCoreCount()));
+        // Warms the JIT on every worker count first, so serial decode is not measured colder.
+        for (int workers = 1; workers <= MAX_WORKERS; ++workers) {
+            postProcessor.setDecodeThreads(workers);
+            medianMs(postProcessor, parallel);
+        }
+        double serialMs = 0;
+        for (int workers = 1; workers <= MAX_WORKERS; ++workers) {
+            postProcessor.setDecodeThreads(workers);
+            final double ms = medianMs(postProcessor, parallel);
+            if (workers == 1) {
+                serialMs = ms;
+            }
+            table.append(String.format(Locale.US, "%7d %11.3f %8.2f\n", workers, ms, serialMs / ms));
+        }
+        postProcessor.shutdown();
+        System.out.print(table);
+    }
+
+    private static double medianMs(final YoloPostProcessor postProcessor,
+                                   final DetectionBuffer detections) {
+        final double[] times = new double[ROUNDS];
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; ++round) {
+            final long start = System.nanoTime();
+            postProcessor.decode(0, ROWS, INPUT_SIZE, INPUT_SIZE, INPUT_SIZE, detections);
+            postProcessor.suppress(detections);
+            if (round >= 0) {
+                times[round] = (System.nanoTime() - start) / 1e6;
+            }
+        }
+        Arrays.sort(times);
+        return times[ROUNDS / 2];
+    }
+
+    // A typical frame: a few percent of the rows pass objectness and every class is scanned.
+    private static ByteBuffer syntheticOutput(final Random random) {
+        final ByteBuffer output =
+                ByteBuffer.allocateDirect(ROWS * ROW_SIZE * 4).order(ByteOrder.nativeOrder());
+        for (int row = 0; row < ROWS; ++row) {
+            final int base = row * ROW_SIZE * 4;
+            output.putFloat(base, random.nextFloat());
+            output.putFloat(base + 4, random.nextFloat());
+            output.putFloat(base + 8, 0.05f + 0.3f * random.nextFloat());
+            output.putFloat(base + 12, 0.05f + 0.3f * random.nextFloat());
+            output.putFloat(base + 16, random.nextFloat() < 0.05f
+                    ? 0.4f + 0.6f * random.nextFloat() : 0.35f * random.nextFloat());
+            for (int c = 0; c < CLASSES; ++c) {
+                output.putFloat(base + 20 + 4 * c, random.nextFloat());
+            }
+        }
+        return output;
+    }
+}
@@ -0,0 +1,56 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/** Parallel decode must give exactly the serial result, whatever the worker count. */
+public class ParallelDecoderTest {
+    private static final int ROWS = 10647;
+    private static final int CLASSES = 80;
+    private static final int INPUT_SIZE = 416;
+
+    @Test
+    public void defaultsToSerialDecode() {
+        assertEquals(ParallelDecoder.DEFAULT_WORKERS,
+                new YoloPostProcessor(titles(), 0.3f).getDecodeThreads());
+    }
+
+    @Test
+    public void everyWorkerCountMatchesSerialDecode() {
+        final YoloPostProcessor postProcessor = new YoloPostProcessor(titles(), 0.3f);
+        final DetectionBuffer serial = new DetectionBuffer();
+        final DetectionBuffer parallel = new DetectionBuffer();
+        try {
+            for (final float density : new float[] {0.01f, 0.1f, 1f}) {
+                postProcessor.setOutput(
+                        DetectionBufferTest.shelfOutput(new Random(5), ROWS, CLASSES, density),
+                        false, 0, 0, 5 + CLASSES);
+                postProcessor.setDecodeThreads(1);
+                decode(postProcessor, serial);
+                for (int workers = 2; workers <= 8; ++workers) {
+                    postProcessor.setDecodeThreads(workers);
+                    decode(postProcessor, parallel);
+                    DetectionBufferTest.assertSameDetections(serial, parallel);
+                }
+            }
+        } finally {
+            postProcessor.shutdown();
+        }
+    }
+
+    private static void decode(final YoloPostProcessor postProcessor,
+                               final DetectionBuffer detections) {
+        postProcessor.decode(0, ROWS, INPUT_SIZE, INPUT_SIZE, INPUT_SIZE, detections);
+        postProcessor.suppress(detections);
+    }
+
+    private static String[] titles() {
+        final String[] titles = new String[CLASSES];
+        for (int c = 0; c < CLASSES; ++c) {
+            titles[c] = "class" + c;
+        }
+        return titles;
+    }
+}
@@ -0,0 +1,158 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.tensorflow.lite.examples.detection.env.FrameAdmissionController;
+
+/** Drives the cache with a simulated clock; the three views below are 32 or 64 bits apart. */
+public class ResultCacheTest {
+    private static final long VIEW_A = 0L;
+    private static final long VIEW_B = -1L;
+    private static final long VIEW_C = 0x00000000ffffffffL;
+
+    private long nowMs;
+
+    private final FrameAdmissionController.Clock clock = new FrameAdmissionController.Clock() {
+        @Override
+        public long nanoTime() {
+            return nowMs * 1000000L;
+        }
+    };
+
+    private final DetectionBuffer out = new DetectionBuffer();
+
+    @Test
+    public void hitsWithinTheMaximumHammingDistanceOnly() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.store(VIEW_A, results(0.9f, "a"), 0);
+        // Ten low bits flipped is still the same view, eleven is not.
+        assertTrue(cache.lookup(VIEW_A ^ 0x3ffL, out));
+        assertEquals("a", out.getTitle(0));
+        assertFalse(cache.lookup(VIEW_A ^ 0x7ffL, out));
+
+        cache.setMaxDistance(0);
+        assertFalse(cache.lookup(VIEW_A ^ 1L, out));
+        assertTrue(cache.lookup(VIEW_A, out));
+    }
+
+    @Test
+    public void lookupPicksTheNearestEntry() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.store(VIEW_A, results(0.9f, "a"), 0);
+        cache.store(VIEW_B, results(0.9f, "b"), 0);
+        // Both entries are in reach of any hash now.
+        cache.setMaxDistance(64);
+        assertTrue(cache.lookup(VIEW_B ^ 0xfL, out));
+        assertEquals("b", out.getTitle(0));
+        assertTrue(cache.lookup(VIEW_A ^ 0xfL, out));
+        assertEquals("a", out.getTitle(0));
+    }
+
+    @Test
+    public void confidencesHalveEveryHalfLife() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.setAging(10000, 1000);
+        cache.store(VIEW_A, results(0.8f, "a"), 0);
+        nowMs = 1000;
+        assertTrue(cache.lookup(VIEW_A, out));
+        assertEquals(0.4f, out.getScore(0), 1e-6f);
+        nowMs = 3000;
+        assertTrue(cache.lookup(VIEW_A, out));
+        assertEquals(0.1f, out.getScore(0), 1e-6f);
+
+        cache.setAging(10000, 0);
+        assertTrue(cache.lookup(VIEW_A, out));
+        assertEquals(0.8f, out.getScore(0), 0f);
+        // The box is handed back as stored.
+        assertEquals(1f, out.getLeft(0), 0f);
+        assertEquals(4f, out.getBottom(0), 0f);
+    }
+
+    @Test
+    public void entriesOlderThanTheMaximumAgeMiss() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.store(VIEW_A, results(0.9f, "a"), 0);
+        nowMs = ResultCache.DEFAULT_MAX_AGE_MS;
+        assertTrue(cache.lookup(VIEW_A, out));
+        nowMs++;
+        assertFalse(cache.lookup(VIEW_A, out));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void decayedBelowTheMinimumConfidenceIsRemoved() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.setAging(10000, 1000);
+        cache.setMinConfidence(0.3f);
+        cache.store(VIEW_A, results(0.5f, "a"), 0);
+        cache.store(VIEW_B, results(0.9f, "b"), 0);
+        cache.store(VIEW_C, new DetectionBuffer(), 0);
+        out.add(0, 0, 1, 1, 1f, 0, "untouched");
+
+        nowMs = 1000;
+        assertFalse(cache.lookup(VIEW_A, out));
+        assertEquals("untouched", out.getTitle(0));
+        assertEquals(2, cache.size());
+        // The last entry moved into the freed slot and still hits; an empty result never decays.
+        assertTrue(cache.lookup(VIEW_C, out));
+        assertEquals(0, out.size());
+        assertTrue(cache.lookup(VIEW_B, out));
+        assertEquals("b", out.getTitle(0));
+        assertEquals(0.45f, out.getScore(0), 1e-6f);
+    }
+
+    @Test
+    public void storeReplacesTheSameViewThenTheLeastRecentlyUsed() {
+        final ResultCache cache = new ResultCache(2, clock);
+        cache.store(VIEW_A, results(0.9f, "a"), 0);
+        nowMs = 10;
+        cache.store(VIEW_B, results(0.9f, "b"), 0);
+        nowMs = 20;
+        assertTrue(cache.lookup(VIEW_A, out));
+
+        // A nearby hash updates the entry for the same view in place.
+        nowMs = 30;
+        cache.store(VIEW_B ^ 1L, results(0.7f, "b2", "b3"), 0);
+        assertEquals(2, cache.size());
+        assertTrue(cache.lookup(VIEW_B, out));
+        assertEquals(2, out.size());
+        assertEquals("b2", out.getTitle(0));
+
+        // B was used at 30 and A at 20, so a new view evicts A.
+        nowMs = 40;
+        cache.store(VIEW_C, results(0.9f, "c"), 0);
+        assertEquals(2, cache.size());
+        assertFalse(cache.lookup(VIEW_A, out));
+        assertTrue(cache.lookup(VIEW_B, out));
+        assertTrue(cache.lookup(VIEW_C, out));
+        assertEquals("c", out.getTitle(0));
+    }
+
+    @Test
+    public void savedTimeCountsHitsAtTheMeanStoredCost() {
+        final ResultCache cache = new ResultCache(4, clock);
+        cache.store(VIEW_A, results(0.9f, "a"), 100);
+        cache.store(VIEW_B, results(0.9f, "b"), 300);
+        cache.lookup(VIEW_A, out);
+        cache.lookup(VIEW_B, out);
+        cache.lookup(VIEW_C, out);
+        assertEquals(400, cache.getSavedNanos());
+        assertEquals(2f / 3, cache.getHitRatio(), 1e-6f);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertFalse(cache.lookup(VIEW_A, out));
+    }
+
+    private static DetectionBuffer results(final float score, final String... titles) {
+        final DetectionBuffer results = new DetectionBuffer();
+        for (int i = 0; i < titles.length; ++i) {
+            results.add(1 + i, 2, 3, 4, score, i, titles[i]);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,188 @@
+package org.tensorflow.lite.examples.detection.tflite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Runs {@link YoloV5Classifier} over a scripted {@link FakeBackend}: known output rows go in, and
+ * the decoded boxes, scores and classes, the per-image slices of batched runs and the number of
+ * backend runs come out.
+ */
+public class YoloV5ClassifierTest {
+    private static final int INPUT_SIZE = 32;
+    private static final int ROWS = 6;
+    private static final int CLASSES = 3;
+    private static final float TOLERANCE = 0.01f;
+    private static final List<String> LABELS = Arrays.asList("a", "b", "c");
+
+    private YoloV5Classifier classifier;
+
+    @After
+    public void tearDown() {
+        if (classifier != null) {
+            classifier.close();
+        }
+    }
+
+    // Two boxes: class 1 at 0.72 in the top-left quarter, class 2 at 0.8 in the bottom-right.
+    // The other rows are below the objectness threshold or empty.
+    private static float[] imageA() {
+        final float[] rows = new float[ROWS * (5 + CLASSES)];
+        setRow(rows, 0, 0.25f, 0.25f, 0.25f, 0.25f, 0.9f, 0.1f, 0.8f, 0.1f);
+        setRow(rows, 1, 0.5f, 0.5f, 0.5f, 0.5f, 0.2f, 1f, 0f, 0f);
+        setRow(rows, 3, 0.75f, 0.75f, 0.25f, 0.25f, 0.8f, 0f, 0f, 1f);
+        return rows;
+    }
+
+    // One large box of class 0 at 0.6.
+    private static float[] imageB() {
+        final float[] rows = new float[ROWS * (5 + CLASSES)];
+        setRow(rows, 5, 0.5f, 0.5f, 0.5f, 0.75f, 0.6f, 1f, 0f, 0f);
+        return rows;
+    }
+
+    private static void setRow(final float[] rows, final int row, final float... values) {
+        System.arraycopy(values, 0, rows, row * (5 + CLASSES), values.length);
+    }
+
+    private static void assertImageA(final DetectionBuffer detections) {
+        assertEquals(2, detections.size());
+        final int first = detections.getDetectedClass(0) == 1 ? 0 : 1;
+        assertDetection(detections, first, 1, 0.72f, 4, 4, 12, 12);
+        assertDetection(detections, 1 - first, 2, 0.8f, 20, 20, 28, 28);
+    }
+
+    private static void assertImageB(final DetectionBuffer detections) {
+        assertEquals(1, detections.size());
+        assertDetection(detections, 0, 0, 0.6f, 8, 4, 24, 28);
+    }
+
+    private static void assertDetection(final DetectionBuffer detections, final int i,
+                                        final int detectedClass, final float score,
+                                        final float left, final float top,
+                                        final float right, final float bottom) {
+        assertEquals(detectedClass, detections.getDetectedClass(i));
+        assertEquals(score, detections.getScore(i), TOLERANCE);
+        assertEquals(left, detections.getLeft(i), INPUT_SIZE * TOLERANCE);
+        assertEquals(top, detections.getTop(i), INPUT_SIZE * TOLERANCE);
+        assertEquals(right, detections.getRight(i), INPUT_SIZE * TOLERANCE);
+        assertEquals(bottom, detections.getBottom(i), INPUT_SIZE * TOLERANCE);
+    }
+
+    private static FakeBackend floatBackend() {
+        return new FakeBackend(
+                new InferenceBackend.TensorSpec(new int[]{1, INPUT_SIZE, INPUT_SIZE, 3},
+                        InferenceBackend.DataType.FLOAT32, 0, 0),
+                new InferenceBackend.TensorSpec(new int[]{1, ROWS, 5 + CLASSES},
+                        InferenceBackend.DataType.FLOAT32, 0, 0));
+    }
+
+    @Test
+    public void decodesScriptedRowsOfAFloatModel() {
+        final FakeBackend backend = floatBackend();
+        backend.addOutputs(imageA());
+        classifier = YoloV5Classifier.create(backend, LABELS, false, INPUT_SIZE);
+        assertEquals(INPUT_SIZE, classifier.getInputSize());
+
+        final DetectionBuffer detections = new DetectionBuffer();
+        classifier.recognizeInto(new Images(2), 0, detections);
+        assertImageA(detections);
+        assertEquals(1, backend.getRunCount());
+    }
+
+    @Test
+    public void decodesScriptedRowsOfAQuantizedModel() {
+        final FakeBackend backend = new FakeBackend(
+                new InferenceBackend.TensorSpec(new int[]{1, INPUT_SIZE, INPUT_SIZE, 3},
+                        InferenceBackend.DataType.UINT8, 1 / 255f, 0),
+                new InferenceBackend.TensorSpec(new int[]{1, ROWS, 5 + CLASSES},
+                        InferenceBackend.DataType.UINT8, 1 / 255f, 0));
+        backend.addOutputs(imageA());
+        classifier = YoloV5Classifier.create(backend, LABELS, true, INPUT_SIZE);
+
+        final DetectionBuffer detections = new DetectionBuffer();
+        classifier.recognizeInto(new Images(1), 0, detections);
+        assertImageA(detections);
+        assertEquals(1, backend.getRunCount());
+    }
+
+    @Test
+    public void batchesDecodeEachImagesSliceAndCountRuns() {
+        final FakeBackend backend = floatBackend();
+        backend.addOutputs(imageA());
+        backend.addOutputs(imageB());
+        classifier = YoloV5Classifier.create(backend, LABELS, false, INPUT_SIZE);
+        classifier.setMaxBatchSize(2);
+
+        final DetectionBuffer single = new DetectionBuffer();
+        classifier.recognizeInto(new Images(1), 0, single);
+        assertImageA(single);
+
+        // Five images: two batches of two, then one alone. The script carries on at image B.
+        final List<DetectionBuffer> results = new ArrayList<DetectionBuffer>();
+        for (int i = 0; i < 5; ++i) {
+            results.add(new DetectionBuffer());
+        }
+        classifier.recognizeBatch(new Images(5), results);
+        assertEquals(1 + 3, backend.getRunCount());
+        assertImageB(results.get(0));
+        assertImageA(results.get(1));
+        assertImageB(results.get(2));
+        assertImageA(results.get(3));
+        assertImageB(results.get(4));
+
+        // Back to single images after the batch.
+        classifier.recognizeInto(new Images(1), 0, single);
+        assertImageA(single);
+        assertEquals(5, backend.getRunCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchRejectsImagesOfAnotherSize() {
+        final FakeBackend backend = floatBackend();
+        classifier = YoloV5Classifier.create(backend, LABELS, false, INPUT_SIZE);
+        final List<DetectionBuffer> results =
+                Arrays.asList(new DetectionBuffer(), new DetectionBuffer());
+        classifier.recognizeBatch(new Images(2, INPUT_SIZE / 2), results);
+    }
+
+    // Uniform grey images of one size.
+    private static final class Images implements YoloV5Classifier.Images {
+        private final int count;
+        private final int size;
+
+        Images(final int count) {
+            this(count, INPUT_SIZE);
+        }
+
+        Images(final int count, final int size) {
+            this.count = count;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public int getWidth(final int index) {
+            return size;
+        }
+
+        @Override
+        public int getHeight(final int index) {
+            return size;
+        }
+
+        @Override
+        public void getPixels(final int index, final int[] argb) {
+            Arrays.fill(argb, 0, size * size, 0xff808080);
+        }
+    }
+}